@@ -0,0 +1,43 @@
+package com.metro.vigo.backend.bench;
+
+import com.metro.vigo.backend.api.dto.NextArrivalDto;
+import com.metro.vigo.backend.arrival.ArrivalService;
+import com.metro.vigo.backend.incident.ActiveIncidentCache;
+import com.metro.vigo.backend.metrics.MetricsRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class ArrivalServiceBenchmark {
+
+    // Busiest interchange vs. a single-line stop
+    @Param({"Praza de América", "Navia"})
+    public String station;
+
+    private ArrivalService service;
+    private long stationId;
+
+    @Setup
+    public void setup() {
+        var repos = VigoFixture.load();
+        service = new ArrivalService(repos.snapshots(), new ActiveIncidentCache(repos.incidentRepository()), new MetricsRegistry(), 1);
+        stationId = VigoFixture.stationId(repos, station);
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public List<NextArrivalDto> nextArrivals() {
+        return service.nextArrivalsForStation(stationId);
+    }
+
+    // The once-a-minute build of every station's board (the request path is then an array read)
+    @Benchmark
+    public void precomputeBoards() {
+        service.precompute();
+    }
+}
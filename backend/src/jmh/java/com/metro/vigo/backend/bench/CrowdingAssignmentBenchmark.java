@@ -0,0 +1,59 @@
+package com.metro.vigo.backend.bench;
+
+import com.metro.vigo.backend.api.dto.CrowdingDemandDto;
+import com.metro.vigo.backend.journey.CrowdingService;
+import com.metro.vigo.backend.metrics.MetricsRegistry;
+import com.metro.vigo.backend.network.LineStation;
+import com.metro.vigo.backend.synthetic.SyntheticNetworkGenerator;
+import com.metro.vigo.backend.synthetic.SyntheticNetworkSpec;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Assigns a random OD matrix (1M pairs, ~5.5M trips) to a 5000-station network; one op is one full assignment. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class CrowdingAssignmentBenchmark {
+
+    @Param({"1", "0"})
+    public int parallelism; // 0 = all cores
+
+    private CrowdingService service;
+    private List<CrowdingDemandDto.Flow> flows;
+    private Instant when;
+
+    @Setup
+    public void setup() {
+        var network = SyntheticNetworkGenerator.generate(SyntheticNetworkSpec.of(5000, 300, 42));
+        var repos = InMemoryRepositories.of(network);
+        service = new CrowdingService(repos.snapshots(), new MetricsRegistry(), parallelism, 600);
+
+        List<Long> served = repos.links().stream().map(LineStation::getStation).map(s -> s.getId()).distinct().toList();
+        var random = new SplittableRandom(7);
+        flows = new ArrayList<>(1_000_000);
+        for (int i = 0; i < 1_000_000; i++) {
+            flows.add(new CrowdingDemandDto.Flow(
+                    served.get(random.nextInt(served.size())),
+                    served.get(random.nextInt(served.size())),
+                    1 + random.nextInt(10)));
+        }
+        when = Instant.parse("2026-03-02T08:15:00Z");
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public long assign() {
+        return service.assign(flows, when, 2).assignedTrips();
+    }
+}
@@ -0,0 +1,210 @@
+package com.metro.vigo.backend.bench;
+
+import com.metro.vigo.backend.incident.Incident;
+import com.metro.vigo.backend.incident.IncidentRepository;
+import com.metro.vigo.backend.line.Line;
+import com.metro.vigo.backend.line.LineRepository;
+import com.metro.vigo.backend.network.Footpaths;
+import com.metro.vigo.backend.network.LineStation;
+import com.metro.vigo.backend.network.LineStationRepository;
+import com.metro.vigo.backend.network.NetworkSnapshot;
+import com.metro.vigo.backend.network.NetworkSnapshotService;
+import com.metro.vigo.backend.station.Station;
+import com.metro.vigo.backend.station.StationRepository;
+import com.metro.vigo.backend.synthetic.SyntheticNetwork;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+/**
+ * Map-backed stand-ins for the Spring Data repositories, so services can be benchmarked without a DB.
+ * Only the query methods the services call are implemented; anything else throws.
+ */
+public final class InMemoryRepositories {
+
+    private final Map<Long, Line> lines = new LinkedHashMap<>();
+    private final Map<Long, Station> stations = new LinkedHashMap<>();
+    private final List<LineStation> links = new ArrayList<>();
+    private final List<Incident> incidents = new ArrayList<>();
+
+    // Precomputed query results, as an index-backed DB would return them
+    private final Map<Long, List<LineStation>> linksByLine = new HashMap<>();
+    private final Map<Long, List<LineStation>> linksByStation = new HashMap<>();
+    private List<Station> stationsByName = List.of();
+
+    private long nextId = 1;
+
+    /** Loads a generated network (ids are assigned here) and indexes it. */
+    public static InMemoryRepositories of(SyntheticNetwork network) {
+        var repos = new InMemoryRepositories();
+        network.lines().forEach(repos::add);
+        network.stations().forEach(repos::add);
+        network.links().forEach(repos::add);
+        return repos.index();
+    }
+
+    public Line add(Line line) {
+        setId(line, nextId++);
+        lines.put(line.getId(), line);
+        return line;
+    }
+
+    public Station add(Station station) {
+        setId(station, nextId++);
+        stations.put(station.getId(), station);
+        return station;
+    }
+
+    public LineStation add(LineStation link) {
+        setId(link, nextId++);
+        links.add(link);
+        return link;
+    }
+
+    public Incident add(Incident incident) {
+        setId(incident, nextId++);
+        incidents.add(incident);
+        return incident;
+    }
+
+    /** Call once after loading, before handing out repositories. */
+    public InMemoryRepositories index() {
+        linksByLine.clear();
+        linksByStation.clear();
+        for (var ls : links) {
+            linksByLine.computeIfAbsent(ls.getLine().getId(), k -> new ArrayList<>()).add(ls);
+            linksByStation.computeIfAbsent(ls.getStation().getId(), k -> new ArrayList<>()).add(ls);
+        }
+        var byPosition = Comparator.comparingInt(LineStation::getPosition);
+        linksByLine.values().forEach(l -> l.sort(byPosition));
+        linksByStation.values().forEach(l -> l.sort(byPosition));
+
+        stationsByName = stations.values().stream()
+                .sorted(Comparator.comparing(Station::getName).thenComparing(Station::getId))
+                .toList();
+        return this;
+    }
+
+    public LineRepository lineRepository() {
+        return proxy(LineRepository.class, (name, args) -> switch (name) {
+            case "findById" -> Optional.ofNullable(lines.get((Long) args[0]));
+            case "findAll" -> new ArrayList<>(lines.values());
+            case "count" -> (long) lines.size();
+            default -> unsupported(name);
+        });
+    }
+
+    public StationRepository stationRepository() {
+        return proxy(StationRepository.class, (name, args) -> switch (name) {
+            case "findById" -> Optional.ofNullable(stations.get((Long) args[0]));
+            case "findAll" -> new ArrayList<>(stationsByName);
+            case "findAllById" -> {
+                List<Station> result = new ArrayList<>();
+                ((Iterable<?>) args[0]).forEach(id -> {
+                    var s = stations.get((Long) id);
+                    if (s != null) result.add(s);
+                });
+                yield result;
+            }
+            case "count" -> (long) stations.size();
+            case "findTop20ByOrderByNameAsc" -> stationsByName.stream().limit(20).toList();
+            case "findTop10ByNameContainingIgnoreCaseOrderByNameAsc" -> {
+                var q = ((String) args[0]).toLowerCase(Locale.ROOT);
+                yield stationsByName.stream()
+                        .filter(s -> s.getName().toLowerCase(Locale.ROOT).contains(q))
+                        .limit(10)
+                        .toList();
+            }
+            default -> unsupported(name);
+        });
+    }
+
+    public LineStationRepository lineStationRepository() {
+        return proxy(LineStationRepository.class, (name, args) -> switch (name) {
+            case "findByLineIdWithStationsOrdered" -> linksByLine.getOrDefault((Long) args[0], List.of());
+            case "findByStationIdWithLinesOrdered" -> linksByStation.getOrDefault((Long) args[0], List.of());
+            case "findAllWithLinesAndStationsOrdered", "findAll" -> linksByLine.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .flatMap(e -> e.getValue().stream())
+                    .toList();
+            case "count" -> (long) links.size();
+            default -> unsupported(name);
+        });
+    }
+
+    public IncidentRepository incidentRepository() {
+        return proxy(IncidentRepository.class, (name, args) -> switch (name) {
+            case "findActiveWithRefs" -> incidents.stream()
+                    .filter(Incident::isActive)
+                    .sorted(Comparator.comparing((Incident i) -> i.getSeverity().ordinal()).reversed()
+                            .thenComparing(Incident::getCreatedAt, Comparator.reverseOrder()))
+                    .toList();
+            case "findActiveFiltered" -> incidents.stream()
+                    .filter(Incident::isActive)
+                    .filter(i -> args[0] == null || (i.getLine() != null && i.getLine().getId().equals(args[0])))
+                    .filter(i -> args[1] == null || (i.getStation() != null && i.getStation().getId().equals(args[1])))
+                    .toList();
+            case "count" -> (long) incidents.size();
+            default -> unsupported(name);
+        });
+    }
+
+    /** Snapshot service that always serves a snapshot built once from these repositories. */
+    public NetworkSnapshotService snapshots() {
+        var snapshot = NetworkSnapshot.of(
+                1,
+                List.copyOf(lines.values()),
+                lineStationRepository().findAllWithLinesAndStationsOrdered(),
+                stationsByName,
+                Footpaths.Settings.DEFAULT
+        );
+        return new NetworkSnapshotService(null, null, null, null, null, 0, 0) {
+            @Override
+            public NetworkSnapshot current() {
+                return snapshot;
+            }
+        };
+    }
+
+    public Collection<Line> lines() { return lines.values(); }
+    public Collection<Station> stations() { return stations.values(); }
+    public List<LineStation> links() { return links; }
+    public List<Incident> incidents() { return incidents; }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        Object instance = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) return objectMethod(p, method, args, type);
+            return handler.handle(method.getName(), args == null ? new Object[0] : args);
+        });
+        return type.cast(instance);
+    }
+
+    private static Object objectMethod(Object proxy, Method method, Object[] args, Class<?> type) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> "InMemory" + type.getSimpleName();
+        };
+    }
+
+    private static Object unsupported(String method) {
+        throw new UnsupportedOperationException("Not implemented in memory: " + method);
+    }
+
+    private static void setId(Object entity, long id) {
+        try {
+            Field field = entity.getClass().getDeclaredField("id");
+            field.setAccessible(true);
+            field.set(entity, id);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Cannot set id on " + entity.getClass().getSimpleName(), ex);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.metro.vigo.backend.bench;
+
+import com.metro.vigo.backend.api.NotFoundException;
+import com.metro.vigo.backend.journey.CrowdingService;
+import com.metro.vigo.backend.journey.JourneyPlannerService;
+import com.metro.vigo.backend.metrics.MetricsRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+
+@State(Scope.Benchmark)
+public class JourneyPlannerBenchmark {
+
+    public enum Pair {
+        DIRECT("Príncipe", "Samil"),
+        ONE_TRANSFER("Vialia", "Castrelos"),
+        UNREACHABLE("Príncipe", VigoFixture.ISOLATED);
+
+        final String from;
+        final String to;
+
+        Pair(String from, String to) {
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    @Param
+    public Pair pair;
+
+    private JourneyPlannerService planner;
+    private long from;
+    private long to;
+    private Instant when;
+
+    @Setup
+    public void setup() {
+        var repos = VigoFixture.load();
+        var snapshots = repos.snapshots();
+        var metrics = new MetricsRegistry();
+        // No assignment is run, so legs carry no crowding level
+        planner = new JourneyPlannerService(snapshots, new CrowdingService(snapshots, metrics, 1, 600), metrics);
+        from = VigoFixture.stationId(repos, pair.from);
+        to = VigoFixture.stationId(repos, pair.to);
+        when = Instant.parse("2026-03-02T08:15:00Z");
+    }
+
+    @Benchmark
+    public void plan(Blackhole bh) {
+        try {
+            bh.consume(planner.plan(from, to, when));
+        } catch (NotFoundException ex) {
+            bh.consume(ex);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.metro.vigo.backend.bench;
+
+import com.metro.vigo.backend.api.Mapper;
+import com.metro.vigo.backend.api.dto.IncidentDto;
+import com.metro.vigo.backend.api.dto.LineDto;
+import com.metro.vigo.backend.api.dto.StationDto;
+import com.metro.vigo.backend.incident.Incident;
+import com.metro.vigo.backend.line.Line;
+import com.metro.vigo.backend.station.Station;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private List<Line> lines;
+    private List<Station> stations;
+    private List<Incident> incidents;
+
+    @Setup
+    public void setup() {
+        var repos = VigoFixture.load();
+        lines = List.copyOf(repos.lines());
+        stations = List.copyOf(repos.stations());
+        incidents = List.copyOf(repos.incidents());
+    }
+
+    @Benchmark
+    public List<LineDto> lines() {
+        return lines.stream().map(Mapper::toLineDto).toList();
+    }
+
+    @Benchmark
+    public List<StationDto> stations() {
+        return stations.stream().map(Mapper::toStationDto).toList();
+    }
+
+    @Benchmark
+    public List<IncidentDto> incidents() {
+        return incidents.stream().map(Mapper::toIncidentDto).toList();
+    }
+}
@@ -0,0 +1,86 @@
+package com.metro.vigo.backend.bench;
+
+import com.metro.vigo.backend.arrival.ArrivalController;
+import com.metro.vigo.backend.arrival.ArrivalService;
+import com.metro.vigo.backend.incident.ActiveIncidentCache;
+import com.metro.vigo.backend.journey.JourneyController;
+import com.metro.vigo.backend.journey.CrowdingService;
+import com.metro.vigo.backend.journey.JourneyPlannerService;
+import com.metro.vigo.backend.journey.JourneyProfileService;
+import com.metro.vigo.backend.journey.TravelTimeMatrixService;
+import com.metro.vigo.backend.line.LineController;
+import com.metro.vigo.backend.metrics.MetricsRegistry;
+import com.metro.vigo.backend.network.NetworkResponseCache;
+import com.metro.vigo.backend.reactive.ReactiveReadHandlers;
+import com.metro.vigo.backend.reactive.ReactiveReadRoutes;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Same in-memory read endpoints through the MVC dispatcher and the functional WebFlux router, in-process.
+ * Measures per-request stack overhead (routing, argument resolution, JSON encoding), not sockets;
+ * end-to-end Tomcat vs Netty numbers need a real load run against both ports.
+ */
+@State(Scope.Benchmark)
+@Threads(4)
+public class ReadStackBenchmark {
+
+    public enum Endpoint { LINES, ARRIVALS, JOURNEY }
+
+    @Param
+    public Endpoint endpoint;
+
+    private MockMvc mvc;
+    private WebTestClient reactive;
+    private String uri;
+
+    @Setup
+    public void setup() {
+        var repos = VigoFixture.load();
+        var snapshots = repos.snapshots();
+        var responses = new NetworkResponseCache(snapshots, JsonMapper.builder().build());
+        var incidents = new ActiveIncidentCache(repos.incidentRepository());
+        var metrics = new MetricsRegistry();
+        var arrivals = new ArrivalService(snapshots, incidents, metrics, 1);
+        var planner = new JourneyPlannerService(snapshots, new CrowdingService(snapshots, metrics, 1, 600), metrics);
+
+        // Status writes and SSE are not exercised, so their collaborators are left out
+        mvc = MockMvcBuilders.standaloneSetup(
+                new LineController(responses, null, null),
+                new ArrivalController(arrivals),
+                new JourneyController(planner,
+                        new JourneyProfileService(snapshots, metrics, Duration.ofHours(3)),
+                        new TravelTimeMatrixService(snapshots, metrics, 1, 1, 1))
+        ).build();
+        // No journey admission on either stack (the MVC side has no interceptors either)
+        reactive = WebTestClient.bindToRouterFunction(
+                ReactiveReadRoutes.routes(new ReactiveReadHandlers(snapshots, responses, incidents, arrivals, planner),
+                        (request, next) -> next.handle(request))
+        ).build();
+
+        uri = switch (endpoint) {
+            case LINES -> "/api/lines";
+            case ARRIVALS -> "/api/stations/" + VigoFixture.stationId(repos, "Praza de América") + "/arrivals";
+            case JOURNEY -> "/api/journey?from=" + VigoFixture.stationId(repos, "Vialia")
+                    + "&to=" + VigoFixture.stationId(repos, "Castrelos")
+                    + "&datetime=2025-01-01T08:00:00Z";
+        };
+    }
+
+    @Benchmark
+    public byte[] mvc() throws Exception {
+        return mvc.perform(get(uri)).andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Benchmark
+    public byte[] webflux() {
+        return reactive.get().uri(uri).exchange().expectBody().returnResult().getResponseBodyContent();
+    }
+}
@@ -0,0 +1,60 @@
+package com.metro.vigo.backend.bench;
+
+import com.metro.vigo.backend.api.NotFoundException;
+import com.metro.vigo.backend.journey.CrowdingService;
+import com.metro.vigo.backend.journey.JourneyPlannerService;
+import com.metro.vigo.backend.metrics.MetricsRegistry;
+import com.metro.vigo.backend.network.LineStation;
+import com.metro.vigo.backend.synthetic.SyntheticNetworkGenerator;
+import com.metro.vigo.backend.synthetic.SyntheticNetworkSpec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Planner on generated networks of growing size. Compare ops/s across {@code lines}
+ * to spot super-linear work (e.g. the pairwise line loop for transfers).
+ */
+@State(Scope.Benchmark)
+public class ScalePlannerBenchmark {
+
+    @Param({"50", "150", "300"})
+    public int lines;
+
+    private JourneyPlannerService planner;
+    private long[][] pairs;
+    private int next;
+    private Instant when;
+
+    @Setup
+    public void setup() {
+        var network = SyntheticNetworkGenerator.generate(SyntheticNetworkSpec.of(lines * 16, lines, 42));
+        var repos = InMemoryRepositories.of(network);
+        var snapshots = repos.snapshots();
+        var metrics = new MetricsRegistry();
+        // No assignment is run, so legs carry no crowding level
+        planner = new JourneyPlannerService(snapshots, new CrowdingService(snapshots, metrics, 1, 600), metrics);
+
+        // Random served stations, same pairs on every run
+        List<Long> served = repos.links().stream().map(LineStation::getStation).map(s -> s.getId()).distinct().toList();
+        var random = new SplittableRandom(7);
+        pairs = new long[256][];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = new long[]{served.get(random.nextInt(served.size())), served.get(random.nextInt(served.size()))};
+        }
+        when = Instant.parse("2026-03-02T08:15:00Z");
+    }
+
+    @Benchmark
+    public void plan(Blackhole bh) {
+        var pair = pairs[next++ & (pairs.length - 1)];
+        try {
+            bh.consume(planner.plan(pair[0], pair[1], when));
+        } catch (NotFoundException ex) {
+            bh.consume(ex);
+        }
+    }
+}
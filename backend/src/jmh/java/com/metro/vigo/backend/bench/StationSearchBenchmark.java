@@ -0,0 +1,30 @@
+package com.metro.vigo.backend.bench;
+
+import com.metro.vigo.backend.api.dto.StationDto;
+import com.metro.vigo.backend.station.StationController;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class StationSearchBenchmark {
+
+    // "" lists the first page, the others go through the name search
+    @Param({"", "vi", "praza"})
+    public String query;
+
+    private StationController controller;
+
+    @Setup
+    public void setup() {
+        var repos = VigoFixture.load();
+        // The NDJSON exporter is not used by search
+        controller = new StationController(repos.stationRepository(), repos.lineStationRepository(), null);
+    }
+
+    @Benchmark
+    public ResponseEntity<List<StationDto>> search() {
+        return controller.search(query, null, null);
+    }
+}
@@ -0,0 +1,49 @@
+package com.metro.vigo.backend.bench;
+
+import com.metro.vigo.backend.journey.TravelTimeMatrixService;
+import com.metro.vigo.backend.metrics.MetricsRegistry;
+import com.metro.vigo.backend.synthetic.SyntheticNetworkGenerator;
+import com.metro.vigo.backend.synthetic.SyntheticNetworkSpec;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Full all-stations matrix on generated networks; one op is one complete matrix. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class TravelTimeMatrixBenchmark {
+
+    @Param({"1000", "5000"})
+    public int stations;
+
+    @Param({"1", "0"})
+    public int parallelism; // 0 = all cores
+
+    private TravelTimeMatrixService service;
+    private List<Long> ids;
+    private Instant when;
+
+    @Setup
+    public void setup() {
+        var network = SyntheticNetworkGenerator.generate(SyntheticNetworkSpec.of(stations, stations / 16, 42));
+        var repos = InMemoryRepositories.of(network);
+        service = new TravelTimeMatrixService(repos.snapshots(), new MetricsRegistry(), parallelism, 1, Long.MAX_VALUE);
+        ids = repos.stations().stream().map(s -> s.getId()).toList();
+        when = Instant.parse("2026-03-02T08:15:00Z");
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public int matrix() {
+        return service.compute(ids, ids, when, 2).cells();
+    }
+}
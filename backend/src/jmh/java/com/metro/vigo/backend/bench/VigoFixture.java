@@ -0,0 +1,62 @@
+package com.metro.vigo.backend.bench;
+
+import com.metro.vigo.backend.incident.Incident;
+import com.metro.vigo.backend.incident.IncidentScope;
+import com.metro.vigo.backend.incident.IncidentSeverity;
+import com.metro.vigo.backend.line.Line;
+import com.metro.vigo.backend.network.LineStation;
+import com.metro.vigo.backend.station.Station;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/** The seeded Vigo network (same topology as SeedData) plus one station no line serves. */
+public final class VigoFixture {
+
+    public static final String ISOLATED = "Isolated (no service)";
+
+    private static final String[][] LINES = {
+            {"V1", "Príncipe", "Puerta del Sol", "Policarpo Sanz", "Praza de América", "As Travesas", "Balaídos", "Samil"},
+            {"V2", "Vialia", "Vigo Central (Urzaiz)", "Areál", "Praza de América", "Coia", "Alcabre", "Navia"},
+            {"V3", "Teis", "Travesía de Vigo", "Guixar", "Berbés", "Príncipe", "O Calvario", "Castrelos"},
+            {"V4", "CUVI (Universidade)", "Matamá", "Beade", "Sárdoma", "Balaídos", "Praza de América", "Príncipe"},
+            {"V5", "Oia", "Coruxo", "Samil", "Alcabre", "Coia", "Praza de América", "Príncipe", "Travesía de Vigo", "Teis"},
+            {"V6", "Chapela", "Teis", "A Guía", "Travesía de Vigo", "Guixar", "Vialia", "Vigo Central (Urzaiz)"},
+            {"V7", "Vigo Central (Urzaiz)", "Lavadores", "Sárdoma", "Peinador (Airport)"},
+            {"V8", "Vigo Central (Urzaiz)", "Areál", "Estación Marítima (Puerto)", "Terminal de Cruceros (Transatlánticos)", "Berbés", "Casco Vello"},
+    };
+
+    private VigoFixture() {}
+
+    public static InMemoryRepositories load() {
+        var repos = new InMemoryRepositories();
+        Map<String, Station> stations = new HashMap<>();
+        Map<String, Line> lines = new HashMap<>();
+
+        for (var def : LINES) {
+            var line = repos.add(new Line(def[0], def[0], "#000000", "OK"));
+            lines.put(def[0], line);
+            for (int i = 1; i < def.length; i++) {
+                // ~550 m apart along a meridian, so no two stations are within walking radius
+                var station = stations.computeIfAbsent(def[i], name -> repos.add(new Station(name, 42.20 + 0.005 * stations.size(), -8.72, true)));
+                repos.add(new LineStation(line, station, i));
+            }
+        }
+        stations.put(ISOLATED, repos.add(new Station(ISOLATED, 42.20, -8.80, false)));
+
+        repos.add(new Incident(IncidentSeverity.MAJOR, IncidentScope.LINE, "V7 reduced service",
+                "Airport Express running every 20 minutes.", true, lines.get("V7"), null));
+        repos.add(new Incident(IncidentSeverity.MINOR, IncidentScope.STATION, "Elevator out of service",
+                "One elevator is out of service at Vigo Central.", true, null, stations.get("Vigo Central (Urzaiz)")));
+
+        return repos.index();
+    }
+
+    public static long stationId(InMemoryRepositories repos, String name) {
+        return repos.stations().stream()
+                .filter(s -> s.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown station: " + name))
+                .getId();
+    }
+}
@@ -0,0 +1,15 @@
+package com.metro.vigo.backend.loadtest;
+
+import java.util.Locale;
+
+/** The request types the load test mixes. */
+enum Endpoint {
+    JOURNEY,    // GET /api/journey?from=&to=
+    ARRIVALS,   // GET /api/stations/{id}/arrivals
+    SEARCH,     // GET /api/stations?query=
+    INCIDENTS;  // GET /api/incidents
+
+    String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
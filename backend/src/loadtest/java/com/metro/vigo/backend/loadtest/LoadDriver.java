@@ -0,0 +1,110 @@
+package com.metro.vigo.backend.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends the workload from virtual threads, one blocking {@link HttpClient#send} per request.
+ *
+ * Closed loop: {@code clients} threads each wait for a response before sending the next, so throughput is what
+ * the server sustains at that concurrency. Open loop: requests start on a fixed schedule whatever the responses
+ * do, and latency is measured from the scheduled start, so a stalled server shows up in the percentiles instead
+ * of silently lowering the send rate (coordinated omission).
+ */
+final class LoadDriver {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient client;
+    private final Workload workload;
+    private final LoadTestOptions options;
+
+    LoadDriver(HttpClient client, Workload workload, LoadTestOptions options) {
+        this.client = client;
+        this.workload = workload;
+        this.options = options;
+    }
+
+    /** Runs for {@code duration} and waits for outstanding requests; returns the results and the elapsed seconds. */
+    Results.Summary run(Duration duration, long seed, String target) {
+        var results = new Results(options.mix().keySet());
+        long start = System.nanoTime();
+        if (options.mode() == LoadTestOptions.Mode.CLOSED) {
+            closed(duration, seed, results);
+        } else {
+            open(duration, seed, results);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return results.summarize(options.mode().name().toLowerCase(Locale.ROOT), target, seconds);
+    }
+
+    private void closed(Duration duration, long seed, Results results) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        var seeds = new SplittableRandom(seed);
+        try (var clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < options.clients(); c++) {
+                var random = seeds.split();
+                clients.execute(() -> {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        send(workload.next(random), System.nanoTime(), results);
+                    }
+                });
+            }
+        } // close() waits for every client to finish its last request
+    }
+
+    private void open(Duration duration, long seed, Results results) {
+        long interval = (long) (1e9 / options.rate());
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        // Only the pacing thread draws requests, so one random is enough
+        var random = new SplittableRandom(seed);
+        var inFlight = new AtomicInteger();
+        try (var requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long scheduled = start + i * interval;
+                if (scheduled >= end) break;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+
+                var request = workload.next(random);
+                if (inFlight.incrementAndGet() > options.maxInFlight()) {
+                    inFlight.decrementAndGet();
+                    results.dropped();
+                    continue;
+                }
+                requests.execute(() -> {
+                    try {
+                        send(request, scheduled, results);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        }
+    }
+
+    private void send(Workload.Request request, long startNanos, Results results) {
+        var http = HttpRequest.newBuilder(request.uri())
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        try {
+            var response = client.send(http, HttpResponse.BodyHandlers.discarding());
+            results.record(request.endpoint(), response.statusCode(), System.nanoTime() - startNanos);
+        } catch (IOException ex) {
+            results.failed(request.endpoint());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.metro.vigo.backend.loadtest;
+
+import com.metro.vigo.backend.BackendApplication;
+import com.metro.vigo.backend.api.dto.NetworkBundleDto;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * End-to-end HTTP load test: {@code ./gradlew loadTest}. Settings in {@link LoadTestOptions}.
+ *
+ * Without {@code loadTest.target} it boots the app in this JVM with the "synthetic" profile on a random port.
+ * The database is DB_URL (a local Postgres) when set, otherwise the Postgres from compose.yaml, started through
+ * Spring Boot's Docker Compose support. The report is printed and written as JSON to {@code loadTest.out}.
+ */
+public final class LoadTest {
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var options = LoadTestOptions.fromSystemProperties();
+        ConfigurableApplicationContext app = options.target() == null ? boot(options) : null;
+        var target = app == null
+                ? options.target().replaceAll("/+$", "")
+                : "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+
+        try (var client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build()) {
+            var mapper = JsonMapper.builder().build();
+            var network = fetchNetwork(client, mapper, target);
+            var driver = new LoadDriver(client, new Workload(target, network, options.mix()), options);
+            System.out.printf("Network v%d: %d stations, %d lines%n", network.version(), network.stations().size(), network.lines().size());
+
+            if (!options.warmup().isZero()) {
+                System.out.printf("Warming up for %d s%n", options.warmup().toSeconds());
+                driver.run(options.warmup(), options.seed(), target);
+            }
+            System.out.printf("Measuring for %d s%n", options.duration().toSeconds());
+            var summary = driver.run(options.duration(), options.seed() + 1, target);
+
+            System.out.print(Results.table(summary));
+            var out = Path.of(options.out());
+            if (out.getParent() != null) Files.createDirectories(out.getParent());
+            Files.write(out, mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(summary));
+            System.out.println("Results written to " + out.toAbsolutePath());
+        } finally {
+            if (app != null) app.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext boot(LoadTestOptions options) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--metro.synthetic.stations=" + options.stations(),
+                "--metro.synthetic.lines=" + options.lines(),
+                // Every simulated user shares one address: lift the per-client bucket so it measures the server
+                "--metro.admission.rate-per-second=1000000",
+                "--metro.admission.burst=1000000",
+                // Don't overwrite (or warm start from) the dev snapshot file
+                "--metro.snapshot.enabled=false",
+                "--logging.level.org.hibernate.SQL=warn"
+        ));
+        if (System.getenv("DB_URL") != null) args.add("--spring.docker.compose.enabled=false");
+
+        var app = new SpringApplication(BackendApplication.class);
+        app.setAdditionalProfiles("synthetic");
+        return app.run(args.toArray(String[]::new));
+    }
+
+    private static NetworkBundleDto fetchNetwork(HttpClient client, JsonMapper mapper, String target)
+            throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create(target + "/api/network"))
+                .header("Accept", "application/json")
+                .timeout(Duration.ofMinutes(1)) // the first read builds the snapshot
+                .GET()
+                .build();
+        var response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /api/network returned " + response.statusCode());
+        }
+        return mapper.readValue(response.body(), NetworkBundleDto.class);
+    }
+}
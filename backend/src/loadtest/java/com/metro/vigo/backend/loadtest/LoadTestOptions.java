@@ -0,0 +1,70 @@
+package com.metro.vigo.backend.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Settings, read from {@code loadTest.*} system properties (the Gradle task passes {@code -PloadTest.x=...} through).
+ *
+ * @param target    base URL of a running instance; null boots the app in-process with the synthetic network
+ * @param mode      closed: {@code clients} loops waiting for each response; open: {@code rate} requests/s regardless
+ * @param mix       relative weight per endpoint
+ * @param maxInFlight open loop only: requests beyond this many outstanding are dropped (and counted)
+ */
+record LoadTestOptions(
+        String target,
+        Mode mode,
+        int clients,
+        double rate,
+        Duration warmup,
+        Duration duration,
+        Map<Endpoint, Integer> mix,
+        int maxInFlight,
+        int stations,
+        int lines,
+        long seed,
+        String out
+) {
+
+    enum Mode { CLOSED, OPEN }
+
+    static LoadTestOptions fromSystemProperties() {
+        var options = new LoadTestOptions(
+                System.getProperty("loadTest.target"),
+                Mode.valueOf(property("mode", "closed").toUpperCase(Locale.ROOT)),
+                Integer.parseInt(property("clients", "64")),
+                Double.parseDouble(property("rate", "500")),
+                Duration.parse(property("warmup", "PT10S")),
+                Duration.parse(property("duration", "PT30S")),
+                parseMix(property("mix", "journey=3,arrivals=4,search=2,incidents=1")),
+                Integer.parseInt(property("maxInFlight", "10000")),
+                Integer.parseInt(property("stations", "5000")),
+                Integer.parseInt(property("lines", "300")),
+                Long.parseLong(property("seed", "42")),
+                property("out", "build/results/loadtest/results.json")
+        );
+        if (options.clients() < 1) throw new IllegalArgumentException("loadTest.clients must be at least 1");
+        if (options.rate() <= 0) throw new IllegalArgumentException("loadTest.rate must be positive");
+        return options;
+    }
+
+    // e.g. "journey=3,arrivals=4,search=2,incidents=1"; endpoints left out get no traffic
+    static Map<Endpoint, Integer> parseMix(String spec) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (var part : spec.split(",")) {
+            var kv = part.trim().split("=");
+            if (kv.length != 2) throw new IllegalArgumentException("Invalid loadTest.mix entry: " + part);
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight < 0) throw new IllegalArgumentException("Negative weight in loadTest.mix: " + part);
+            if (weight > 0) mix.put(Endpoint.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), weight);
+        }
+        if (mix.isEmpty()) throw new IllegalArgumentException("loadTest.mix has no endpoint with a positive weight");
+        return mix;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadTest." + name, defaultValue);
+    }
+}
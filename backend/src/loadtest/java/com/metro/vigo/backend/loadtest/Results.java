@@ -0,0 +1,105 @@
+package com.metro.vigo.backend.loadtest;
+
+import com.metro.vigo.backend.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcomes and latencies per endpoint, recorded concurrently by the clients. Only successful responses go into
+ * the latency histograms; 429/503 count as rejected (admission control), anything else as failed.
+ */
+final class Results {
+
+    /** One line of the report; latencies in milliseconds. */
+    record Row(String endpoint, long requests, double throughput, long ok, long rejected, long failed,
+               double p50Ms, double p99Ms, double p999Ms, double maxMs) {}
+
+    record Summary(String mode, String target, double seconds, List<Row> endpoints, Row total, long dropped) {}
+
+    private static final class Stats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder ok = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder failed = new LongAdder();
+    }
+
+    // Filled up front and never modified, so lookups need no synchronization
+    private final Map<Endpoint, Stats> byEndpoint = new EnumMap<>(Endpoint.class);
+    private final Stats total = new Stats();
+    private final LongAdder dropped = new LongAdder();
+
+    Results(Collection<Endpoint> endpoints) {
+        endpoints.forEach(e -> byEndpoint.put(e, new Stats()));
+    }
+
+    void record(Endpoint endpoint, int status, long latencyNanos) {
+        var stats = byEndpoint.get(endpoint);
+        if (status < 400) {
+            stats.ok.increment();
+            stats.latency.recordNanos(latencyNanos);
+            total.ok.increment();
+            total.latency.recordNanos(latencyNanos);
+        } else if (status == 429 || status == 503) {
+            stats.rejected.increment();
+            total.rejected.increment();
+        } else {
+            failed(endpoint);
+        }
+    }
+
+    void failed(Endpoint endpoint) {
+        byEndpoint.get(endpoint).failed.increment();
+        total.failed.increment();
+    }
+
+    void dropped() {
+        dropped.increment();
+    }
+
+    Summary summarize(String mode, String target, double seconds) {
+        List<Row> rows = new ArrayList<>();
+        byEndpoint.forEach((e, s) -> rows.add(row(e.label(), s, seconds)));
+        return new Summary(mode, target, seconds, rows, row("total", total, seconds), dropped.sum());
+    }
+
+    static String table(Summary summary) {
+        var out = new StringBuilder();
+        out.append(String.format("%s loop against %s, %.1f s measured%n", summary.mode(), summary.target(), summary.seconds()));
+        out.append(String.format("%-10s %9s %9s %9s %8s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "ok", "rejected", "failed", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (var row : summary.endpoints()) line(out, row);
+        line(out, summary.total());
+        if (summary.dropped() > 0) {
+            out.append(String.format("%d requests dropped: more than loadTest.maxInFlight outstanding%n", summary.dropped()));
+        }
+        return out.toString();
+    }
+
+    private static void line(StringBuilder out, Row r) {
+        out.append(String.format("%-10s %9d %9.1f %9d %8d %7d %9.2f %9.2f %9.2f %9.2f%n",
+                r.endpoint(), r.requests(), r.throughput(), r.ok(), r.rejected(), r.failed(),
+                r.p50Ms(), r.p99Ms(), r.p999Ms(), r.maxMs()));
+    }
+
+    private static Row row(String name, Stats s, double seconds) {
+        var h = s.latency.snapshot();
+        long requests = s.ok.sum() + s.rejected.sum() + s.failed.sum();
+        return new Row(
+                name,
+                requests,
+                seconds > 0 ? s.ok.sum() / seconds : 0,
+                s.ok.sum(),
+                s.rejected.sum(),
+                s.failed.sum(),
+                h.percentileMicros(0.5) / 1000.0,
+                h.percentileMicros(0.99) / 1000.0,
+                h.percentileMicros(0.999) / 1000.0,
+                h.maxMicros() / 1000.0
+        );
+    }
+}
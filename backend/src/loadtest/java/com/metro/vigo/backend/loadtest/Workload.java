@@ -0,0 +1,83 @@
+package com.metro.vigo.backend.loadtest;
+
+import com.metro.vigo.backend.api.dto.NetworkBundleDto;
+import com.metro.vigo.backend.api.dto.StationDto;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Picks the next request: an endpoint by the configured weights, then random stations of the target's network.
+ * Journeys and arrivals only use stations some line stops at, so they exercise the search rather than a 404.
+ */
+final class Workload {
+
+    record Request(Endpoint endpoint, URI uri) {}
+
+    private final String baseUrl;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final long[] servedIds;
+    private final List<String> names;
+
+    Workload(String baseUrl, NetworkBundleDto network, Map<Endpoint, Integer> mix) {
+        this.baseUrl = baseUrl;
+        this.endpoints = mix.keySet().toArray(Endpoint[]::new);
+        this.cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += mix.get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+
+        boolean[] served = new boolean[network.stations().size()];
+        for (int[] stops : network.lineStations()) {
+            for (int s : stops) served[s] = true;
+        }
+        this.servedIds = IntStream.range(0, served.length)
+                .filter(i -> served[i])
+                .mapToLong(i -> network.stations().get(i).id())
+                .toArray();
+        if (servedIds.length < 2) throw new IllegalStateException("The target network needs at least two served stations");
+        this.names = network.stations().stream().map(StationDto::name).toList();
+    }
+
+    /** Not thread-safe per random: give every client its own. */
+    Request next(SplittableRandom random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (cumulativeWeights[i] <= pick) i++;
+
+        var endpoint = endpoints[i];
+        String path = switch (endpoint) {
+            case JOURNEY -> {
+                long from = station(random);
+                long to = station(random);
+                while (to == from) to = station(random);
+                yield "/api/journey?from=" + from + "&to=" + to;
+            }
+            case ARRIVALS -> "/api/stations/" + station(random) + "/arrivals";
+            case SEARCH -> "/api/stations?query=" + URLEncoder.encode(fragment(random), StandardCharsets.UTF_8);
+            case INCIDENTS -> "/api/incidents";
+        };
+        return new Request(endpoint, URI.create(baseUrl + path));
+    }
+
+    private long station(SplittableRandom random) {
+        return servedIds[random.nextInt(servedIds.length)];
+    }
+
+    // Three letters from a real name, like a user typing into the search box
+    private String fragment(SplittableRandom random) {
+        var name = names.get(random.nextInt(names.size())).toLowerCase(Locale.ROOT);
+        if (name.length() <= 3) return name;
+        int start = random.nextInt(name.length() - 2);
+        return name.substring(start, start + 3);
+    }
+}
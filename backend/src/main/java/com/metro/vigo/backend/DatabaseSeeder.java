@@ -0,0 +1,11 @@
+package com.metro.vigo.backend;
+
+/**
+ * Fills an empty database at startup. Seeders run in {@code @Order}, each in its own transaction, from
+ * {@link DatabaseStartup} once the database answers; they must skip whatever is already there.
+ */
+@FunctionalInterface
+public interface DatabaseSeeder {
+
+    void seed();
+}
@@ -0,0 +1,71 @@
+package com.metro.vigo.backend;
+
+import com.metro.vigo.backend.network.SnapshotStalenessCheck;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Startup work that needs the database: seeding, then the snapshot staleness check. Runs in the background
+ * after startup and retries with backoff until the database answers, so the app boots and serves the snapshot
+ * restored from disk while the database is still unreachable.
+ */
+@Component
+public class DatabaseStartup {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseStartup.class);
+
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final List<DatabaseSeeder> seeders;
+    private final SnapshotStalenessCheck stalenessCheck;
+
+    public DatabaseStartup(JdbcTemplate jdbc, TransactionTemplate tx, List<DatabaseSeeder> seeders,
+                           SnapshotStalenessCheck stalenessCheck) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.seeders = seeders;
+        this.stalenessCheck = stalenessCheck;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        Thread.ofVirtual().name("database-startup").start(this::run);
+    }
+
+    private void run() {
+        var backoff = Duration.ofSeconds(1);
+        while (true) {
+            try {
+                jdbc.queryForObject("select 1", Integer.class);
+                // A seeder that fails rolls back entirely, so the retry finds the tables as they were
+                for (var seeder : seeders) tx.executeWithoutResult(status -> seeder.seed());
+                stalenessCheck.run();
+                return;
+            } catch (DataAccessException | TransactionException ex) {
+                log.info("DB not ready for startup tasks ({}), retrying in {}s", ex.getMostSpecificCause().getMessage(), backoff.toSeconds());
+            } catch (RuntimeException ex) {
+                log.error("Startup tasks failed", ex);
+                return;
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+        }
+    }
+}
@@ -6,7 +6,6 @@ import com.metro.vigo.backend.network.LineStation;
 import com.metro.vigo.backend.network.LineStationRepository;
 import com.metro.vigo.backend.station.Station;
 import com.metro.vigo.backend.station.StationRepository;
-import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import com.metro.vigo.backend.incident.*;
@@ -15,17 +14,18 @@ import com.metro.vigo.backend.incident.IncidentRepository;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+/** The Vigo network and a few incidents, for an empty database. Run by {@link DatabaseStartup}. */
 @Configuration
 public class SeedData {
 
     @Bean
-    CommandLineRunner init(
+    DatabaseSeeder init(
             LineRepository lineRepo,
             StationRepository stationRepo,
             LineStationRepository lsRepo,
             IncidentRepository incidentRepo
     ) {
-        return args -> {
+        return () -> {
 
             // -------------------------
             // 1) LINES
@@ -478,25 +478,32 @@ public class SeedData {
                         null
                 ));
 
-                incidentRepo.save(new Incident(
-                        IncidentSeverity.MAJOR,
-                        IncidentScope.LINE,
-                        "V7 reduced service",
-                        "Airport Express running every 20 minutes due to rolling stock constraints.",
-                        true,
-                        lines.get("V7"),
-                        null
-                ));
-
-                incidentRepo.save(new Incident(
-                        IncidentSeverity.MINOR,
-                        IncidentScope.STATION,
-                        "Elevator out of service",
-                        "One elevator is temporarily out of service at Vigo Central. Staff assistance available.",
-                        true,
-                        null,
-                        stations.get("Vigo Central (Urzaiz)")
-                ));
+                // Line and station incidents only apply to the Vigo network (not a synthetic one)
+                var v7 = lines.get("V7");
+                if (v7 != null) {
+                    incidentRepo.save(new Incident(
+                            IncidentSeverity.MAJOR,
+                            IncidentScope.LINE,
+                            "V7 reduced service",
+                            "Airport Express running every 20 minutes due to rolling stock constraints.",
+                            true,
+                            v7,
+                            null
+                    ));
+                }
+
+                var vigoCentral = stations.get("Vigo Central (Urzaiz)");
+                if (vigoCentral != null) {
+                    incidentRepo.save(new Incident(
+                            IncidentSeverity.MINOR,
+                            IncidentScope.STATION,
+                            "Elevator out of service",
+                            "One elevator is temporarily out of service at Vigo Central. Staff assistance available.",
+                            true,
+                            null,
+                            vigoCentral
+                    ));
+                }
             }
         };
     }
@@ -0,0 +1,60 @@
+package com.metro.vigo.backend.admission;
+
+/**
+ * AIMD concurrency limit driven by observed latency.
+ *
+ * While responses stay under the latency target and the limit is actually being used, it grows by
+ * about one per limit-worth of completions; a slow response cuts it by {@code backoff}, at most once per
+ * window so one burst of slow responses doesn't collapse it to the minimum.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private final long targetNanos;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoff;
+    private final long windowNanos;
+
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetNanos, double backoff) {
+        if (minLimit < 1 || maxLimit < minLimit) throw new IllegalArgumentException("invalid concurrency bounds");
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetNanos = targetNanos;
+        this.backoff = backoff;
+        this.windowNanos = targetNanos;
+        this.lastDecreaseNanos = System.nanoTime() - targetNanos;
+    }
+
+    // Short critical sections with no blocking inside, so a monitor is fine even on virtual threads
+    synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) return false;
+        inFlight++;
+        return true;
+    }
+
+    synchronized void release(long latencyNanos, long nowNanos) {
+        boolean saturated = inFlight >= (int) limit;
+        inFlight--;
+        if (latencyNanos > targetNanos) {
+            if (nowNanos - lastDecreaseNanos >= windowNanos) {
+                limit = Math.max(minLimit, limit * backoff);
+                lastDecreaseNanos = nowNanos;
+            }
+        } else if (saturated) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    synchronized int limit() {
+        return (int) limit;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,81 @@
+package com.metro.vigo.backend.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets (refilled lazily on access) spread over independent map stripes,
+ * so clients on different stripes never contend and a stripe can be pruned without stopping the rest.
+ *
+ * A full stripe is pruned at most once per {@link #PRUNE_INTERVAL_NANOS}; while it stays full (every tracked
+ * client is still refilling) new clients are turned away instead of growing the map or evicting live buckets.
+ */
+final class ClientRateLimiter {
+
+    static final long PRUNE_INTERVAL_NANOS = 1_000_000_000L;
+    private static final long NEVER = Long.MIN_VALUE;
+
+    /** Immutable bucket state; {@code granted} reports the outcome of the take that produced it. */
+    private record Bucket(double tokens, long updatedNanos, boolean granted) {}
+
+    private static final class Stripe {
+        final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+        final AtomicLong lastPruneNanos = new AtomicLong(NEVER);
+    }
+
+    private final Stripe[] stripes;
+    private final double ratePerNano;
+    private final double burst;
+    private final long fullAfterNanos;
+    private final int maxClientsPerStripe;
+
+    ClientRateLimiter(double ratePerSecond, int burst, int stripeCount, int maxClients) {
+        if (ratePerSecond <= 0 || burst < 1) throw new IllegalArgumentException("rate and burst must be positive");
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(1, stripeCount))];
+        for (int i = 0; i < stripes.length; i++) stripes[i] = new Stripe();
+        this.ratePerNano = ratePerSecond / 1e9;
+        this.burst = burst;
+        this.fullAfterNanos = (long) (burst / ratePerNano);
+        this.maxClientsPerStripe = Math.max(16, maxClients / stripes.length);
+    }
+
+    /** Takes one token; returns 0 when granted, otherwise the seconds until a token is available. */
+    long tryAcquire(String client, long nowNanos) {
+        var stripe = stripes[spread(client.hashCode()) & (stripes.length - 1)];
+        var buckets = stripe.buckets;
+
+        if (buckets.size() >= maxClientsPerStripe && !buckets.containsKey(client)) {
+            prune(stripe, nowNanos);
+            // Concurrent new clients can overshoot the bound by a few entries; it is a memory cap, not an exact one
+            if (buckets.size() >= maxClientsPerStripe) return 1; // the next prune may make room
+        }
+
+        var bucket = buckets.compute(client, (k, b) -> take(b, nowNanos));
+        if (bucket.granted()) return 0;
+        return Math.max(1, (long) Math.ceil((1 - bucket.tokens()) / ratePerNano / 1e9));
+    }
+
+    int clients() {
+        int n = 0;
+        for (var stripe : stripes) n += stripe.buckets.size();
+        return n;
+    }
+
+    private Bucket take(Bucket b, long now) {
+        double tokens = b == null ? burst : Math.min(burst, b.tokens() + (now - b.updatedNanos()) * ratePerNano);
+        return tokens >= 1 ? new Bucket(tokens - 1, now, true) : new Bucket(tokens, now, false);
+    }
+
+    // A bucket that has refilled completely is indistinguishable from a new one, so it can go.
+    // One thread per stripe and interval wins the CAS and scans; the others go on without waiting.
+    private void prune(Stripe stripe, long now) {
+        long last = stripe.lastPruneNanos.get();
+        if (last != NEVER && now - last < PRUNE_INTERVAL_NANOS) return;
+        if (!stripe.lastPruneNanos.compareAndSet(last, now)) return;
+        stripe.buckets.values().removeIf(b -> now - b.updatedNanos() >= fullAfterNanos);
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,72 @@
+package com.metro.vigo.backend.admission;
+
+import com.metro.vigo.backend.api.TooManyRequestsException;
+import com.metro.vigo.backend.metrics.MetricsRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for the journey planner: a token bucket per client, then an adaptive limit on
+ * concurrent plans. Either rejection is a {@link TooManyRequestsException} (429 with Retry-After).
+ *
+ * One instance guards the planner for both the servlet ({@link JourneyAdmissionInterceptor}) and the
+ * reactive routes, since they share the same CPU.
+ */
+@Component
+public class JourneyAdmission {
+
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimit concurrency;
+
+    private final LongAdder accepted;
+    private final LongAdder rateLimited;
+    private final LongAdder concurrencyLimited;
+
+    public JourneyAdmission(
+            MetricsRegistry metrics,
+            @Value("${metro.admission.rate-per-second:5}") double ratePerSecond,
+            @Value("${metro.admission.burst:20}") int burst,
+            @Value("${metro.admission.stripes:16}") int stripes,
+            @Value("${metro.admission.max-clients:100000}") int maxClients,
+            @Value("${metro.admission.initial-limit:32}") int initialLimit,
+            @Value("${metro.admission.min-limit:4}") int minLimit,
+            @Value("${metro.admission.max-limit:256}") int maxLimit,
+            @Value("${metro.admission.latency-target:PT0.2S}") Duration latencyTarget
+    ) {
+        this.rateLimiter = new ClientRateLimiter(ratePerSecond, burst, stripes, maxClients);
+        this.concurrency = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, latencyTarget.toNanos(), 0.9);
+
+        this.accepted = metrics.counter("admission_decisions_total", "endpoint", "journey", "decision", "accepted");
+        this.rateLimited = metrics.counter("admission_decisions_total", "endpoint", "journey", "decision", "rate_limited");
+        this.concurrencyLimited = metrics.counter("admission_decisions_total", "endpoint", "journey", "decision", "concurrency_limited");
+        metrics.gauge("admission_concurrency_limit", concurrency::limit, "endpoint", "journey");
+        metrics.gauge("admission_in_flight", concurrency::inFlight, "endpoint", "journey");
+        metrics.gauge("admission_tracked_clients", rateLimiter::clients, "endpoint", "journey");
+    }
+
+    /** Admits one plan for {@code client}; returns its start time, to be passed to {@link #release} when it ends. */
+    public long admit(String client) {
+        long now = System.nanoTime();
+
+        long retryAfter = rateLimiter.tryAcquire(client, now);
+        if (retryAfter > 0) {
+            rateLimited.increment();
+            throw new TooManyRequestsException("Rate limit exceeded for journey planning", retryAfter);
+        }
+        if (!concurrency.tryAcquire()) {
+            concurrencyLimited.increment();
+            throw new TooManyRequestsException("Journey planner is at capacity", 1);
+        }
+
+        accepted.increment();
+        return now;
+    }
+
+    public void release(long start) {
+        long now = System.nanoTime();
+        concurrency.release(now - start, now);
+    }
+}
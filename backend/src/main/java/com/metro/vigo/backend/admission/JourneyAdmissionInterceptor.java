@@ -0,0 +1,38 @@
+package com.metro.vigo.backend.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * {@link JourneyAdmission} for the servlet stack. Only mapped to /api/journey/**,
+ * so the snapshot endpoints keep flowing while planning is throttled.
+ *
+ * Clients are identified by remote address; behind a proxy set server.forward-headers-strategy.
+ */
+@Component
+public class JourneyAdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String START = JourneyAdmissionInterceptor.class.getName() + ".start";
+
+    private final JourneyAdmission admission;
+
+    public JourneyAdmissionInterceptor(JourneyAdmission admission) {
+        this.admission = admission;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START, admission.admit(request.getRemoteAddr()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(START) instanceof Long start) {
+            request.removeAttribute(START);
+            admission.release(start);
+        }
+    }
+}
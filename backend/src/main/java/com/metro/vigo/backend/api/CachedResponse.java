@@ -0,0 +1,83 @@
+package com.metro.vigo.backend.api;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body rendered once, kept both as-is and gzip-compressed.
+ * Served directly as bytes so the hot path does no mapping, serialisation or compression.
+ */
+public record CachedResponse(MediaType contentType, byte[] body, byte[] gzipBody, String etag, long version) {
+
+    public static CachedResponse of(MediaType contentType, byte[] body, long version) {
+        var crc = new CRC32();
+        crc.update(body);
+        var etag = "\"v" + version + "-" + Long.toHexString(crc.getValue()) + "\"";
+        return new CachedResponse(contentType, body, gzip(body), etag, version);
+    }
+
+    public ResponseEntity<byte[]> toResponseEntity(HttpHeaders requestHeaders) {
+        boolean gzip = acceptsGzip(requestHeaders.getFirst(HttpHeaders.ACCEPT_ENCODING));
+        // Strong ETags are per representation, so the gzip variant gets its own
+        var tag = gzip ? etag.substring(0, etag.length() - 1) + "-gz\"" : etag;
+
+        var ifNoneMatch = requestHeaders.getFirst(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(tag) || ifNoneMatch.trim().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(tag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        var builder = ResponseEntity.ok()
+                .contentType(contentType)
+                .eTag(tag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(gzip ? gzipBody : body);
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (var token : acceptEncoding.split(",")) {
+            var parts = token.trim().split(";");
+            var coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) continue;
+
+            // "gzip;q=0" means explicitly refused
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                var p = parts[i].trim().replace(" ", "");
+                if (p.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(p.substring(2)) <= 0.0;
+                    } catch (NumberFormatException ex) {
+                        refused = true;
+                    }
+                }
+            }
+            if (!refused) return true;
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        var out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (var gz = new GZIPOutputStream(out)) {
+            gz.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,5 @@
+package com.metro.vigo.backend.api;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) { super(message); }
+}
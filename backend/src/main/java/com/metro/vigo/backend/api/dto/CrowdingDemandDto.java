@@ -0,0 +1,15 @@
+package com.metro.vigo.backend.api.dto;
+
+import java.util.List;
+
+public record CrowdingDemandDto(
+        String datetime,        // ISO instant the demand departs around; now if absent
+        Integer maxTransfers,   // default 2
+        List<Flow> flows        // trips per hour between station pairs
+) {
+    public record Flow(
+            long from,
+            long to,
+            long trips
+    ) {}
+}
@@ -0,0 +1,30 @@
+package com.metro.vigo.backend.api.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record CrowdingDto(
+        long snapshotVersion,
+        Instant departure,
+        long totalTrips,
+        long assignedTrips,     // the rest had no route within maxTransfers
+        double elapsedMs,
+        List<Segment> segments, // busiest first
+        List<StationFlow> stations
+) {
+    public record Segment(
+            String lineCode,
+            long fromStationId,
+            long toStationId,
+            long load,          // trips per hour on this directed segment
+            double capacity,    // seats + standing per hour at the line's frequency
+            double ratio,
+            String level        // LOW | MEDIUM | HIGH
+    ) {}
+
+    public record StationFlow(
+            long stationId,
+            long boardings,
+            long alightings
+    ) {}
+}
@@ -0,0 +1,15 @@
+package com.metro.vigo.backend.api.dto;
+
+import java.time.Instant;
+
+public record IncidentLineStatsDto(
+        Long lineId,            // null for incidents not tied to a line
+        String lineCode,
+        long incidents,
+        long critical,
+        long major,
+        long minor,
+        long disruptedMinutes,  // summed incident durations (active ones up to now)
+        long activeNow,
+        Instant lastIncidentAt
+) {}
@@ -8,5 +8,6 @@ public record JourneyLegDto(
         int durationMin,    // ride or walk duration (without waiting)
         String direction,   // only METRO
         Integer stops,      // only METRO
-        Integer waitMin     // only METRO (or transfer)
+        Integer waitMin,    // only METRO (or transfer)
+        String crowding     // only METRO, from the latest demand assignment: LOW | MEDIUM | HIGH (null if none)
 ) {}
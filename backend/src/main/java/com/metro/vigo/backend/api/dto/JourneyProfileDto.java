@@ -0,0 +1,20 @@
+package com.metro.vigo.backend.api.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record JourneyProfileDto(
+        long fromStationId,
+        long toStationId,
+        Instant windowStart,
+        Instant windowEnd,
+        List<Option> journeys    // Pareto set: later departure <=> later arrival, by departure
+) {
+    public record Option(
+            Instant departure,
+            Instant arrival,
+            int totalDurationMin,
+            int transfers,
+            List<String> lines   // line codes in riding order
+    ) {}
+}
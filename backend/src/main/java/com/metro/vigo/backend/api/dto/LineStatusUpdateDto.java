@@ -0,0 +1,5 @@
+package com.metro.vigo.backend.api.dto;
+
+public record LineStatusUpdateDto(
+        String status   // OK | DELAYED | DOWN
+) {}
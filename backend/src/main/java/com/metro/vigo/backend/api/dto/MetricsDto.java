@@ -0,0 +1,34 @@
+package com.metro.vigo.backend.api.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record MetricsDto(
+        List<Timer> timers,
+        List<Counter> counters,
+        List<Gauge> gauges
+) {
+    public record Timer(
+            String name,
+            Map<String, String> labels,
+            long count,
+            double meanMs,
+            double p50Ms,
+            double p90Ms,
+            double p99Ms,
+            double p999Ms,
+            double maxMs
+    ) {}
+
+    public record Counter(
+            String name,
+            Map<String, String> labels,
+            long value
+    ) {}
+
+    public record Gauge(
+            String name,
+            Map<String, String> labels,
+            double value
+    ) {}
+}
@@ -0,0 +1,10 @@
+package com.metro.vigo.backend.api.dto;
+
+import java.util.List;
+
+public record NetworkBundleDto(
+        long version,
+        List<LineDto> lines,
+        List<StationDto> stations,
+        int[][] lineStations    // per line (same order as lines): ordered indexes into stations
+) {}
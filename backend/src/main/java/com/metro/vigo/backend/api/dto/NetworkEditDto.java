@@ -0,0 +1,41 @@
+package com.metro.vigo.backend.api.dto;
+
+import java.util.List;
+
+/**
+ * Topology edits applied in one transaction. Entities created here are referred to by their {@code key}
+ * (which must not be a number); existing ones by id, as a string in {@link Sequence}.
+ */
+public record NetworkEditDto(
+        List<StationEdit> stations,
+        List<LineEdit> lines,
+        List<Sequence> sequences    // applied after the station and line edits
+) {
+    // id null creates the station; null fields are left unchanged
+    public record StationEdit(
+            Long id,
+            String key,
+            String name,
+            Double lat,
+            Double lon,
+            Boolean accessible,
+            boolean delete          // also removes its stops from every line
+    ) {}
+
+    // id null creates the line (status OK unless given); null fields are left unchanged
+    public record LineEdit(
+            Long id,
+            String key,
+            String code,
+            String name,
+            String colorHex,        // "#00AEEF"
+            String status,          // OK | DELAYED | DOWN
+            boolean delete
+    ) {}
+
+    // Replaces the line's whole stop sequence
+    public record Sequence(
+            String line,            // id or key
+            List<String> stations   // ids or keys, in stop order
+    ) {}
+}
@@ -0,0 +1,8 @@
+package com.metro.vigo.backend.api.dto;
+
+import java.util.Map;
+
+public record NetworkEditResultDto(
+        long version,               // network snapshot version that includes the edits
+        Map<String, Long> created   // key -> id of every created station and line
+) {}
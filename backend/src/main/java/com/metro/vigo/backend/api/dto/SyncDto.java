@@ -0,0 +1,18 @@
+package com.metro.vigo.backend.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+// Empty collections are left out so "nothing changed" stays a handful of bytes
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record SyncDto(
+        long version,
+        boolean full,                           // true: replace local state instead of merging
+        List<LineDto> lines,
+        List<StationDto> stations,
+        Map<Long, List<Long>> lineStations,     // line id -> ordered station ids
+        List<IncidentDto> incidents,
+        List<TombstoneDto> tombstones
+) {}
@@ -0,0 +1,6 @@
+package com.metro.vigo.backend.api.dto;
+
+public record TombstoneDto(
+        String type,    // LINE | STATION | INCIDENT
+        Long id
+) {}
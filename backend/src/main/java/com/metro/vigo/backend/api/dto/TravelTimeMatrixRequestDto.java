@@ -0,0 +1,10 @@
+package com.metro.vigo.backend.api.dto;
+
+import java.util.List;
+
+public record TravelTimeMatrixRequestDto(
+        List<Long> origins,
+        List<Long> destinations,
+        String datetime,        // ISO instant; now if absent
+        Integer maxTransfers    // default 2
+) {}
@@ -0,0 +1,108 @@
+package com.metro.vigo.backend.arrival;
+
+import com.metro.vigo.backend.sync.ChangeLogEvent;
+import com.metro.vigo.backend.sync.ChangeType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps {@link ArrivalService}'s precomputed boards current: a full build at every minute boundary and after
+ * network changes, and a recompute of the affected lines' stations after incident changes.
+ *
+ * Builds run on one background thread, so neither the committing writer nor the cluster listener waits for
+ * them. Requests that arrive while a build runs are coalesced: however many changes come in, at most one more
+ * build follows, and a full build also covers any pending incident recompute.
+ */
+@Component
+@ConditionalOnProperty(name = "metro.arrivals.precompute", havingValue = "true", matchIfMissing = true)
+public class ArrivalBoardScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ArrivalBoardScheduler.class);
+
+    private final ArrivalService arrivals;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("arrival-boards").factory());
+    private final AtomicBoolean fullPending = new AtomicBoolean();
+    private final AtomicBoolean delayedPending = new AtomicBoolean();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public ArrivalBoardScheduler(ArrivalService arrivals) {
+        this.arrivals = arrivals;
+    }
+
+    // Lets a running build finish before ArrivalService's pool goes away
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        worker.shutdown();
+        worker.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        tick();
+    }
+
+    @Scheduled(cron = "0 * * * * *")
+    public void tick() {
+        fullPending.set(true);
+        schedule();
+    }
+
+    // Runs after the snapshot and incident cache listeners, so the build reads the committed state
+    @EventListener
+    public void onChange(ChangeLogEvent event) {
+        if (event.touchesNetwork()) {
+            fullPending.set(true);
+        } else if (event.changes().stream().anyMatch(c -> c.type() == ChangeType.INCIDENT)) {
+            delayedPending.set(true);
+        } else {
+            return;
+        }
+        schedule();
+    }
+
+    private void schedule() {
+        if (!scheduled.compareAndSet(false, true)) return;
+        try {
+            worker.execute(this::drain);
+        } catch (RejectedExecutionException ex) {
+            scheduled.set(false); // shutting down
+        }
+    }
+
+    private void drain() {
+        do {
+            while (fullPending.get() || delayedPending.get()) {
+                // Cleared before the build, so a change committed during it asks for another one. A full build
+                // reads the current incidents too, so it covers a pending recompute.
+                boolean full = fullPending.getAndSet(false);
+                delayedPending.set(false);
+                build(full);
+            }
+            scheduled.set(false);
+            // A request made after the last check but before the flag was cleared found it still set
+        } while ((fullPending.get() || delayedPending.get()) && scheduled.compareAndSet(false, true));
+    }
+
+    private void build(boolean full) {
+        try {
+            if (full) arrivals.precompute();
+            else arrivals.recomputeDelayedLines();
+        } catch (RuntimeException ex) {
+            // Requests fall back to computing their board until the next build
+            log.warn("{} arrival boards failed: {}", full ? "Precomputing" : "Recomputing", ex.getMessage());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.metro.vigo.backend.arrival;
 
 import com.metro.vigo.backend.api.dto.NextArrivalDto;
+import com.metro.vigo.backend.concurrency.SnapshotOnly;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -15,6 +16,7 @@ public class ArrivalController {
         this.service = service;
     }
 
+    @SnapshotOnly
     @GetMapping("/{id}/arrivals")
     public List<NextArrivalDto> arrivals(@PathVariable Long id) {
         return service.nextArrivalsForStation(id);
@@ -1,55 +1,172 @@
 package com.metro.vigo.backend.arrival;
 
+import com.metro.vigo.backend.api.dto.IncidentDto;
 import com.metro.vigo.backend.api.dto.NextArrivalDto;
-import com.metro.vigo.backend.incident.Incident;
+import com.metro.vigo.backend.concurrency.SingleFlight;
+import com.metro.vigo.backend.incident.ActiveIncidentCache;
 import com.metro.vigo.backend.incident.IncidentSeverity;
-import com.metro.vigo.backend.incident.IncidentRepository;
-import com.metro.vigo.backend.line.Line;
-import com.metro.vigo.backend.network.LineStationRepository;
+import com.metro.vigo.backend.jfr.ArrivalsComputedEvent;
+import com.metro.vigo.backend.jfr.RepositoryCalls;
+import com.metro.vigo.backend.metrics.LatencyHistogram;
+import com.metro.vigo.backend.metrics.MetricsRegistry;
+import com.metro.vigo.backend.network.NetworkSnapshot;
+import com.metro.vigo.backend.network.NetworkSnapshotService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Next arrival per line at a station. Arrivals only change per minute bucket, so {@link ArrivalBoardScheduler}
+ * precomputes every station's board into a new array and publishes it; a request for the current minute and
+ * snapshot is then an array read. Anything else (startup, right after a network change, scheduler disabled)
+ * is computed on demand, with the same result.
+ */
 @Service
 public class ArrivalService {
 
-    private final LineStationRepository lineStationRepo;
-    private final IncidentRepository incidentRepo;
-    private final Random random = new Random();
+    private static final int GRAIN = 256; // stations per fork/join task
 
-    public ArrivalService(LineStationRepository lineStationRepo, IncidentRepository incidentRepo) {
-        this.lineStationRepo = lineStationRepo;
-        this.incidentRepo = incidentRepo;
+    private final NetworkSnapshotService snapshots;
+    private final ActiveIncidentCache incidents;
+    private final ForkJoinPool pool;
+    private final LatencyHistogram buildTimer;
+
+    // Concurrent requests for the same station within a minute share one board
+    private record BoardKey(long stationId, long minute) {}
+    private final SingleFlight<BoardKey, List<NextArrivalDto>> inFlight;
+
+    /** Boards for every station, indexed like {@link NetworkSnapshot#stations()}. */
+    private record Boards(NetworkSnapshot snapshot, long minute, Map<Long, Integer> delays, List<NextArrivalDto>[] byStation) {}
+
+    private final AtomicReference<Boards> served = new AtomicReference<>();
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    public ArrivalService(
+            NetworkSnapshotService snapshots,
+            ActiveIncidentCache incidents,
+            MetricsRegistry metrics,
+            @Value("${metro.arrivals.parallelism:0}") int parallelism
+    ) {
+        this.snapshots = snapshots;
+        this.incidents = incidents;
+        this.inFlight = new SingleFlight<>("arrivals", metrics);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.buildTimer = metrics.timer("arrival_boards_build");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
     }
 
     public List<NextArrivalDto> nextArrivalsForStation(Long stationId) {
-        var lineStations = lineStationRepo.findByStationIdWithLinesOrdered(stationId);
-        var incidents = incidentRepo.findActiveWithRefs();
+        var board = precomputed(stationId);
+        if (board != null) return board;
+        long minute = currentMinute();
+        return inFlight.execute(new BoardKey(stationId, minute), () -> compute(stationId, minute));
+    }
 
-        List<NextArrivalDto> result = new ArrayList<>();
+    /** The station's board if the served boards are for the current minute and snapshot, otherwise null. Never blocks. */
+    public List<NextArrivalDto> precomputed(Long stationId) {
+        var snapshot = snapshots.current();
+        var boards = served.get();
+        if (boards == null || boards.minute() != currentMinute() || boards.snapshot() != snapshot) return null;
+        int i = snapshot.stationIndex(stationId);
+        return i >= 0 ? boards.byStation()[i] : List.of();
+    }
+
+    /** Rebuilds every station's board for the current minute and publishes them. */
+    public void precompute() {
+        buildLock.lock();
+        try {
+            build(null);
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * Recomputes only the stations on lines whose incident delay changed since the served boards were built;
+     * the rest are carried over. Falls back to a full build when the served boards are for another minute or snapshot.
+     */
+    public void recomputeDelayedLines() {
+        buildLock.lock();
+        try {
+            build(served.get());
+        } finally {
+            buildLock.unlock();
+        }
+    }
 
-        for (var ls : lineStations) {
-            Line line = ls.getLine();
+    private void build(Boards previous) {
+        long start = System.nanoTime();
+        long minute = currentMinute();
+        var snapshot = snapshots.current();
+        var delays = delaysByLine(incidents.current());
+        int n = snapshot.stations().size();
 
-            int baseFrequency = baseFrequencyMinutes(line.getCode());
-            int minutes = random.nextInt(baseFrequency) + 1;
+        boolean[] affected = null;
+        if (previous != null && previous.minute() == minute && previous.snapshot() == snapshot) {
+            Set<Long> changed = new HashSet<>(delays.keySet());
+            changed.addAll(previous.delays().keySet());
+            changed.removeIf(id -> Objects.equals(delays.get(id), previous.delays().get(id)));
+            if (changed.isEmpty()) return;
 
-            // Apply delay if incident affects this line
-            for (Incident i : incidents) {
-                if (i.getLine() != null
-                        && i.getLine().getId().equals(line.getId())
-                        && i.getSeverity() != IncidentSeverity.INFO) {
-                    minutes += delayForSeverity(i.getSeverity());
-                }
+            affected = new boolean[n];
+            for (long lineId : changed) {
+                var line = snapshot.lineDetail(lineId);
+                if (line == null) continue;
+                for (var s : line.stations()) affected[snapshot.stationIndex(s.id())] = true;
             }
+        }
+
+        // Never reuse an array from published boards: a reader may still hold them and expects them unchanged
+        @SuppressWarnings("unchecked")
+        List<NextArrivalDto>[] target = new List[n];
+        if (affected != null) System.arraycopy(previous.byStation(), 0, target, 0, n);
+
+        pool.invoke(new Fill(snapshot, minute, delays, target, affected, 0, n));
+        served.set(new Boards(snapshot, minute, delays, target));
+        buildTimer.recordSince(start);
+    }
+
+    private List<NextArrivalDto> compute(long stationId, long minute) {
+        var event = new ArrivalsComputedEvent();
+        int callsBefore = RepositoryCalls.count();
+        event.begin();
+
+        var board = board(snapshots.current(), stationId, minute, delaysByLine(incidents.current()));
+
+        if (event.shouldCommit()) {
+            event.stationId = stationId;
+            event.arrivals = board.size();
+            event.repositoryCalls = RepositoryCalls.count() - callsBefore;
+            event.commit();
+        }
+        return board;
+    }
+
+    private static List<NextArrivalDto> board(NetworkSnapshot snapshot, long stationId, long minute, Map<Long, Integer> delays) {
+        List<NextArrivalDto> result = new ArrayList<>();
+
+        for (var line : snapshot.linesAt(stationId)) {
+            int baseFrequency = baseFrequencyMinutes(line.code());
+            // Fixed per station, line and minute, so a recomputed board only differs where the delay changed
+            long seed = stationId * 0x9E3779B97F4A7C15L ^ line.id() * 0xC2B2AE3D27D4EB4FL ^ minute;
+            int minutes = new SplittableRandom(seed).nextInt(baseFrequency) + 1;
 
             result.add(new NextArrivalDto(
-                    line.getId(),
-                    line.getCode(),
-                    line.getName(),
-                    minutes
+                    line.id(),
+                    line.code(),
+                    line.name(),
+                    minutes + delays.getOrDefault(line.id(), 0)
             ));
         }
 
@@ -58,14 +175,28 @@ public class ArrivalService {
                 .toList();
     }
 
-    private int baseFrequencyMinutes(String lineCode) {
+    // Total delay per line from the incidents that affect it
+    private static Map<Long, Integer> delaysByLine(List<IncidentDto> active) {
+        Map<Long, Integer> delays = new HashMap<>();
+        for (IncidentDto i : active) {
+            if (i.lineId() == null) continue;
+            delays.merge(i.lineId(), delayForSeverity(IncidentSeverity.valueOf(i.severity())), Integer::sum);
+        }
+        return delays;
+    }
+
+    private static long currentMinute() {
+        return Instant.now().getEpochSecond() / 60;
+    }
+
+    private static int baseFrequencyMinutes(String lineCode) {
         return switch (lineCode) {
             case "M7", "M8" -> 15; // express / special
             default -> 6;         // urban lines
         };
     }
 
-    private int delayForSeverity(IncidentSeverity severity) {
+    private static int delayForSeverity(IncidentSeverity severity) {
         return switch (severity) {
             case MINOR -> 3;
             case MAJOR -> 6;
@@ -73,4 +204,39 @@ public class ArrivalService {
             default -> 0;
         };
     }
+
+    private static final class Fill extends RecursiveAction {
+        private final NetworkSnapshot snapshot;
+        private final long minute;
+        private final Map<Long, Integer> delays;
+        private final List<NextArrivalDto>[] target;
+        private final boolean[] only; // null = every station
+        private final int lo;
+        private final int hi;
+
+        Fill(NetworkSnapshot snapshot, long minute, Map<Long, Integer> delays, List<NextArrivalDto>[] target,
+             boolean[] only, int lo, int hi) {
+            this.snapshot = snapshot;
+            this.minute = minute;
+            this.delays = delays;
+            this.target = target;
+            this.only = only;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Fill(snapshot, minute, delays, target, only, lo, mid),
+                        new Fill(snapshot, minute, delays, target, only, mid, hi));
+                return;
+            }
+            var stations = snapshot.stations();
+            for (int i = lo; i < hi; i++) {
+                if (only == null || only[i]) target[i] = board(snapshot, stations.get(i).id(), minute, delays);
+            }
+        }
+    }
 }
@@ -0,0 +1,126 @@
+package com.metro.vigo.backend.concurrency;
+
+import com.metro.vigo.backend.api.ServiceUnavailableException;
+import com.metro.vigo.backend.metrics.LatencyHistogram;
+import com.metro.vigo.backend.metrics.MetricsRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps concurrent DB-touching requests at the JDBC pool size.
+ *
+ * With virtual threads the servlet container no longer limits concurrency, so without this every
+ * request would pile up inside Hikari's getConnection(). Here they queue (FIFO) for a bounded time
+ * and get a 503 with Retry-After instead of a pool timeout deep inside a transaction.
+ * Handlers marked {@link SnapshotOnly} skip the queue entirely.
+ *
+ * An async handler keeps its permit until the async request completes: a {@code StreamingResponseBody}
+ * (the NDJSON export) holds its connection while it writes. Only emitters (SSE) give it back when the handler returns.
+ */
+@Component
+public class DbConcurrencyLimiter implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT = DbConcurrencyLimiter.class.getName() + ".permit";
+
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final LatencyHistogram waits;
+    private final LongAdder rejected;
+
+    public DbConcurrencyLimiter(
+            MetricsRegistry metrics,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${metro.db-limiter.max-wait:PT2S}") Duration maxWait
+    ) {
+        this.permits = new Semaphore(poolSize, true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.waits = metrics.timer("db_limiter_wait");
+        this.rejected = metrics.counter("db_limiter_rejected_total");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || isSnapshotOnly(handler)) return true;
+
+        long start = System.nanoTime();
+        if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Database busy, retry shortly", 1);
+        }
+        waits.recordSince(start);
+        request.setAttribute(PERMIT, new AtomicBoolean(true));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (isEmitter(handler) || !request.isAsyncStarted()) {
+            release(request);
+            return;
+        }
+        // The body is written after the handler returned; release when the async request ends, however it ends
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                release(request);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                release(request);
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                release(request);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request);
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    // Called from the async dispatch and the async listener alike; only the first one gives the permit back
+    private void release(HttpServletRequest request) {
+        if (request.getAttribute(PERMIT) instanceof AtomicBoolean held && held.getAndSet(false)) {
+            permits.release();
+        }
+    }
+
+    private static boolean isSnapshotOnly(Object handler) {
+        if (!(handler instanceof HandlerMethod method)) return true; // static resources, error pages
+        return method.hasMethodAnnotation(SnapshotOnly.class)
+                || method.getBeanType().isAnnotationPresent(SnapshotOnly.class);
+    }
+
+    // SSE and other emitters stay open long after their last query
+    private static boolean isEmitter(Object handler) {
+        return handler instanceof HandlerMethod method
+                && ResponseBodyEmitter.class.isAssignableFrom(method.getMethod().getReturnType());
+    }
+}
@@ -0,0 +1,65 @@
+package com.metro.vigo.backend.concurrency;
+
+import com.metro.vigo.backend.metrics.MetricsRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing: while a computation for a key is running, identical calls wait for its result
+ * instead of starting their own. Nothing is cached once the computation finishes.
+ *
+ * Callers must include everything the result depends on in the key (e.g. the minute bucket).
+ * Exceptions are shared too: every waiter sees the leader's failure.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder leaders;
+    private final LongAdder followers;
+
+    /** Counts calls as {@code single_flight_calls_total{name, role=leader|follower}}. */
+    public SingleFlight(String name, MetricsRegistry metrics) {
+        this.leaders = metrics.counter("single_flight_calls_total", "name", name, "role", "leader");
+        this.followers = metrics.counter("single_flight_calls_total", "name", name, "role", "follower");
+    }
+
+    public V execute(K key, Supplier<V> work) {
+        var mine = new CompletableFuture<V>();
+        var running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            followers.increment();
+            return await(running);
+        }
+
+        leaders.increment();
+        try {
+            V value = work.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            // Rethrow the leader's exception as is, so callers' error mapping (404, 400) still applies
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            if (ex.getCause() instanceof Error err) throw err;
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.metro.vigo.backend.concurrency;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks handlers (or whole controllers) that serve from the in-memory network snapshot and never
+ * need a JDBC connection, so {@link DbConcurrencyLimiter} lets them through without a permit.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SnapshotOnly {}
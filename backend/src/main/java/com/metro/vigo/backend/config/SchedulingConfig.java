@@ -0,0 +1,10 @@
+package com.metro.vigo.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Background jobs ({@code @Scheduled}): incident archiving, arrival board precomputation. */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
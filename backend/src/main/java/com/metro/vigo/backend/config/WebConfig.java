@@ -1,22 +1,50 @@
 package com.metro.vigo.backend.config;
 
+import com.metro.vigo.backend.admission.JourneyAdmissionInterceptor;
+import com.metro.vigo.backend.concurrency.DbConcurrencyLimiter;
+import com.metro.vigo.backend.metrics.MetricsInterceptor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    public static final String[] ALLOWED_ORIGINS = {
+            "http://localhost:5173",
+            "https://vigometro.com",
+            "https://www.vigometro.com"
+    };
+
+    private final MetricsInterceptor metricsInterceptor;
+    private final DbConcurrencyLimiter dbLimiter;
+    private final JourneyAdmissionInterceptor journeyAdmission;
+
+    public WebConfig(MetricsInterceptor metricsInterceptor, DbConcurrencyLimiter dbLimiter,
+                     JourneyAdmissionInterceptor journeyAdmission) {
+        this.metricsInterceptor = metricsInterceptor;
+        this.dbLimiter = dbLimiter;
+        this.journeyAdmission = journeyAdmission;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
-                .allowedOrigins(
-                        "http://localhost:5173",
-                        "https://vigometro.com",
-                        "https://www.vigometro.com"
-                )
+                .allowedOrigins(ALLOWED_ORIGINS)
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS")
                 .allowCredentials(true)
-                .allowedHeaders("*");
+                .allowedHeaders("*")
+                .exposedHeaders("ETag", "X-Network-Version", "X-Next-After", "X-Query-Count", "X-Query-Time-Ms");
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(metricsInterceptor).addPathPatterns("/api/**");
+        // After metrics, so rejected requests are still timed and counted
+        registry.addInterceptor(dbLimiter).addPathPatterns("/api/**");
+        // The matrix has its own concurrency cap; its multi-second latency would drag the adaptive limit down
+        registry.addInterceptor(journeyAdmission).addPathPatterns("/api/journey", "/api/journey/**")
+                .excludePathPatterns("/api/journey/matrix");
     }
 }
@@ -0,0 +1,78 @@
+package com.metro.vigo.backend.incident;
+
+import com.metro.vigo.backend.api.Mapper;
+import com.metro.vigo.backend.api.dto.IncidentDto;
+import com.metro.vigo.backend.sync.ChangeLogEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Active incidents held in memory, in the same order as {@link IncidentRepository#findActiveWithRefs()}.
+ * Reloaded lazily after any change, since incident DTOs also carry line codes and station names.
+ */
+@Component
+public class ActiveIncidentCache {
+
+    private final IncidentRepository repo;
+
+    private final AtomicReference<List<IncidentDto>> current = new AtomicReference<>();
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    public ActiveIncidentCache(IncidentRepository repo) {
+        this.repo = repo;
+    }
+
+    public List<IncidentDto> current() {
+        var incidents = current.get();
+        return incidents != null ? incidents : load();
+    }
+
+    /** The loaded list, or null if reading it now would hit the DB. */
+    public List<IncidentDto> peek() {
+        return current.get();
+    }
+
+    /** Same filter and order (newest first) as {@link IncidentRepository#findActiveFiltered}. */
+    public List<IncidentDto> filtered(Long lineId, Long stationId) {
+        return current().stream()
+                .filter(i -> lineId == null || Objects.equals(i.lineId(), lineId))
+                .filter(i -> stationId == null || Objects.equals(i.stationId(), stationId))
+                .sorted(Comparator.comparing(IncidentDto::createdAt, Comparator.nullsLast(Comparator.reverseOrder())))
+                .toList();
+    }
+
+    // Under the load lock, so a load that started before this change cannot publish a stale list after it.
+    // Right after the snapshot listener, so later listeners (arrival boards) read the new incidents.
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void onChange(ChangeLogEvent event) {
+        loadLock.lock();
+        try {
+            current.set(null);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private List<IncidentDto> load() {
+        loadLock.lock();
+        try {
+            var incidents = current.get();
+            if (incidents == null) {
+                incidents = repo.findActiveWithRefs().stream().map(Mapper::toIncidentDto).toList();
+                current.set(incidents);
+            }
+            return incidents;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+}
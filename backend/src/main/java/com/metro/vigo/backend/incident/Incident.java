@@ -2,11 +2,13 @@ package com.metro.vigo.backend.incident;
 
 import com.metro.vigo.backend.line.Line;
 import com.metro.vigo.backend.station.Station;
+import com.metro.vigo.backend.sync.ChangeLogEntityListener;
 import jakarta.persistence.*;
 
 import java.time.Instant;
 
 @Entity
+@EntityListeners(ChangeLogEntityListener.class)
 @Table(name = "incidents", indexes = {
         @Index(name = "idx_incidents_active", columnList = "active"),
         @Index(name = "idx_incidents_created", columnList = "createdAt")
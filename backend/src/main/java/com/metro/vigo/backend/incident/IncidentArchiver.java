@@ -0,0 +1,131 @@
+package com.metro.vigo.backend.incident;
+
+import com.metro.vigo.backend.sync.Change;
+import com.metro.vigo.backend.sync.ChangeLogService;
+import com.metro.vigo.backend.sync.ChangeOperation;
+import com.metro.vigo.backend.sync.ChangeType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Moves resolved incidents from {@code incidents} to {@code incident_archive} in small batches.
+ *
+ * Each batch is one statement: delete, archive insert, per-line stats upsert and change log rows
+ * (DELETE, so synced clients drop the incident) happen together. {@code skip locked} lets several
+ * nodes run the job at once without waiting on each other.
+ */
+@Component
+@ConditionalOnProperty(name = "metro.incidents.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class IncidentArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(IncidentArchiver.class);
+
+    private static final String ARCHIVE_BATCH = """
+            with moved as (
+                delete from incidents
+                where id in (
+                    select id from incidents
+                    where not active and coalesce(updated_at, created_at) < ?
+                    order by updated_at nulls first, id
+                    limit ?
+                    for update skip locked
+                )
+                returning id, severity, scope, title, message, created_at,
+                          coalesce(updated_at, created_at) as resolved_at, line_id, station_id
+            ),
+            archived as (
+                insert into incident_archive
+                    (id, severity, scope, title, message, created_at, resolved_at, line_id, station_id, archived_at)
+                select id, severity, scope, title, message, created_at, resolved_at, line_id, station_id, ?
+                from moved
+            ),
+            stats as (
+                insert into incident_line_stats as s
+                    (line_id, incidents, critical, major, minor, disrupted_seconds, last_created_at)
+                select coalesce(line_id, 0),
+                       count(*),
+                       count(*) filter (where severity = 'CRITICAL'),
+                       count(*) filter (where severity = 'MAJOR'),
+                       count(*) filter (where severity = 'MINOR'),
+                       coalesce(sum(extract(epoch from resolved_at - created_at)), 0)::bigint,
+                       max(created_at)
+                from moved
+                group by coalesce(line_id, 0)
+                on conflict (line_id) do update set
+                    incidents = s.incidents + excluded.incidents,
+                    critical = s.critical + excluded.critical,
+                    major = s.major + excluded.major,
+                    minor = s.minor + excluded.minor,
+                    disrupted_seconds = s.disrupted_seconds + excluded.disrupted_seconds,
+                    last_created_at = greatest(s.last_created_at, excluded.last_created_at)
+            )
+            insert into change_log (entity_type, entity_id, operation, created_at)
+            select ?, id, ?, ? from moved
+            returning id, entity_id
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ChangeLogService changeLog;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public IncidentArchiver(
+            JdbcTemplate jdbc,
+            TransactionTemplate tx,
+            ChangeLogService changeLog,
+            @Value("${metro.incidents.archive.min-age:PT1H}") Duration minAge,
+            @Value("${metro.incidents.archive.batch-size:500}") int batchSize,
+            @Value("${metro.incidents.archive.max-batches:20}") int maxBatches
+    ) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.changeLog = changeLog;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(initialDelayString = "${metro.incidents.archive.interval:PT1M}",
+            fixedDelayString = "${metro.incidents.archive.interval:PT1M}")
+    public void archive() {
+        int total = 0;
+        try {
+            // Short transactions: row locks and the change log entries are released batch by batch
+            for (int batch = 0; batch < maxBatches; batch++) {
+                Integer moved = tx.execute(status -> archiveBatch());
+                total += moved == null ? 0 : moved;
+                if (moved == null || moved < batchSize) break;
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Incident archive run failed after {} rows", total, ex);
+            return;
+        }
+        if (total > 0) log.info("Archived {} resolved incidents", total);
+    }
+
+    private int archiveBatch() {
+        changeLog.beginWrite(); // our change log rows get versions in commit order
+        var now = Instant.now();
+        var cutoff = now.minus(minAge);
+        List<Change> changes = jdbc.query(ARCHIVE_BATCH,
+                (rs, i) -> new Change(rs.getLong("id"), ChangeType.INCIDENT, rs.getLong("entity_id"), ChangeOperation.DELETE, now),
+                Timestamp.from(cutoff), batchSize, Timestamp.from(now),
+                ChangeType.INCIDENT.name(), ChangeOperation.DELETE.name(), Timestamp.from(now));
+        changeLog.recorded(changes.stream().sorted(Comparator.comparingLong(Change::version)).toList());
+        return changes.size();
+    }
+}
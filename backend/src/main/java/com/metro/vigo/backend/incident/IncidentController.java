@@ -2,18 +2,28 @@ package com.metro.vigo.backend.incident;
 
 import com.metro.vigo.backend.api.Mapper;
 import com.metro.vigo.backend.api.dto.IncidentDto;
+import com.metro.vigo.backend.api.dto.IncidentLineStatsDto;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/incidents")
 public class IncidentController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-After";
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+
     private final IncidentRepository repo;
+    private final IncidentHistoryService history;
 
-    public IncidentController(IncidentRepository repo) {
+    public IncidentController(IncidentRepository repo, IncidentHistoryService history) {
         this.repo = repo;
+        this.history = history;
     }
 
     // /api/incidents?lineId=1&stationId=2
@@ -33,4 +43,46 @@ public class IncidentController {
     public List<IncidentDto> activeAlias() {
         return repo.findActiveWithRefs().stream().map(Mapper::toIncidentDto).toList();
     }
+
+    // /api/incidents/history?from=2026-01-01T00:00:00Z&to=...&lineId=1&after=<cursor>
+    // Newest first, live and archived; X-Next-After carries the next (opaque) cursor
+    @GetMapping("/history")
+    public ResponseEntity<List<IncidentDto>> history(
+            @RequestParam(name = "from", required = false) String from,
+            @RequestParam(name = "to", required = false) String to,
+            @RequestParam(name = "lineId", required = false) Long lineId,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "limit", required = false) Integer limit
+    ) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        var cursor = after == null || after.isEmpty() ? null : IncidentCursor.decode(after);
+
+        var page = history.history(instant("from", from), instant("to", to), lineId, cursor, size);
+
+        var response = ResponseEntity.ok();
+        if (page.size() == size) {
+            var last = page.get(page.size() - 1);
+            response.header(NEXT_CURSOR_HEADER, new IncidentCursor(last.createdAt(), last.id()).encode());
+        }
+        return response.body(page);
+    }
+
+    // Per-line totals, archived and live, most disrupted first
+    @GetMapping("/stats")
+    public List<IncidentLineStatsDto> stats() {
+        return history.lineStats();
+    }
+
+    private static Instant instant(String name, String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException(name + " must be an ISO-8601 instant");
+        }
+    }
 }
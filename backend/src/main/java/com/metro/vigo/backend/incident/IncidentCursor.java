@@ -0,0 +1,34 @@
+package com.metro.vigo.backend.incident;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset cursor for incident history pages: the (createdAt, id) of the last incident served, as an opaque
+ * base64url token so clients don't build or depend on its layout.
+ */
+public record IncidentCursor(Instant createdAt, long id) {
+
+    public String encode() {
+        var raw = createdAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static IncidentCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("after must be a cursor from the X-Next-After header");
+        }
+        int comma = raw.indexOf(',');
+        if (comma < 0) throw new IllegalArgumentException("after must be a cursor from the X-Next-After header");
+        try {
+            return new IncidentCursor(Instant.parse(raw.substring(0, comma)), Long.parseLong(raw.substring(comma + 1)));
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            throw new IllegalArgumentException("after must be a cursor from the X-Next-After header");
+        }
+    }
+}
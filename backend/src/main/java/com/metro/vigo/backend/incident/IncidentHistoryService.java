@@ -0,0 +1,138 @@
+package com.metro.vigo.backend.incident;
+
+import com.metro.vigo.backend.api.dto.IncidentDto;
+import com.metro.vigo.backend.api.dto.IncidentLineStatsDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incident history over the live table and the archive, newest first, and per-line disruption stats.
+ *
+ * Pages are keyset on (created_at, id): each side is read through its (created_at desc, id desc) index
+ * up to the page size, then the two short lists are merged. Stats add the archive totals (kept up to
+ * date by {@link IncidentArchiver}) to an aggregate over the live table, which archiving keeps small.
+ */
+@Service
+public class IncidentHistoryService {
+
+    private static final String COLUMNS = "id, severity, scope, title, message, active, created_at, line_id, station_id";
+
+    private static final String STATS = """
+            select coalesce(a.line_id, b.line_id) as line_id, l.code,
+                   coalesce(a.incidents, 0) + coalesce(b.incidents, 0) as incidents,
+                   coalesce(a.critical, 0) + coalesce(b.critical, 0) as critical,
+                   coalesce(a.major, 0) + coalesce(b.major, 0) as major,
+                   coalesce(a.minor, 0) + coalesce(b.minor, 0) as minor,
+                   coalesce(a.disrupted_seconds, 0) + coalesce(b.disrupted_seconds, 0) as disrupted_seconds,
+                   coalesce(b.active_now, 0) as active_now,
+                   greatest(a.last_created_at, b.last_created_at) as last_created_at
+            from incident_line_stats a
+            full join (
+                select coalesce(line_id, 0) as line_id,
+                       count(*) as incidents,
+                       count(*) filter (where severity = 'CRITICAL') as critical,
+                       count(*) filter (where severity = 'MAJOR') as major,
+                       count(*) filter (where severity = 'MINOR') as minor,
+                       coalesce(sum(extract(epoch from
+                           (case when active then now() else coalesce(updated_at, created_at) end) - created_at)), 0)::bigint
+                           as disrupted_seconds,
+                       count(*) filter (where active) as active_now,
+                       max(created_at) as last_created_at
+                from incidents
+                group by coalesce(line_id, 0)
+            ) b on b.line_id = a.line_id
+            left join lines l on l.id = coalesce(a.line_id, b.line_id)
+            order by disrupted_seconds desc, line_id
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public IncidentHistoryService(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Incidents created in [from, to), optionally on one line, strictly before the cursor when there is one. */
+    public List<IncidentDto> history(Instant from, Instant to, Long lineId, IncidentCursor after, int limit) {
+        var where = new StringBuilder(" where true");
+        List<Object> args = new ArrayList<>();
+        if (from != null) {
+            where.append(" and created_at >= ?");
+            args.add(Timestamp.from(from));
+        }
+        if (to != null) {
+            where.append(" and created_at < ?");
+            args.add(Timestamp.from(to));
+        }
+        if (lineId != null) {
+            where.append(" and line_id = ?");
+            args.add(lineId);
+        }
+        if (after != null) {
+            where.append(" and (created_at, id) < (?, ?)");
+            args.add(Timestamp.from(after.createdAt()));
+            args.add(after.id());
+        }
+        String page = where + " order by created_at desc, id desc limit ?";
+        args.add(limit);
+
+        String sql = "select h.*, l.code as line_code, s.name as station_name from ("
+                + "(select " + COLUMNS + " from incidents" + page + ")"
+                + " union all "
+                + "(select id, severity, scope, title, message, false as active, created_at, line_id, station_id"
+                + " from incident_archive" + page + ")"
+                + ") h"
+                + " left join lines l on l.id = h.line_id"
+                + " left join stations s on s.id = h.station_id"
+                + " order by h.created_at desc, h.id desc limit ?";
+
+        List<Object> all = new ArrayList<>(args);
+        all.addAll(args);
+        all.add(limit);
+        return jdbc.query(sql, IncidentHistoryService::toDto, all.toArray());
+    }
+
+    public List<IncidentLineStatsDto> lineStats() {
+        return jdbc.query(STATS, (rs, i) -> {
+            long lineId = rs.getLong("line_id");
+            Timestamp last = rs.getTimestamp("last_created_at");
+            return new IncidentLineStatsDto(
+                    lineId == 0 ? null : lineId,
+                    rs.getString("code"),
+                    rs.getLong("incidents"),
+                    rs.getLong("critical"),
+                    rs.getLong("major"),
+                    rs.getLong("minor"),
+                    rs.getLong("disrupted_seconds") / 60,
+                    rs.getLong("active_now"),
+                    last == null ? null : last.toInstant()
+            );
+        });
+    }
+
+    private static IncidentDto toDto(ResultSet rs, int row) throws SQLException {
+        long lineId = rs.getLong("line_id");
+        boolean hasLine = !rs.wasNull();
+        long stationId = rs.getLong("station_id");
+        boolean hasStation = !rs.wasNull();
+        return new IncidentDto(
+                rs.getLong("id"),
+                rs.getString("severity"),
+                rs.getString("scope"),
+                rs.getString("title"),
+                rs.getString("message"),
+                rs.getBoolean("active"),
+                rs.getTimestamp("created_at").toInstant(),
+                hasLine ? lineId : null,
+                rs.getString("line_code"),
+                hasStation ? stationId : null,
+                rs.getString("station_name")
+        );
+    }
+}
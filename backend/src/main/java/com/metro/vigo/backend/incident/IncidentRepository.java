@@ -4,6 +4,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface IncidentRepository extends JpaRepository<Incident, Long> {
@@ -36,4 +37,17 @@ public interface IncidentRepository extends JpaRepository<Incident, Long> {
         order by i.createdAt desc
     """)
     List<Incident> findActiveFiltered(@Param("lineId") Long lineId, @Param("stationId") Long stationId);
+
+    @Query("""
+        select i
+        from Incident i
+        left join fetch i.line l
+        left join fetch i.station s
+        where i.id in :ids
+    """)
+    List<Incident> findWithRefsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Incidents keep a foreign key to their line / station, resolved or not
+    boolean existsByLineId(Long lineId);
+    boolean existsByStationId(Long stationId);
 }
@@ -0,0 +1,20 @@
+package com.metro.vigo.backend.jfr;
+
+import jdk.jfr.*;
+
+@Name("com.metro.vigo.ArrivalsComputed")
+@Label("Arrivals Computed")
+@Category({"Metro Vigo", "Arrivals"})
+@StackTrace(false)
+public class ArrivalsComputedEvent extends Event {
+
+    @Label("Station Id")
+    public long stationId;
+
+    @Label("Arrivals")
+    public int arrivals;
+
+    @Label("Repository Calls")
+    @Description("Spring Data repository method calls, not SQL statements (see X-Query-Count)")
+    public int repositoryCalls;
+}
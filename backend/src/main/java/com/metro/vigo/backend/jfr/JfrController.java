@@ -0,0 +1,56 @@
+package com.metro.vigo.backend.jfr;
+
+import com.metro.vigo.backend.concurrency.SnapshotOnly;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Map;
+
+/** Start/stop an on-demand flight recording; stop downloads the .jfr file. Off unless metro.jfr.enabled=true. */
+@RestController
+@ConditionalOnProperty(name = "metro.jfr.enabled", havingValue = "true")
+@SnapshotOnly
+@RequestMapping("/api/internal/jfr")
+public class JfrController {
+
+    private final JfrRecordingService recordings;
+
+    public JfrController(JfrRecordingService recordings) {
+        this.recordings = recordings;
+    }
+
+    @GetMapping
+    public Map<String, Object> status() {
+        return recordings.status();
+    }
+
+    // e.g. POST /api/internal/jfr/start?seconds=120 (capped by metro.jfr.max-duration)
+    @PostMapping("/start")
+    public Map<String, Object> start(@RequestParam(name = "seconds", defaultValue = "60") long seconds) {
+        return recordings.start(Duration.ofSeconds(seconds));
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<StreamingResponseBody> stop() {
+        var file = recordings.stop();
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,106 @@
+package com.metro.vigo.backend.jfr;
+
+import com.metro.vigo.backend.api.ConflictException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One on-demand JFR recording at a time, using the JDK "profile" settings plus the app's own events.
+ * Recordings always carry a duration and size cap so a forgotten one cannot fill the disk.
+ */
+@Service
+@ConditionalOnProperty(name = "metro.jfr.enabled", havingValue = "true")
+public class JfrRecordingService {
+
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+
+    private Recording recording;
+
+    public JfrRecordingService(
+            @Value("${metro.jfr.max-duration:PT10M}") Duration maxDuration,
+            @Value("${metro.jfr.max-size-mb:256}") long maxSizeMb
+    ) {
+        this.maxDuration = maxDuration;
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    public synchronized Map<String, Object> start(Duration duration) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new ConflictException("A recording is already running (id " + recording.getId() + ")");
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("duration must be positive");
+        }
+        if (recording != null) recording.close();
+
+        Configuration profile;
+        try {
+            profile = Configuration.getConfiguration("profile");
+        } catch (IOException | ParseException ex) {
+            throw new IllegalStateException("JFR 'profile' configuration unavailable", ex);
+        }
+
+        var bounded = duration.compareTo(maxDuration) > 0 ? maxDuration : duration;
+        var r = new Recording(profile);
+        r.setName("metro-vigo-" + Instant.now().getEpochSecond());
+        r.setToDisk(true);
+        r.setDuration(bounded);
+        r.setMaxAge(bounded);
+        r.setMaxSize(maxSizeBytes);
+        r.enable(JourneyPlannedEvent.class);
+        r.enable(ArrivalsComputedEvent.class);
+        r.enable(RepositoryQueryEvent.class);
+        r.start();
+        recording = r;
+        return status();
+    }
+
+    /** Stops the recording (if still running) and dumps it to a temp file the caller must delete. */
+    public synchronized Path stop() {
+        if (recording == null) {
+            throw new ConflictException("No recording to stop");
+        }
+        try {
+            if (recording.getState() == RecordingState.RUNNING) recording.stop();
+            Path file = Files.createTempFile("metro-vigo-", ".jfr");
+            recording.dump(file);
+            return file;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("id", recording.getId());
+        status.put("name", recording.getName());
+        status.put("state", recording.getState().name());
+        status.put("startTime", recording.getStartTime());
+        status.put("duration", recording.getDuration());
+        status.put("maxSizeBytes", recording.getMaxSize());
+        status.put("sizeBytes", recording.getSize());
+        return status;
+    }
+}
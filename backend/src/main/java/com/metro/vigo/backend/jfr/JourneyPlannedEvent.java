@@ -0,0 +1,29 @@
+package com.metro.vigo.backend.jfr;
+
+import jdk.jfr.*;
+
+@Name("com.metro.vigo.JourneyPlanned")
+@Label("Journey Planned")
+@Category({"Metro Vigo", "Planner"})
+@StackTrace(false)
+public class JourneyPlannedEvent extends Event {
+
+    @Label("From Station Id")
+    public long fromStationId;
+
+    @Label("To Station Id")
+    public long toStationId;
+
+    @Label("Route Found")
+    public boolean found;
+
+    @Label("Transfers")
+    public int transfers;
+
+    @Label("Total Minutes")
+    public int totalMinutes;
+
+    @Label("Repository Calls")
+    @Description("Spring Data repository method calls, not SQL statements (see X-Query-Count)")
+    public int repositoryCalls;
+}
@@ -0,0 +1,18 @@
+package com.metro.vigo.backend.jfr;
+
+/** Per-thread count of repository method calls (not SQL statements), so events can report how many an operation made. */
+public final class RepositoryCalls {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    private RepositoryCalls() {}
+
+    static void increment() {
+        COUNT.get()[0]++;
+    }
+
+    /** Monotonic per thread; callers take the difference around an operation. */
+    public static int count() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,21 @@
+package com.metro.vigo.backend.jfr;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/** Adds {@link RepositoryQueryInterceptor} to every Spring Data repository proxy. */
+@Component
+public class RepositoryEventsPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        // Runs before the factory bean creates its repository in afterPropertiesSet()
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory ->
+                    factory.addRepositoryProxyPostProcessor((proxyFactory, info) ->
+                            proxyFactory.addAdvice(new RepositoryQueryInterceptor(info.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,19 @@
+package com.metro.vigo.backend.jfr;
+
+import jdk.jfr.*;
+
+@Name("com.metro.vigo.RepositoryQuery")
+@Label("Repository Query")
+@Category({"Metro Vigo", "Repository"})
+@StackTrace(false)
+public class RepositoryQueryEvent extends Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,35 @@
+package com.metro.vigo.backend.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/** Wraps every repository method call in a {@link RepositoryQueryEvent}. */
+class RepositoryQueryInterceptor implements MethodInterceptor {
+
+    private final String repository;
+
+    RepositoryQueryInterceptor(String repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RepositoryCalls.increment();
+        var event = new RepositoryQueryEvent();
+        event.begin();
+        boolean failed = true;
+        try {
+            var result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            // Field assignment only when a recording wants the event
+            if (event.shouldCommit()) {
+                event.repository = repository;
+                event.method = invocation.getMethod().getName();
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.metro.vigo.backend.journey;
+
+import com.metro.vigo.backend.api.dto.CrowdingDemandDto;
+import com.metro.vigo.backend.api.dto.CrowdingDto;
+import com.metro.vigo.backend.concurrency.SnapshotOnly;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/** Runs a demand assignment and reports the busiest segments and stations of the latest one. */
+@RestController
+@SnapshotOnly
+@RequestMapping("/api/internal/crowding")
+public class CrowdingController {
+
+    private final CrowdingService crowding;
+
+    public CrowdingController(CrowdingService crowding) {
+        this.crowding = crowding;
+    }
+
+    @PostMapping("/assign")
+    public CrowdingDto assign(
+            @RequestBody CrowdingDemandDto demand,
+            @RequestParam(name = "limit", defaultValue = "100") int limit
+    ) {
+        Instant when = (demand.datetime() == null || demand.datetime().isBlank())
+                ? Instant.now()
+                : Instant.parse(demand.datetime());
+        return toDto(crowding.assign(demand.flows(), when, demand.maxTransfers()), limit);
+    }
+
+    @GetMapping
+    public CrowdingDto latest(@RequestParam(name = "limit", defaultValue = "100") int limit) {
+        return toDto(crowding.latest(), limit);
+    }
+
+    private static CrowdingDto toDto(CrowdingModel model, int limit) {
+        if (limit < 0) throw new IllegalArgumentException("limit must not be negative");
+        var network = model.network;
+
+        List<CrowdingDto.Segment> segments = new ArrayList<>();
+        for (int l = 0; l < network.lineCount(); l++) {
+            int[] stops = network.lineStops()[l];
+            double capacity = model.capacity(l);
+            for (int p = 0; p + 1 < stops.length; p++) {
+                segment(segments, model, l, p, p + 1, model.load[model.slot(l, p, true)], capacity);
+                segment(segments, model, l, p + 1, p, model.load[model.slot(l, p + 1, false)], capacity);
+            }
+        }
+        segments.sort(Comparator.comparingLong(CrowdingDto.Segment::load).reversed());
+
+        List<CrowdingDto.StationFlow> stations = new ArrayList<>();
+        for (int s = 0; s < network.stationCount(); s++) {
+            if (model.boardings[s] == 0 && model.alightings[s] == 0) continue;
+            stations.add(new CrowdingDto.StationFlow(network.stationIds()[s], model.boardings[s], model.alightings[s]));
+        }
+        stations.sort(Comparator.comparingLong(CrowdingDto.StationFlow::boardings).reversed());
+
+        return new CrowdingDto(
+                network.snapshot().version(),
+                model.departure,
+                model.totalTrips,
+                model.assignedTrips,
+                model.elapsedMs,
+                segments.subList(0, Math.min(limit, segments.size())),
+                stations.subList(0, Math.min(limit, stations.size()))
+        );
+    }
+
+    private static void segment(List<CrowdingDto.Segment> out, CrowdingModel model, int line, int from, int to,
+                                long load, double capacity) {
+        if (load == 0) return;
+        var network = model.network;
+        double ratio = load / capacity;
+        out.add(new CrowdingDto.Segment(
+                network.lineCodes()[line],
+                network.stationIds()[network.lineStops()[line][from]],
+                network.stationIds()[network.lineStops()[line][to]],
+                load,
+                capacity,
+                ratio,
+                CrowdingModel.level(ratio)
+        ));
+    }
+}
@@ -0,0 +1,85 @@
+package com.metro.vigo.backend.journey;
+
+import java.time.Instant;
+
+/**
+ * Result of one demand assignment: load per directed line segment plus boardings and alightings per station.
+ *
+ * Segment {@code p} of a line joins stop positions p and p+1. Each line owns two blocks of {@code stops}
+ * slots starting at {@code offset[line]}: forward (p to p+1), then backward (p+1 to p). The last slot of
+ * each block is unused, which keeps ride ranges simple to accumulate.
+ */
+public final class CrowdingModel {
+
+    static final double MEDIUM = 0.5;
+    static final double HIGH = 0.85;
+
+    final TransitIndex network;
+    final Instant departure;
+    final long totalTrips;
+    final long assignedTrips;
+    final double elapsedMs;
+    final int[] offset;
+    final long[] load;
+    final long[] boardings;
+    final long[] alightings;
+    private final double vehicleCapacity;
+
+    CrowdingModel(TransitIndex network, Instant departure, long totalTrips, long assignedTrips, double elapsedMs,
+                  int[] offset, long[] load, long[] boardings, long[] alightings, double vehicleCapacity) {
+        this.network = network;
+        this.departure = departure;
+        this.totalTrips = totalTrips;
+        this.assignedTrips = assignedTrips;
+        this.elapsedMs = elapsedMs;
+        this.offset = offset;
+        this.load = load;
+        this.boardings = boardings;
+        this.alightings = alightings;
+        this.vehicleCapacity = vehicleCapacity;
+    }
+
+    public long totalTrips() {
+        return totalTrips;
+    }
+
+    public long assignedTrips() {
+        return assignedTrips;
+    }
+
+    /** Slot layout for a network; the returned array has one extra entry holding the total size. */
+    static int[] offsets(TransitIndex network) {
+        int[] offset = new int[network.lineCount() + 1];
+        for (int l = 0; l < network.lineCount(); l++) {
+            offset[l + 1] = offset[l] + 2 * network.lineStops()[l].length;
+        }
+        return offset;
+    }
+
+    /** Slot of the directed segment leaving stop position {@code pos} towards {@code pos + 1} or {@code pos - 1}. */
+    int slot(int line, int pos, boolean forward) {
+        int stops = network.lineStops()[line].length;
+        return forward ? offset[line] + pos : offset[line] + stops + pos - 1;
+    }
+
+    /** Trips per hour one line can carry at its modelled frequency. */
+    double capacity(int line) {
+        return 60.0 / TravelModel.headwayMinutes(network.lineCodes()[line]) * vehicleCapacity;
+    }
+
+    /** Highest load/capacity over the segments ridden from {@code fromPos} to {@code toPos}. */
+    double maxRatio(int line, int fromPos, int toPos) {
+        boolean forward = toPos > fromPos;
+        long max = 0;
+        for (int p = fromPos; p != toPos; p += forward ? 1 : -1) {
+            max = Math.max(max, load[slot(line, p, forward)]);
+        }
+        return max / capacity(line);
+    }
+
+    static String level(double ratio) {
+        if (ratio >= HIGH) return "HIGH";
+        if (ratio >= MEDIUM) return "MEDIUM";
+        return "LOW";
+    }
+}
@@ -0,0 +1,241 @@
+package com.metro.vigo.backend.journey;
+
+import com.metro.vigo.backend.api.ConflictException;
+import com.metro.vigo.backend.api.NotFoundException;
+import com.metro.vigo.backend.api.dto.CrowdingDemandDto;
+import com.metro.vigo.backend.metrics.LatencyHistogram;
+import com.metro.vigo.backend.metrics.MetricsRegistry;
+import com.metro.vigo.backend.network.NetworkSnapshot;
+import com.metro.vigo.backend.network.NetworkSnapshotService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * Assigns an origin-destination demand matrix to the network and keeps the latest result for crowding levels.
+ *
+ * Demand is grouped by origin, so each origin costs one {@link OneToAllSearch}; every destination's trips are
+ * then traced back along the search's parent pointers. Rides are added to per-task difference arrays (two
+ * writes per ride, whatever its length) that are merged into shared atomic counters once per task and
+ * prefix-summed at the end.
+ */
+@Service
+public class CrowdingService {
+
+    private static final int MAX_TRANSFERS = 4;
+    private static final int DEFAULT_TRANSFERS = 2;
+
+    private final NetworkSnapshotService snapshots;
+    private final ForkJoinPool pool;
+    private final double vehicleCapacity;
+    private final ReentrantLock running = new ReentrantLock();
+    private final AtomicReference<CrowdingModel> latest = new AtomicReference<>();
+    private final LatencyHistogram timer;
+
+    public CrowdingService(
+            NetworkSnapshotService snapshots,
+            MetricsRegistry metrics,
+            @Value("${metro.crowding.parallelism:0}") int parallelism,
+            @Value("${metro.crowding.vehicle-capacity:600}") double vehicleCapacity
+    ) {
+        this.snapshots = snapshots;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.vehicleCapacity = vehicleCapacity;
+        this.timer = metrics.timer("crowding_assignment");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public CrowdingModel assign(List<CrowdingDemandDto.Flow> flows, Instant when, Integer maxTransfers) {
+        if (flows == null || flows.isEmpty()) {
+            throw new IllegalArgumentException("flows must not be empty");
+        }
+        int transfers = maxTransfers == null ? DEFAULT_TRANSFERS : maxTransfers;
+        if (transfers < 0 || transfers > MAX_TRANSFERS) {
+            throw new IllegalArgumentException("maxTransfers must be between 0 and " + MAX_TRANSFERS);
+        }
+        if (!running.tryLock()) {
+            throw new ConflictException("A crowding assignment is already running");
+        }
+        long start = System.nanoTime();
+        try {
+            var snapshot = snapshots.current();
+            var network = TransitIndex.of(snapshot);
+            int n = network.stationCount();
+
+            // Demand as CSR by origin: destinations and trips of origin o at [first[o], first[o + 1])
+            int[] first = new int[n + 1];
+            int[] fromIdx = new int[flows.size()];
+            long total = 0;
+            for (int i = 0; i < flows.size(); i++) {
+                var flow = flows.get(i);
+                if (flow.trips() < 0) throw new IllegalArgumentException("trips must not be negative");
+                fromIdx[i] = index(snapshot, flow.from());
+                first[fromIdx[i] + 1]++;
+                total += flow.trips();
+            }
+            for (int o = 0; o < n; o++) first[o + 1] += first[o];
+            int[] to = new int[flows.size()];
+            long[] trips = new long[flows.size()];
+            int[] fill = first.clone();
+            for (int i = 0; i < flows.size(); i++) {
+                int at = fill[fromIdx[i]]++;
+                to[at] = index(snapshot, flows.get(i).to());
+                trips[at] = flows.get(i).trips();
+            }
+
+            int[] origins = IntStream.range(0, n).filter(o -> first[o + 1] > first[o]).toArray();
+            int[] offset = CrowdingModel.offsets(network);
+            var job = new Job(network, first, to, trips, when.getEpochSecond() / 60, transfers, offset);
+            int grain = Math.max(1, origins.length / (pool.getParallelism() * 8));
+            pool.invoke(new Origins(job, origins, 0, origins.length, grain));
+
+            long[] load = toArray(job.load());
+            // Undo the difference encoding, one block per line direction
+            for (int l = 0; l < network.lineCount(); l++) {
+                int stops = network.lineStops()[l].length;
+                if (stops == 0) continue;
+                for (int block = offset[l]; block < offset[l + 1]; block += stops) {
+                    for (int p = block + 1; p < block + stops; p++) load[p] += load[p - 1];
+                }
+            }
+
+            var model = new CrowdingModel(network, when, total, job.assigned().sum(), (System.nanoTime() - start) / 1e6,
+                    offset, load, toArray(job.boardings()), toArray(job.alightings()), vehicleCapacity);
+            latest.set(model);
+            return model;
+        } finally {
+            timer.recordSince(start);
+            running.unlock();
+        }
+    }
+
+    /** The last assignment, if it was made on the snapshot currently served. */
+    public CrowdingModel latest() {
+        var model = latest.get();
+        if (model == null || model.network.snapshot().version() != snapshots.current().version()) {
+            throw new NotFoundException("No crowding assignment for the current network");
+        }
+        return model;
+    }
+
+    /** LOW / MEDIUM / HIGH for riding a line between two stop positions, or null without a current assignment. */
+    public String level(NetworkSnapshot snapshot, long lineId, int fromPos, int toPos) {
+        var model = latest.get();
+        if (model == null || model.network.snapshot().version() != snapshot.version()) return null;
+        int line = model.network.lineIndex(lineId);
+        if (line < 0) return null;
+        return CrowdingModel.level(model.maxRatio(line, fromPos, toPos));
+    }
+
+    private static int index(NetworkSnapshot snapshot, long stationId) {
+        int index = snapshot.stationIndex(stationId);
+        if (index < 0) throw new NotFoundException("Station not found: " + stationId);
+        return index;
+    }
+
+    private static long[] toArray(AtomicLongArray array) {
+        long[] result = new long[array.length()];
+        for (int i = 0; i < result.length; i++) result[i] = array.get(i);
+        return result;
+    }
+
+    /** Shared inputs and accumulators of one assignment. */
+    private record Job(TransitIndex network, int[] first, int[] to, long[] trips, long minute, int maxTransfers,
+                       int[] offset, AtomicLongArray load, AtomicLongArray boardings, AtomicLongArray alightings,
+                       LongAdder assigned) {
+
+        Job(TransitIndex network, int[] first, int[] to, long[] trips, long minute, int maxTransfers, int[] offset) {
+            this(network, first, to, trips, minute, maxTransfers, offset,
+                    new AtomicLongArray(offset[offset.length - 1]),
+                    new AtomicLongArray(network.stationCount()),
+                    new AtomicLongArray(network.stationCount()),
+                    new LongAdder());
+        }
+    }
+
+    private static final class Origins extends RecursiveAction {
+        private final Job job;
+        private final int[] origins;
+        private final int lo;
+        private final int hi;
+        private final int grain;
+
+        Origins(Job job, int[] origins, int lo, int hi, int grain) {
+            this.job = job;
+            this.origins = origins;
+            this.lo = lo;
+            this.hi = hi;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > grain) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Origins(job, origins, lo, mid, grain), new Origins(job, origins, mid, hi, grain));
+                return;
+            }
+
+            var network = job.network();
+            var search = new OneToAllSearch(network);
+            long[] load = new long[job.load().length()];
+            long[] boardings = new long[network.stationCount()];
+            long[] alightings = new long[network.stationCount()];
+            long assigned = 0;
+
+            for (int i = lo; i < hi; i++) {
+                int origin = origins[i];
+                search.run(origin, job.minute(), job.maxTransfers());
+                for (int f = job.first()[origin]; f < job.first()[origin + 1]; f++) {
+                    int d = job.to()[f];
+                    long t = job.trips()[f];
+                    if (d == origin) {
+                        assigned += t;
+                        continue;
+                    }
+                    if (search.best[d] >= OneToAllSearch.INF || t == 0) continue;
+
+                    // Walk the parent pointers back to the origin, one ride per step
+                    int s = d;
+                    for (int ride = 0; s != origin && ride <= job.maxTransfers(); ride++) {
+                        int line = search.viaLine[s];
+                        int[] stops = network.lineStops()[line];
+                        int a = search.viaBoardPos[s], b = search.viaAlightPos[s];
+                        int base = job.offset()[line] + (a < b ? 0 : stops.length);
+                        load[base + Math.min(a, b)] += t;
+                        load[base + Math.max(a, b)] -= t;
+                        boardings[stops[a]] += t;
+                        alightings[stops[b]] += t;
+                        s = search.viaPrev[s];
+                    }
+                    assigned += t;
+                }
+            }
+
+            merge(load, job.load());
+            merge(boardings, job.boardings());
+            merge(alightings, job.alightings());
+            job.assigned().add(assigned);
+        }
+
+        private static void merge(long[] local, AtomicLongArray shared) {
+            for (int i = 0; i < local.length; i++) {
+                if (local[i] != 0) shared.addAndGet(i, local[i]);
+            }
+        }
+    }
+}
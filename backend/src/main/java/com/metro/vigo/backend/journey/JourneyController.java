@@ -1,8 +1,15 @@
 package com.metro.vigo.backend.journey;
 
 import com.metro.vigo.backend.api.dto.JourneyPlanDto;
+import com.metro.vigo.backend.api.dto.JourneyProfileDto;
+import com.metro.vigo.backend.api.dto.TravelTimeMatrixRequestDto;
+import com.metro.vigo.backend.concurrency.SnapshotOnly;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
 import java.time.Instant;
 
 @RestController
@@ -11,21 +18,58 @@ import java.time.Instant;
 public class JourneyController {
 
     private final JourneyPlannerService journeyPlannerService;
+    private final JourneyProfileService profileService;
+    private final TravelTimeMatrixService matrixService;
 
-    public JourneyController(JourneyPlannerService journeyPlannerService) {
+    public JourneyController(
+            JourneyPlannerService journeyPlannerService,
+            JourneyProfileService profileService,
+            TravelTimeMatrixService matrixService
+    ) {
         this.journeyPlannerService = journeyPlannerService;
+        this.profileService = profileService;
+        this.matrixService = matrixService;
     }
 
+    @SnapshotOnly
     @GetMapping("/journey")
     public JourneyPlanDto plan(
             @RequestParam("from") long from,
             @RequestParam("to") long to,
             @RequestParam(value = "datetime", required = false) String datetime
     ) {
-        Instant when = (datetime == null || datetime.isBlank())
+        return journeyPlannerService.plan(from, to, parseWhen(datetime));
+    }
+
+    // Best journeys leaving between start and end (default: the next hour)
+    @SnapshotOnly
+    @GetMapping("/journey/profile")
+    public JourneyProfileDto profile(
+            @RequestParam("from") long from,
+            @RequestParam("to") long to,
+            @RequestParam(value = "start", required = false) String start,
+            @RequestParam(value = "end", required = false) String end,
+            @RequestParam(value = "maxTransfers", required = false) Integer maxTransfers
+    ) {
+        Instant windowStart = parseWhen(start);
+        Instant windowEnd = (end == null || end.isBlank()) ? windowStart.plus(Duration.ofHours(1)) : Instant.parse(end);
+        return profileService.profile(from, to, windowStart, windowEnd, maxTransfers);
+    }
+
+    // Computed up front (errors still map to 4xx), then written row by row
+    @SnapshotOnly
+    @PostMapping("/journey/matrix")
+    public ResponseEntity<StreamingResponseBody> matrix(@RequestBody TravelTimeMatrixRequestDto request) {
+        var matrix = matrixService.compute(
+                request.origins(), request.destinations(), parseWhen(request.datetime()), request.maxTransfers());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(matrix::writeJson);
+    }
+
+    private static Instant parseWhen(String datetime) {
+        return (datetime == null || datetime.isBlank())
                 ? Instant.now()
                 : Instant.parse(datetime);
-
-        return journeyPlannerService.plan(from, to, when);
     }
 }
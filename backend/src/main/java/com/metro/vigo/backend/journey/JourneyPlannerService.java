@@ -3,37 +3,45 @@ package com.metro.vigo.backend.journey;
 import com.metro.vigo.backend.api.dto.JourneyLegDto;
 import com.metro.vigo.backend.api.dto.JourneyPlanDto;
 import com.metro.vigo.backend.api.dto.LineDetailDto;
-import com.metro.vigo.backend.api.Mapper;
 import com.metro.vigo.backend.api.NotFoundException;
-import com.metro.vigo.backend.line.Line;
-import com.metro.vigo.backend.line.LineRepository;
-import com.metro.vigo.backend.station.Station;
-import com.metro.vigo.backend.station.StationRepository;
+import com.metro.vigo.backend.concurrency.SingleFlight;
+import com.metro.vigo.backend.jfr.JourneyPlannedEvent;
+import com.metro.vigo.backend.jfr.RepositoryCalls;
+import com.metro.vigo.backend.metrics.LatencyHistogram;
+import com.metro.vigo.backend.metrics.MetricsRegistry;
+import com.metro.vigo.backend.network.NetworkSnapshot;
+import com.metro.vigo.backend.network.NetworkSnapshotService;
 import org.springframework.stereotype.Service;
-import com.metro.vigo.backend.network.LineStationRepository;
 import com.metro.vigo.backend.api.dto.StationDto;
-import com.metro.vigo.backend.network.LineStation;
 
 
 import java.time.Instant;
 import java.util.*;
+import java.util.function.Supplier;
 
 @Service
 public class JourneyPlannerService {
 
-  private final StationRepository stationRepository;
-  private final LineRepository lineRepository;
-  private final LineStationRepository lineStationRepository;
+  private final NetworkSnapshotService snapshots;
+  private final CrowdingService crowding;
 
+  // Per-phase timings: snapshot fetch, route search, DTO build
+  private final LatencyHistogram snapshotPhase;
+  private final LatencyHistogram searchPhase;
+  private final LatencyHistogram buildPhase;
 
-  public JourneyPlannerService(
-          StationRepository stationRepository,
-          LineRepository lineRepository,
-          LineStationRepository lineStationRepository
-  ) {
-    this.stationRepository = stationRepository;
-    this.lineRepository = lineRepository;
-    this.lineStationRepository = lineStationRepository;
+  // Plans only depend on the pair and the minute, so a burst of identical requests shares one search
+  private record PlanKey(long fromId, long toId, long minute) {}
+  private final SingleFlight<PlanKey, JourneyPlanDto> inFlight;
+
+
+  public JourneyPlannerService(NetworkSnapshotService snapshots, CrowdingService crowding, MetricsRegistry metrics) {
+    this.snapshots = snapshots;
+    this.crowding = crowding;
+    this.snapshotPhase = metrics.timer("journey_planner_phase", "phase", "snapshot");
+    this.searchPhase = metrics.timer("journey_planner_phase", "phase", "search");
+    this.buildPhase = metrics.timer("journey_planner_phase", "phase", "build");
+    this.inFlight = new SingleFlight<>("journey_plan", metrics);
   }
 
 
@@ -44,113 +52,166 @@ public class JourneyPlannerService {
 
   /** New: deterministic waits based on time */
   public JourneyPlanDto plan(long fromId, long toId, Instant when) {
+    return inFlight.execute(new PlanKey(fromId, toId, when.getEpochSecond() / 60), () -> traced(fromId, toId, when));
+  }
+
+  private JourneyPlanDto traced(long fromId, long toId, Instant when) {
+    var event = new JourneyPlannedEvent();
+    int callsBefore = RepositoryCalls.count();
+    event.begin();
+    JourneyPlanDto plan = null;
+    try {
+      plan = search(fromId, toId, when);
+      return plan;
+    } finally {
+      if (event.shouldCommit()) {
+        event.fromStationId = fromId;
+        event.toStationId = toId;
+        event.found = plan != null;
+        event.transfers = plan != null ? plan.transfers() : -1;
+        event.totalMinutes = plan != null ? plan.totalDurationMin() : -1;
+        event.repositoryCalls = RepositoryCalls.count() - callsBefore;
+        event.commit();
+      }
+    }
+  }
+
+  private JourneyPlanDto search(long fromId, long toId, Instant when) {
     if (fromId == toId) {
       return new JourneyPlanDto(0, 0, List.of());
     }
 
-    Station from = stationRepository.findById(fromId)
-            .orElseThrow(() -> new NotFoundException("From station not found: " + fromId));
-    Station to = stationRepository.findById(toId)
-            .orElseThrow(() -> new NotFoundException("To station not found: " + toId));
+    long start = System.nanoTime();
+    var snapshot = snapshots.current();
 
-    List<Line> lines = lineRepository.findAll();
-    List<LineDetailDto> details = lines.stream().map(this::toDetailDto).toList();
+    StationDto from = snapshot.station(fromId);
+    if (from == null) throw new NotFoundException("From station not found: " + fromId);
+    StationDto to = snapshot.station(toId);
+    if (to == null) throw new NotFoundException("To station not found: " + toId);
+
+    List<LineDetailDto> fromLines = snapshot.linesAt(fromId).stream().map(l -> snapshot.lineDetail(l.id())).toList();
+    List<LineDetailDto> toLines = snapshot.linesAt(toId).stream().map(l -> snapshot.lineDetail(l.id())).toList();
+
+    long searchStart = System.nanoTime();
+    snapshotPhase.recordNanos(searchStart - start);
 
     // 1) Direct line
-    for (LineDetailDto line : details) {
-      int a = indexOf(line, fromId);
-      int b = indexOf(line, toId);
-      if (a != -1 && b != -1) {
-        return direct(from, to, line, a, b, when);
+    for (LineDetailDto line : fromLines) {
+      int a = snapshot.stopPosition(line.id(), fromId);
+      int b = snapshot.stopPosition(line.id(), toId);
+      if (b != -1) {
+        return build(searchStart, () -> direct(snapshot, from, to, line, a, b, when));
       }
     }
 
-    // 2) One transfer
-    for (LineDetailDto l1 : details) {
-      int a = indexOf(l1, fromId);
-      if (a == -1) continue;
-
-      for (LineDetailDto l2 : details) {
+    // 2) One transfer, at a shared station or by walking to a nearby one; least ride + walk time wins
+    Transfer best = null;
+    for (LineDetailDto l1 : fromLines) {
+      int a = snapshot.stopPosition(l1.id(), fromId);
+      for (LineDetailDto l2 : toLines) {
         if (Objects.equals(l2.id(), l1.id())) continue;
-
-        int b = indexOf(l2, toId);
-        if (b == -1) continue;
-
-        Long interchangeId = findInterchange(l1, l2);
-        if (interchangeId == null) continue;
-
-        Station x = stationRepository.findById(interchangeId)
-                .orElseThrow(() -> new NotFoundException("Interchange station not found: " + interchangeId));
-
-        int ax = indexOf(l1, interchangeId);
-        int xb = indexOf(l2, interchangeId);
-        if (ax == -1 || xb == -1) continue;
-
-        return oneTransfer(from, x, to, l1, l2, a, ax, xb, b, when);
+        best = bestTransfer(snapshot, l1, a, l2, snapshot.stopPosition(l2.id(), toId), best);
       }
     }
+    if (best != null) {
+      var transfer = best;
+      return build(searchStart, () -> oneTransfer(snapshot, from, to, transfer, when));
+    }
+
+    searchPhase.recordSince(searchStart);
 
     // No route
-    throw new NotFoundException("No route found from " + from.getName() + " to " + to.getName());
+    throw new NotFoundException("No route found from " + from.name() + " to " + to.name());
   }
 
-  private int indexOf(LineDetailDto line, long stationId) {
-    for (int i = 0; i < line.stations().size(); i++) {
-      if (Objects.equals(line.stations().get(i).id(), stationId)) return i;
-    }
-    return -1;
+  private JourneyPlanDto build(long searchStart, Supplier<JourneyPlanDto> builder) {
+    long buildStart = System.nanoTime();
+    searchPhase.recordNanos(buildStart - searchStart);
+    var plan = builder.get();
+    buildPhase.recordSince(buildStart);
+    return plan;
   }
 
-  private Long findInterchange(LineDetailDto a, LineDetailDto b) {
-    Set<Long> ids = new HashSet<>();
-    a.stations().forEach(s -> ids.add(s.id()));
-    for (var s : b.stations()) {
-      if (ids.contains(s.id())) return s.id();
+  /** Leave l1 at {@code x} (stop {@code ax}), walk {@code walkMin} to {@code y}, board l2 at stop {@code yb}. */
+  private record Transfer(LineDetailDto l1, LineDetailDto l2, int fromIdx, int ax, int yb, int toIdx,
+                          StationDto x, StationDto y, int walkMin, int score) {}
+
+  private Transfer bestTransfer(NetworkSnapshot snapshot, LineDetailDto l1, int a, LineDetailDto l2, int b, Transfer best) {
+    var footpaths = snapshot.footpaths();
+    var stations = snapshot.stations();
+
+    for (int ax = 0; ax < l1.stations().size(); ax++) {
+      if (ax == a) continue;
+      StationDto x = l1.stations().get(ax);
+      int ride1 = TravelModel.rideMinutes(Math.abs(ax - a));
+      if (best != null && ride1 >= best.score()) continue;
+
+      // Same-station interchange
+      int xb = snapshot.stopPosition(l2.id(), x.id());
+      if (xb != -1 && xb != b) {
+        best = better(best, new Transfer(l1, l2, a, ax, xb, b, x, x, TravelModel.TRANSFER_WALK,
+                ride1 + TravelModel.TRANSFER_WALK + TravelModel.rideMinutes(Math.abs(b - xb))));
+      }
+
+      // Street walk to a nearby station on l2 (precomputed per snapshot, no geometry here)
+      int xi = snapshot.stationIndex(x.id());
+      if (xi < 0) continue;
+      for (int e = footpaths.start(xi); e < footpaths.end(xi); e++) {
+        StationDto y = stations.get(footpaths.target(e));
+        int yb = snapshot.stopPosition(l2.id(), y.id());
+        if (yb == -1 || yb == b) continue;
+        int walk = footpaths.minutes(e) + TravelModel.STATION_ACCESS;
+        best = better(best, new Transfer(l1, l2, a, ax, yb, b, x, y, walk,
+                ride1 + walk + TravelModel.rideMinutes(Math.abs(b - yb))));
+      }
     }
-    return null;
+    return best;
+  }
+
+  private static Transfer better(Transfer current, Transfer candidate) {
+    return current == null || candidate.score() < current.score() ? candidate : current;
   }
 
-  private JourneyPlanDto direct(Station from, Station to, LineDetailDto line, int fromIdx, int toIdx, Instant when) {
-    int walk1 = 3, walk2 = 2;
+  private JourneyPlanDto direct(NetworkSnapshot snapshot, StationDto from, StationDto to, LineDetailDto line, int fromIdx, int toIdx, Instant when) {
+    int walk1 = TravelModel.ACCESS_WALK, walk2 = TravelModel.EGRESS_WALK;
 
     int stops = Math.abs(toIdx - fromIdx);
-    int ride = estimateRideMinutes(stops);
+    int ride = TravelModel.rideMinutes(stops);
 
     // Wait depends on line frequency + time (stable per-minute)
-    int wait = estimateWaitMinutes(line.code(), from.getId(), to.getId(), when);
+    int wait = TravelModel.waitMinutes(line.code(), from.id(), to.id(), when);
 
     String direction = (toIdx > fromIdx)
             ? line.stations().get(line.stations().size() - 1).name()
             : line.stations().get(0).name();
 
     var legs = List.of(
-            new JourneyLegDto("WALK", null, "Street", from.getName(), walk1, null, null, null),
-            new JourneyLegDto("METRO", line.code(), from.getName(), to.getName(), ride, direction, stops, wait),
-            new JourneyLegDto("WALK", null, to.getName(), "Street", walk2, null, null, null)
+            new JourneyLegDto("WALK", null, "Street", from.name(), walk1, null, null, null, null),
+            new JourneyLegDto("METRO", line.code(), from.name(), to.name(), ride, direction, stops, wait,
+                    crowding.level(snapshot, line.id(), fromIdx, toIdx)),
+            new JourneyLegDto("WALK", null, to.name(), "Street", walk2, null, null, null, null)
     );
 
     int total = walk1 + wait + ride + walk2;
     return new JourneyPlanDto(total, 0, legs);
   }
 
-  private JourneyPlanDto oneTransfer(
-          Station from, Station x, Station to,
-          LineDetailDto l1, LineDetailDto l2,
-          int fromIdx, int xOnL1, int xOnL2, int toIdx,
-          Instant when
-  ) {
-    int walk1 = 3, walk2 = 2;
+  private JourneyPlanDto oneTransfer(NetworkSnapshot snapshot, StationDto from, StationDto to, Transfer t, Instant when) {
+    LineDetailDto l1 = t.l1(), l2 = t.l2();
+    StationDto x = t.x(), y = t.y();
+    int fromIdx = t.fromIdx(), xOnL1 = t.ax(), xOnL2 = t.yb(), toIdx = t.toIdx();
+    int walk1 = TravelModel.ACCESS_WALK, walk2 = TravelModel.EGRESS_WALK;
 
     int stops1 = Math.abs(xOnL1 - fromIdx);
     int stops2 = Math.abs(toIdx - xOnL2);
 
-    int ride1 = estimateRideMinutes(stops1);
-    int ride2 = estimateRideMinutes(stops2);
+    int ride1 = TravelModel.rideMinutes(stops1);
+    int ride2 = TravelModel.rideMinutes(stops2);
 
-    int wait1 = estimateWaitMinutes(l1.code(), from.getId(), x.getId(), when);
-    // Transfer time: interchange walking + second-platform wait
-    int transferWalk = 3;
-    int wait2 = estimateWaitMinutes(l2.code(), x.getId(), to.getId(), when.plusSeconds((walk1 + wait1 + ride1 + transferWalk) * 60L));
+    int wait1 = TravelModel.waitMinutes(l1.code(), from.id(), x.id(), when);
+    // Transfer time: interchange (or street) walking + second-platform wait
+    int transferWalk = t.walkMin();
+    int wait2 = TravelModel.waitMinutes(l2.code(), y.id(), to.id(), when.plusSeconds((walk1 + wait1 + ride1 + transferWalk) * 60L));
 
     String dir1 = (xOnL1 > fromIdx)
             ? l1.stations().get(l1.stations().size() - 1).name()
@@ -161,59 +222,16 @@ public class JourneyPlannerService {
             : l2.stations().get(0).name();
 
     var legs = List.of(
-            new JourneyLegDto("WALK", null, "Street", from.getName(), walk1, null, null, null),
-            new JourneyLegDto("METRO", l1.code(), from.getName(), x.getName(), ride1, dir1, stops1, wait1),
-            new JourneyLegDto("WALK", null, x.getName(), x.getName() + " (transfer)", transferWalk, null, null, null),
-            new JourneyLegDto("METRO", l2.code(), x.getName(), to.getName(), ride2, dir2, stops2, wait2),
-            new JourneyLegDto("WALK", null, to.getName(), "Street", walk2, null, null, null)
+            new JourneyLegDto("WALK", null, "Street", from.name(), walk1, null, null, null, null),
+            new JourneyLegDto("METRO", l1.code(), from.name(), x.name(), ride1, dir1, stops1, wait1,
+                    crowding.level(snapshot, l1.id(), fromIdx, xOnL1)),
+            new JourneyLegDto("WALK", null, x.name(), x == y ? x.name() + " (transfer)" : y.name(), transferWalk, null, null, null, null),
+            new JourneyLegDto("METRO", l2.code(), y.name(), to.name(), ride2, dir2, stops2, wait2,
+                    crowding.level(snapshot, l2.id(), xOnL2, toIdx)),
+            new JourneyLegDto("WALK", null, to.name(), "Street", walk2, null, null, null, null)
     );
 
     int total = walk1 + wait1 + ride1 + transferWalk + wait2 + ride2 + walk2;
     return new JourneyPlanDto(total, 1, legs);
   }
-
-  /** Ride time per stop: dwell + travel. */
-  private int estimateRideMinutes(int stops) {
-    if (stops <= 0) return 2;
-    // ~2 min for first hop, then ~2–3 min per additional stop
-    return Math.max(2, 2 + (stops * 2));
-  }
-
-  /** Frequency model + stable per-minute randomness */
-  private int estimateWaitMinutes(String lineCode, long fromStationId, long toStationId, Instant when) {
-    int freq = switch (lineCode) {
-      case "M7", "M8" -> 15; // express/special
-      default -> 6;          // city lines
-    };
-
-    long minuteBucket = when.getEpochSecond() / 60;
-    long seed = minuteBucket
-            ^ (fromStationId * 31L)
-            ^ (toStationId * 17L)
-            ^ (lineCode.hashCode() * 13L);
-
-    Random r = new Random(seed);
-    // Wait between 0..(freq-1), but at least 1 min to feel realistic
-    return Math.max(1, r.nextInt(freq));
-  }
-
-  private LineDetailDto toDetailDto(Line line) {
-    var links = lineStationRepository.findByLineIdWithStationsOrdered(line.getId());
-
-    var stations = links.stream()
-            .map(ls -> ls.getStation())
-            .map(Mapper::toStationDto)
-            .toList();
-
-    // OJO: esta firma debe coincidir con tu LineDetailDto record.
-    // Si tu LineDetailDto incluye otros campos, dímelo y lo ajusto.
-    return new LineDetailDto(
-            line.getId(),
-            line.getCode(),
-            line.getName(),
-            line.getColorHex(),
-            line.getStatus(),
-            stations
-    );
-  }
 }
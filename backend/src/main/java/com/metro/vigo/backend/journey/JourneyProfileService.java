@@ -0,0 +1,265 @@
+package com.metro.vigo.backend.journey;
+
+import com.metro.vigo.backend.api.NotFoundException;
+import com.metro.vigo.backend.api.dto.JourneyProfileDto;
+import com.metro.vigo.backend.metrics.LatencyHistogram;
+import com.metro.vigo.backend.metrics.MetricsRegistry;
+import com.metro.vigo.backend.network.NetworkSnapshotService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Every non-dominated journey departing within a time window, in one profile pass.
+ *
+ * Departure minutes are swept from the end of the window backwards (rRAPTOR). Arrival labels are
+ * absolute and kept across departures: leaving earlier you can always wait and take a later journey,
+ * so a later departure's labels bound the earlier ones and each step only explores stations it improves.
+ * A departure is reported when it reaches the destination strictly earlier than any later one.
+ */
+@Service
+public class JourneyProfileService {
+
+    private static final int INF = Integer.MAX_VALUE / 2;
+    private static final int MAX_TRANSFERS = 4;
+    private static final int DEFAULT_TRANSFERS = 2;
+
+    private final NetworkSnapshotService snapshots;
+    private final Duration maxWindow;
+    private final LatencyHistogram timer;
+
+    public JourneyProfileService(
+            NetworkSnapshotService snapshots,
+            MetricsRegistry metrics,
+            @Value("${metro.profile.max-window:PT3H}") Duration maxWindow
+    ) {
+        this.snapshots = snapshots;
+        this.maxWindow = maxWindow;
+        this.timer = metrics.timer("journey_profile");
+    }
+
+    public JourneyProfileDto profile(long fromId, long toId, Instant start, Instant end, Integer maxTransfers) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("end must not be before start");
+        }
+        if (Duration.between(start, end).compareTo(maxWindow) > 0) {
+            throw new IllegalArgumentException("Window longer than " + maxWindow);
+        }
+        int transfers = maxTransfers == null ? DEFAULT_TRANSFERS : maxTransfers;
+        if (transfers < 0 || transfers > MAX_TRANSFERS) {
+            throw new IllegalArgumentException("maxTransfers must be between 0 and " + MAX_TRANSFERS);
+        }
+
+        long began = System.nanoTime();
+        try {
+            var snapshot = snapshots.current();
+            int from = snapshot.stationIndex(fromId);
+            if (from < 0) throw new NotFoundException("From station not found: " + fromId);
+            int to = snapshot.stationIndex(toId);
+            if (to < 0) throw new NotFoundException("To station not found: " + toId);
+
+            long startMinute = start.getEpochSecond() / 60;
+            int window = (int) (end.getEpochSecond() / 60 - startMinute);
+
+            List<JourneyProfileDto.Option> options = new ArrayList<>();
+            if (from == to) {
+                options.add(new JourneyProfileDto.Option(start, start, 0, 0, List.of()));
+            } else {
+                var search = new ProfileSearch(TransitIndex.of(snapshot), from, to, startMinute, transfers);
+                for (int m = window; m >= 0; m--) {
+                    var option = search.depart(m);
+                    if (option != null) options.add(option);
+                }
+                Collections.reverse(options);
+            }
+            return new JourneyProfileDto(fromId, toId, start, end, options);
+        } finally {
+            timer.recordSince(began);
+        }
+    }
+
+    /** Labels per round (round k = k transfers), in minutes from the start of the window. */
+    private static final class ProfileSearch {
+        private final TransitIndex network;
+        private final int origin;
+        private final int target;
+        private final long startMinute;
+        private final int rounds;
+
+        private final int[][] arrival;     // earliest vehicle arrival with at most k transfers
+        private final int[][] viaLine;     // line ridden into the station for that label
+        private final int[][] viaBoard;    // station where that line was boarded
+        private final int[][] viaPrev;     // station the previous ride ended at (before walking to viaBoard)
+
+        private final int[] ready;
+        private final int[] readyFrom;
+        private final int[] marked;
+        private final int[] improved;
+        private final int[] improvedAt;
+        private final int[] improvedLine;
+        private final int[] improvedBoard;
+        private final int[] lines;
+        private final int[] lineStamp;
+        private int markedCount;
+        private int improvedCount;
+        private int stamp;
+
+        ProfileSearch(TransitIndex network, int origin, int target, long startMinute, int maxTransfers) {
+            this.network = network;
+            this.origin = origin;
+            this.target = target;
+            this.startMinute = startMinute;
+            this.rounds = maxTransfers + 1;
+
+            int n = network.stationCount();
+            arrival = new int[rounds][n];
+            viaLine = new int[rounds][n];
+            viaBoard = new int[rounds][n];
+            viaPrev = new int[rounds][n];
+            for (int[] a : arrival) Arrays.fill(a, INF);
+
+            ready = new int[n];
+            readyFrom = new int[n];
+            marked = new int[n];
+            improved = new int[n];
+            improvedAt = new int[n];
+            improvedLine = new int[n];
+            improvedBoard = new int[n];
+            Arrays.fill(improvedAt, INF);
+            Arrays.fill(ready, INF);
+            lines = new int[network.lineCount()];
+            lineStamp = new int[network.lineCount()];
+        }
+
+        /** Runs departure minute {@code m}; the journey found, or null if a later departure is as good. */
+        JourneyProfileDto.Option depart(int m) {
+            int before = arrival[rounds - 1][target];
+            markedCount = 0;
+            relax(origin, m + TravelModel.ACCESS_WALK, origin);
+
+            for (int k = 0; k < rounds && markedCount > 0; k++) {
+                int lineCount = 0;
+                stamp++;
+                for (int i = 0; i < markedCount; i++) {
+                    for (int l : network.stationLines()[marked[i]]) {
+                        if (lineStamp[l] != stamp) {
+                            lineStamp[l] = stamp;
+                            lines[lineCount++] = l;
+                        }
+                    }
+                }
+
+                improvedCount = 0;
+                for (int i = 0; i < lineCount; i++) scan(lines[i], k);
+
+                // Commit this round's arrivals, then prepare the boardings of the next one
+                int[] from = new int[improvedCount];
+                for (int i = 0; i < improvedCount; i++) from[i] = readyFrom[improvedBoard[improved[i]]];
+                for (int i = 0; i < markedCount; i++) ready[marked[i]] = INF;
+                markedCount = 0;
+
+                var footpaths = network.footpaths();
+                for (int i = 0; i < improvedCount; i++) {
+                    int s = improved[i];
+                    int t = improvedAt[s];
+                    improvedAt[s] = INF;
+                    // With more transfers allowed the same arrival is still available
+                    for (int j = k; j < rounds && t < arrival[j][s]; j++) {
+                        arrival[j][s] = t;
+                        viaLine[j][s] = improvedLine[s];
+                        viaBoard[j][s] = improvedBoard[s];
+                        viaPrev[j][s] = from[i];
+                    }
+                    relax(s, t + TravelModel.TRANSFER_WALK, s);
+                    for (int e = footpaths.start(s); e < footpaths.end(s); e++) {
+                        relax(footpaths.target(e), t + footpaths.minutes(e) + TravelModel.STATION_ACCESS, s);
+                    }
+                }
+            }
+            for (int i = 0; i < markedCount; i++) ready[marked[i]] = INF;
+
+            int best = arrival[rounds - 1][target];
+            if (best >= before) return null;
+
+            int k = 0;
+            while (arrival[k][target] != best) k++;
+            int arrive = best + TravelModel.EGRESS_WALK;
+            return new JourneyProfileDto.Option(
+                    Instant.ofEpochSecond((startMinute + m) * 60),
+                    Instant.ofEpochSecond((startMinute + arrive) * 60),
+                    arrive - m,
+                    k,
+                    lineCodes(k)
+            );
+        }
+
+        private List<String> lineCodes(int k) {
+            String[] codes = new String[k + 1];
+            int s = target;
+            for (int r = k; r >= 0; r--) {
+                codes[r] = network.lineCodes()[viaLine[r][s]];
+                s = viaPrev[r][s];
+            }
+            return List.of(codes);
+        }
+
+        private void scan(int line, int k) {
+            int[] stops = network.lineStops()[line];
+
+            int base = INF, boardedAt = -1;
+            for (int j = 0; j < stops.length; j++) {
+                int s = stops[j];
+                if (base < INF) arrive(s, base + 2 + 2 * j, line, boardedAt, k);
+                if (ready[s] < INF) {
+                    int b = board(line, s) - 2 * j;
+                    if (b < base) {
+                        base = b;
+                        boardedAt = s;
+                    }
+                }
+            }
+
+            base = INF;
+            boardedAt = -1;
+            for (int j = stops.length - 1; j >= 0; j--) {
+                int s = stops[j];
+                if (base < INF) arrive(s, base + 2 - 2 * j, line, boardedAt, k);
+                if (ready[s] < INF) {
+                    int b = board(line, s) + 2 * j;
+                    if (b < base) {
+                        base = b;
+                        boardedAt = s;
+                    }
+                }
+            }
+        }
+
+        private int board(int line, int station) {
+            int t = ready[station];
+            return t + TravelModel.waitMinutes(network.lineCodes()[line], network.stationIds()[station],
+                    network.lineIds()[line], startMinute + t);
+        }
+
+        private void arrive(int station, int t, int line, int boardedAt, int k) {
+            // Target pruning: nothing reached after the best known arrival can improve it
+            if (t >= arrival[k][station] || t >= improvedAt[station] || t >= arrival[rounds - 1][target]) return;
+            if (improvedAt[station] == INF) improved[improvedCount++] = station;
+            improvedAt[station] = t;
+            improvedLine[station] = line;
+            improvedBoard[station] = boardedAt;
+        }
+
+        private void relax(int station, int t, int from) {
+            if (t >= ready[station]) return;
+            if (ready[station] == INF) marked[markedCount++] = station;
+            ready[station] = t;
+            readyFrom[station] = from;
+        }
+    }
+}
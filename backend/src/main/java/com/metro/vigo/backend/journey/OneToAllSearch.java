@@ -0,0 +1,173 @@
+package com.metro.vigo.backend.journey;
+
+import java.util.Arrays;
+
+/**
+ * Round-based one-to-all search (round k = k transfers) from a single departure; minutes are relative to it.
+ *
+ * Each round scans every line touching a station reached in the previous round, then relaxes same-station
+ * transfers and footpaths. Uses the walk/ride/wait model of {@link TravelModel}, with waits keyed by boarding
+ * station and line since the destination is not known while scanning. Not thread-safe: one per worker,
+ * reused across origins.
+ */
+final class OneToAllSearch {
+
+    static final int INF = Integer.MAX_VALUE / 2;
+
+    private final TransitIndex network;
+    final int[] best;       // earliest arrival on a platform, any round
+    final byte[] round;     // transfers used for best
+
+    // Last ride into each station for best: line, stop positions on it, and the station the walk to the boarding started at
+    final int[] viaLine;
+    final int[] viaBoardPos;
+    final int[] viaAlightPos;
+    final int[] viaPrev;
+
+    private final int[] ready;      // earliest time to start waiting for a vehicle this round
+    private final int[] readyFrom;
+    private final int[] arrived;    // arrivals found in the current round
+    private final int[] arrivedLine;
+    private final int[] arrivedBoardPos;
+    private final int[] arrivedAlightPos;
+    private final int[] arrivedPrev;
+    private final int[] marked;
+    private final int[] improved;
+    private final int[] lines;
+    private final int[] lineStamp;
+    private int markedCount;
+    private int improvedCount;
+    private int stamp;
+
+    OneToAllSearch(TransitIndex network) {
+        this.network = network;
+        int n = network.stationCount();
+        best = new int[n];
+        round = new byte[n];
+        viaLine = new int[n];
+        viaBoardPos = new int[n];
+        viaAlightPos = new int[n];
+        viaPrev = new int[n];
+        ready = new int[n];
+        readyFrom = new int[n];
+        arrived = new int[n];
+        arrivedLine = new int[n];
+        arrivedBoardPos = new int[n];
+        arrivedAlightPos = new int[n];
+        arrivedPrev = new int[n];
+        marked = new int[n];
+        improved = new int[n];
+        lines = new int[network.lineCount()];
+        lineStamp = new int[network.lineCount()];
+    }
+
+    void run(int origin, long minute, int maxTransfers) {
+        Arrays.fill(best, INF);
+        Arrays.fill(ready, INF);
+        Arrays.fill(arrived, INF);
+        markedCount = 0;
+
+        best[origin] = 0;
+        round[origin] = 0;
+        viaLine[origin] = -1;
+        relax(origin, TravelModel.ACCESS_WALK, origin);
+
+        for (int k = 0; k <= maxTransfers && markedCount > 0; k++) {
+            // Lines touching a station reached in the previous round, each once
+            int lineCount = 0;
+            stamp++;
+            for (int i = 0; i < markedCount; i++) {
+                for (int l : network.stationLines()[marked[i]]) {
+                    if (lineStamp[l] != stamp) {
+                        lineStamp[l] = stamp;
+                        lines[lineCount++] = l;
+                    }
+                }
+            }
+
+            improvedCount = 0;
+            for (int i = 0; i < lineCount; i++) scan(lines[i], minute);
+
+            for (int i = 0; i < markedCount; i++) ready[marked[i]] = INF;
+            markedCount = 0;
+
+            var footpaths = network.footpaths();
+            for (int i = 0; i < improvedCount; i++) {
+                int s = improved[i];
+                int t = arrived[s];
+                arrived[s] = INF;
+                if (t >= best[s]) continue;
+                best[s] = t;
+                round[s] = (byte) k;
+                viaLine[s] = arrivedLine[s];
+                viaBoardPos[s] = arrivedBoardPos[s];
+                viaAlightPos[s] = arrivedAlightPos[s];
+                viaPrev[s] = arrivedPrev[s];
+
+                relax(s, t + TravelModel.TRANSFER_WALK, s);
+                for (int e = footpaths.start(s); e < footpaths.end(s); e++) {
+                    relax(footpaths.target(e), t + footpaths.minutes(e) + TravelModel.STATION_ACCESS, s);
+                }
+            }
+        }
+    }
+
+    /**
+     * Both directions of one line. Ride time is 2 + 2 * stops, so the arrival at stop j from a boarding
+     * at stop i is (board - 2i) + 2 + 2j going forward: one running minimum per direction suffices.
+     */
+    private void scan(int line, long minute) {
+        int[] stops = network.lineStops()[line];
+
+        int base = INF, boardPos = -1;
+        for (int j = 0; j < stops.length; j++) {
+            int s = stops[j];
+            if (base < INF) arrive(s, base + 2 + 2 * j, line, boardPos, j);
+            if (ready[s] < INF) {
+                int b = board(line, s, minute) - 2 * j;
+                if (b < base) {
+                    base = b;
+                    boardPos = j;
+                }
+            }
+        }
+
+        base = INF;
+        boardPos = -1;
+        for (int j = stops.length - 1; j >= 0; j--) {
+            int s = stops[j];
+            if (base < INF) arrive(s, base + 2 - 2 * j, line, boardPos, j);
+            if (ready[s] < INF) {
+                int b = board(line, s, minute) + 2 * j;
+                if (b < base) {
+                    base = b;
+                    boardPos = j;
+                }
+            }
+        }
+    }
+
+    private int board(int line, int station, long minute) {
+        int t = ready[station];
+        return t + TravelModel.waitMinutes(network.lineCodes()[line], network.stationIds()[station],
+                network.lineIds()[line], minute + t);
+    }
+
+    private void arrive(int station, int t, int line, int boardPos, int alightPos) {
+        if (t >= best[station] || t >= arrived[station]) return;
+        if (arrived[station] == INF) improved[improvedCount++] = station;
+        arrived[station] = t;
+        arrivedLine[station] = line;
+        arrivedBoardPos[station] = boardPos;
+        arrivedAlightPos[station] = alightPos;
+        // Ready times are fixed while lines are scanned, so the boarding station's source is final here
+        arrivedPrev[station] = readyFrom[network.lineStops()[line][boardPos]];
+    }
+
+    private void relax(int station, int t, int from) {
+        if (t >= ready[station]) return;
+        if (ready[station] == INF) marked[markedCount++] = station;
+        ready[station] = t;
+        readyFrom[station] = from;
+    }
+}
@@ -0,0 +1,79 @@
+package com.metro.vigo.backend.journey;
+
+import com.metro.vigo.backend.api.dto.LineDetailDto;
+import com.metro.vigo.backend.network.Footpaths;
+import com.metro.vigo.backend.network.NetworkSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snapshot flattened to station indices for the round-based searches, shared read-only.
+ * The last one built is kept, so repeated queries on the same snapshot skip the flattening, and a snapshot
+ * patched from it reuses the stop arrays of every line it did not touch.
+ */
+record TransitIndex(NetworkSnapshot snapshot, long[] stationIds, long[] lineIds, String[] lineCodes,
+                    int[][] lineStops, int[][] stationLines, Footpaths footpaths, Map<Long, Integer> lineIndexes) {
+
+    private static volatile TransitIndex last;
+
+    static TransitIndex of(NetworkSnapshot snapshot) {
+        var cached = last;
+        if (cached != null && cached.snapshot() == snapshot) return cached;
+
+        // A patch that kept the station list kept every station index, so unchanged lines map to the same arrays
+        var stations = snapshot.stations();
+        var previous = cached != null && cached.snapshot().stations() == stations ? cached : null;
+        long[] stationIds;
+        if (previous != null) {
+            stationIds = previous.stationIds();
+        } else {
+            stationIds = new long[stations.size()];
+            for (int i = 0; i < stationIds.length; i++) stationIds[i] = stations.get(i).id();
+        }
+
+        List<LineDetailDto> lines = new ArrayList<>(snapshot.lineDetails());
+        long[] lineIds = new long[lines.size()];
+        String[] lineCodes = new String[lines.size()];
+        int[][] lineStops = new int[lines.size()][];
+        Map<Long, Integer> lineIndexes = new HashMap<>();
+        int[] degree = new int[stationIds.length];
+        for (int l = 0; l < lines.size(); l++) {
+            var line = lines.get(l);
+            lineIds[l] = line.id();
+            lineIndexes.put(line.id(), l);
+            lineCodes[l] = line.code();
+            int p = previous != null && previous.snapshot().lineDetail(line.id()) == line ? previous.lineIndex(line.id()) : -1;
+            lineStops[l] = p >= 0
+                    ? previous.lineStops()[p]
+                    : line.stations().stream().mapToInt(s -> snapshot.stationIndex(s.id())).toArray();
+            for (int s : lineStops[l]) degree[s]++;
+        }
+
+        int[][] stationLines = new int[stationIds.length][];
+        for (int s = 0; s < degree.length; s++) stationLines[s] = new int[degree[s]];
+        Arrays.fill(degree, 0);
+        for (int l = 0; l < lineStops.length; l++) {
+            for (int s : lineStops[l]) stationLines[s][degree[s]++] = l;
+        }
+
+        var index = new TransitIndex(snapshot, stationIds, lineIds, lineCodes, lineStops, stationLines, snapshot.footpaths(), lineIndexes);
+        last = index;
+        return index;
+    }
+
+    int stationCount() {
+        return stationIds.length;
+    }
+
+    int lineCount() {
+        return lineIds.length;
+    }
+
+    int lineIndex(long lineId) {
+        return lineIndexes.getOrDefault(lineId, -1);
+    }
+}
@@ -0,0 +1,47 @@
+package com.metro.vigo.backend.journey;
+
+import java.time.Instant;
+import java.util.Random;
+
+/** Walk, ride and wait estimates shared by the journey planner and the travel-time matrix. */
+final class TravelModel {
+
+    // Street to platform at the origin, platform to street at the destination
+    static final int ACCESS_WALK = 3;
+    static final int EGRESS_WALK = 2;
+    // Platform change inside one station; walking to another station adds access time on top of the footpath
+    static final int TRANSFER_WALK = 3;
+    static final int STATION_ACCESS = 2;
+
+    private TravelModel() {}
+
+    /** Ride time per stop: dwell + travel. */
+    static int rideMinutes(int stops) {
+        if (stops <= 0) return 2;
+        // ~2 min for first hop, then ~2–3 min per additional stop
+        return Math.max(2, 2 + (stops * 2));
+    }
+
+    static int headwayMinutes(String lineCode) {
+        return switch (lineCode) {
+            case "M7", "M8" -> 15; // express/special
+            default -> 6;          // city lines
+        };
+    }
+
+    /** Frequency model + stable per-minute randomness */
+    static int waitMinutes(String lineCode, long fromStationId, long toStationId, Instant when) {
+        return waitMinutes(lineCode, fromStationId, toStationId, when.getEpochSecond() / 60);
+    }
+
+    static int waitMinutes(String lineCode, long fromStationId, long toStationId, long minuteBucket) {
+        long seed = minuteBucket
+                ^ (fromStationId * 31L)
+                ^ (toStationId * 17L)
+                ^ (lineCode.hashCode() * 13L);
+
+        Random r = new Random(seed);
+        // Wait between 0..(freq-1), but at least 1 min to feel realistic
+        return Math.max(1, r.nextInt(headwayMinutes(lineCode)));
+    }
+}
@@ -0,0 +1,71 @@
+package com.metro.vigo.backend.journey;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Origin-destination travel times, dense and row-major: cell {@code [o * destinations.length + d]}.
+ * Unreachable cells hold {@link #UNREACHABLE} in both arrays.
+ */
+public record TravelTimeMatrix(Instant departure, long[] origins, long[] destinations, int[] minutes, byte[] transfers) {
+
+    public static final int UNREACHABLE = -1;
+
+    public int cells() {
+        return minutes.length;
+    }
+
+    /**
+     * Writes the matrix as JSON, one row per origin, without building an object tree:
+     * {@code {"departure":..,"origins":[..],"destinations":[..],"minutes":[[..],..],"transfers":[[..],..]}}.
+     */
+    public void writeJson(OutputStream out) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), 1 << 16);
+        w.write("{\"departure\":\"");
+        w.write(departure.toString());
+        w.write("\",\"unreachable\":");
+        w.write(Integer.toString(UNREACHABLE));
+        w.write(",\"origins\":");
+        writeIds(w, origins);
+        w.write(",\"destinations\":");
+        writeIds(w, destinations);
+
+        int cols = destinations.length;
+        w.write(",\"minutes\":[");
+        for (int r = 0; r < origins.length; r++) {
+            if (r > 0) w.write(',');
+            w.write('[');
+            for (int c = 0; c < cols; c++) {
+                if (c > 0) w.write(',');
+                w.write(Integer.toString(minutes[r * cols + c]));
+            }
+            w.write(']');
+        }
+        w.write("],\"transfers\":[");
+        for (int r = 0; r < origins.length; r++) {
+            if (r > 0) w.write(',');
+            w.write('[');
+            for (int c = 0; c < cols; c++) {
+                if (c > 0) w.write(',');
+                w.write(Integer.toString(transfers[r * cols + c]));
+            }
+            w.write(']');
+        }
+        w.write("]}");
+        w.flush();
+    }
+
+    private static void writeIds(Writer w, long[] ids) throws IOException {
+        w.write('[');
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) w.write(',');
+            w.write(Long.toString(ids[i]));
+        }
+        w.write(']');
+    }
+}
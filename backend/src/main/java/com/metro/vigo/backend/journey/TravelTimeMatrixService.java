@@ -0,0 +1,166 @@
+package com.metro.vigo.backend.journey;
+
+import com.metro.vigo.backend.api.NotFoundException;
+import com.metro.vigo.backend.api.TooManyRequestsException;
+import com.metro.vigo.backend.metrics.LatencyHistogram;
+import com.metro.vigo.backend.metrics.MetricsRegistry;
+import com.metro.vigo.backend.network.NetworkSnapshot;
+import com.metro.vigo.backend.network.NetworkSnapshotService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Many-to-many travel times: one {@link OneToAllSearch} per origin, rows fanned out over a fork/join pool. */
+@Service
+public class TravelTimeMatrixService {
+
+    private static final int MAX_TRANSFERS = 4;
+    private static final int DEFAULT_TRANSFERS = 2;
+
+    private final NetworkSnapshotService snapshots;
+    private final ForkJoinPool pool;
+    private final Semaphore running;
+    private final long maxCells;
+
+    private final LatencyHistogram timer;
+    private final LongAdder cells;
+
+    public TravelTimeMatrixService(
+            NetworkSnapshotService snapshots,
+            MetricsRegistry metrics,
+            @Value("${metro.matrix.parallelism:0}") int parallelism,
+            @Value("${metro.matrix.max-concurrent:2}") int maxConcurrent,
+            @Value("${metro.matrix.max-cells:25000000}") long maxCells
+    ) {
+        this.snapshots = snapshots;
+        // Own pool so a big matrix cannot starve parallel streams elsewhere in the JVM
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.running = new Semaphore(Math.max(1, maxConcurrent));
+        this.maxCells = maxCells;
+        this.timer = metrics.timer("journey_matrix");
+        this.cells = metrics.counter("journey_matrix_cells_total");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public TravelTimeMatrix compute(List<Long> origins, List<Long> destinations, Instant when, Integer maxTransfers) {
+        if (origins == null || origins.isEmpty() || destinations == null || destinations.isEmpty()) {
+            throw new IllegalArgumentException("origins and destinations must not be empty");
+        }
+        if ((long) origins.size() * destinations.size() > maxCells) {
+            throw new IllegalArgumentException("Matrix too large: " + origins.size() + " x " + destinations.size()
+                    + " exceeds " + maxCells + " cells");
+        }
+        int transfers = maxTransfers == null ? DEFAULT_TRANSFERS : maxTransfers;
+        if (transfers < 0 || transfers > MAX_TRANSFERS) {
+            throw new IllegalArgumentException("maxTransfers must be between 0 and " + MAX_TRANSFERS);
+        }
+
+        if (!running.tryAcquire()) {
+            throw new TooManyRequestsException("Too many travel-time matrices in progress", 1);
+        }
+        long start = System.nanoTime();
+        try {
+            var snapshot = snapshots.current();
+            var network = TransitIndex.of(snapshot);
+            int[] from = resolve(snapshot, origins);
+            int[] to = resolve(snapshot, destinations);
+
+            int cols = to.length;
+            int[] minutes = new int[from.length * cols];
+            byte[] hops = new byte[from.length * cols];
+            long minute = when.getEpochSecond() / 60;
+
+            int grain = Math.max(1, from.length / (pool.getParallelism() * 8));
+            pool.invoke(new Rows(network, from, to, minute, transfers, minutes, hops, 0, from.length, grain));
+
+            cells.add(minutes.length);
+            return new TravelTimeMatrix(when, toArray(origins), toArray(destinations), minutes, hops);
+        } finally {
+            timer.recordSince(start);
+            running.release();
+        }
+    }
+
+    private static int[] resolve(NetworkSnapshot snapshot, List<Long> ids) {
+        int[] result = new int[ids.size()];
+        for (int i = 0; i < result.length; i++) {
+            Long id = ids.get(i);
+            int index = id == null ? -1 : snapshot.stationIndex(id);
+            if (index < 0) throw new NotFoundException("Station not found: " + id);
+            result[i] = index;
+        }
+        return result;
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static final class Rows extends RecursiveAction {
+        private final TransitIndex network;
+        private final int[] from;
+        private final int[] to;
+        private final long minute;
+        private final int maxTransfers;
+        private final int[] minutes;
+        private final byte[] transfers;
+        private final int lo;
+        private final int hi;
+        private final int grain;
+
+        Rows(TransitIndex network, int[] from, int[] to, long minute, int maxTransfers,
+             int[] minutes, byte[] transfers, int lo, int hi, int grain) {
+            this.network = network;
+            this.from = from;
+            this.to = to;
+            this.minute = minute;
+            this.maxTransfers = maxTransfers;
+            this.minutes = minutes;
+            this.transfers = transfers;
+            this.lo = lo;
+            this.hi = hi;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > grain) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Rows(network, from, to, minute, maxTransfers, minutes, transfers, lo, mid, grain),
+                        new Rows(network, from, to, minute, maxTransfers, minutes, transfers, mid, hi, grain));
+                return;
+            }
+            // Scratch arrays are reused for every origin of this leaf
+            var search = new OneToAllSearch(network);
+            int cols = to.length;
+            for (int r = lo; r < hi; r++) {
+                search.run(from[r], minute, maxTransfers);
+                for (int c = 0; c < cols; c++) {
+                    int d = to[c];
+                    int cell = r * cols + c;
+                    if (d == from[r]) {
+                        minutes[cell] = 0;
+                        transfers[cell] = 0;
+                    } else if (search.best[d] >= OneToAllSearch.INF) {
+                        minutes[cell] = TravelTimeMatrix.UNREACHABLE;
+                        transfers[cell] = TravelTimeMatrix.UNREACHABLE;
+                    } else {
+                        minutes[cell] = search.best[d] + TravelModel.EGRESS_WALK;
+                        transfers[cell] = search.round[d];
+                    }
+                }
+            }
+        }
+    }
+}
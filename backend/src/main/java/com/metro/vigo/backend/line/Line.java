@@ -1,8 +1,10 @@
 package com.metro.vigo.backend.line;
 
+import com.metro.vigo.backend.sync.ChangeLogEntityListener;
 import jakarta.persistence.*;
 
 @Entity
+@EntityListeners(ChangeLogEntityListener.class)
 @Table(name = "lines")
 public class Line {
 
@@ -37,5 +39,8 @@ public class Line {
     public String getColorHex() { return colorHex; }
     public String getStatus() { return status; }
 
+    public void setCode(String code) { this.code = code; }
+    public void setName(String name) { this.name = name; }
+    public void setColorHex(String colorHex) { this.colorHex = colorHex; }
     public void setStatus(String status) { this.status = status; }
 }
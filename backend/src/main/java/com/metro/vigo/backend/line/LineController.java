@@ -1,51 +1,54 @@
 package com.metro.vigo.backend.line;
 
-import com.metro.vigo.backend.api.Mapper;
-import com.metro.vigo.backend.api.dto.LineDetailDto;
 import com.metro.vigo.backend.api.dto.LineDto;
-import com.metro.vigo.backend.network.LineStationRepository;
+import com.metro.vigo.backend.concurrency.SnapshotOnly;
+import com.metro.vigo.backend.api.dto.LineStatusUpdateDto;
+import com.metro.vigo.backend.network.NetworkResponseCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/lines")
 public class LineController {
 
-    private final LineRepository repo;
-    private final LineStationRepository lineStationRepo;
+    private final NetworkResponseCache responses;
+    private final LineStatusService statusService;
+    private final LineStatusBroadcaster broadcaster;
 
-    public LineController(LineRepository repo, LineStationRepository lineStationRepo) {
-        this.repo = repo;
-        this.lineStationRepo = lineStationRepo;
+    public LineController(NetworkResponseCache responses, LineStatusService statusService, LineStatusBroadcaster broadcaster) {
+        this.responses = responses;
+        this.statusService = statusService;
+        this.broadcaster = broadcaster;
     }
 
+    // Bodies are pre-rendered once per network version (plain + gzip)
+    @SnapshotOnly
     @GetMapping
-    public List<LineDto> all() {
-        return repo.findAll().stream().map(Mapper::toLineDto).toList();
+    public ResponseEntity<byte[]> all(@RequestHeader HttpHeaders headers) {
+        return responses.lines().toResponseEntity(headers);
     }
 
+    @SnapshotOnly
     @GetMapping("/{id}")
-    public ResponseEntity<LineDetailDto> byId(@PathVariable Long id) {
-        var lineOpt = repo.findById(id);
-        if (lineOpt.isEmpty()) return ResponseEntity.notFound().build();
-
-        var line = lineOpt.get();
-        var stations = lineStationRepo.findByLineIdWithStationsOrdered(id)
-                .stream()
-                .map(ls -> Mapper.toStationDto(ls.getStation()))
-                .toList();
-
-        var dto = new LineDetailDto(
-                line.getId(),
-                line.getCode(),
-                line.getName(),
-                line.getColorHex(),
-                line.getStatus(),
-                stations
-        );
-
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<byte[]> byId(@PathVariable Long id, @RequestHeader HttpHeaders headers) {
+        var cached = responses.lineDetail(id);
+        if (cached == null) return ResponseEntity.notFound().build();
+        return cached.toResponseEntity(headers);
+    }
+
+    // { "status": "DELAYED" }
+    @PatchMapping("/{id}/status")
+    public LineDto updateStatus(@PathVariable Long id, @RequestBody LineStatusUpdateDto body) {
+        return statusService.updateStatus(id, body.status());
+    }
+
+    // Server-sent events: "lines" once on connect, then "line-status" for every change
+    @SnapshotOnly
+    @GetMapping(path = "/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter statusStream() {
+        return broadcaster.subscribe();
     }
 }
@@ -2,5 +2,8 @@ package com.metro.vigo.backend.line;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Optional;
+
 public interface LineRepository extends JpaRepository<Line, Long> {
+    Optional<Line> findByCode(String code);
 }
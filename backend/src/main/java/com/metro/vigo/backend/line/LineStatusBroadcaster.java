@@ -0,0 +1,143 @@
+package com.metro.vigo.backend.line;
+
+import com.metro.vigo.backend.network.NetworkSnapshotService;
+import com.metro.vigo.backend.sync.ChangeLogEvent;
+import com.metro.vigo.backend.sync.ChangeType;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pushes line status changes to connected SSE clients.
+ *
+ * Publishing only queues the event per client; a virtual thread per client with pending events writes them,
+ * so a slow client delays nobody else (and never the committing writer). A client that falls
+ * {@code metro.sse.max-queued} events behind is disconnected.
+ */
+@Component
+public class LineStatusBroadcaster {
+
+    private final NetworkSnapshotService snapshots;
+    private final long timeoutMillis;
+    private final int maxQueued;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("line-status-sse-", 0).factory());
+
+    public LineStatusBroadcaster(
+            NetworkSnapshotService snapshots,
+            @Value("${metro.sse.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${metro.sse.max-queued:64}") int maxQueued
+    ) {
+        this.snapshots = snapshots;
+        this.timeoutMillis = timeoutMillis;
+        this.maxQueued = maxQueued;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdown();
+    }
+
+    public SseEmitter subscribe() {
+        var emitter = new SseEmitter(timeoutMillis);
+        var subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // Start from the current state so clients don't need a separate fetch
+        var snapshot = snapshots.current();
+        subscriber.enqueue(() -> SseEmitter.event()
+                .name("lines")
+                .id(String.valueOf(snapshot.version()))
+                .data(snapshot.lines(), MediaType.APPLICATION_JSON));
+        return emitter;
+    }
+
+    // The snapshot listener runs first, so current() already reflects the change
+    @EventListener
+    public void onChange(ChangeLogEvent event) {
+        if (subscribers.isEmpty()) return;
+
+        var lineIds = event.changes().stream()
+                .filter(c -> c.type() == ChangeType.LINE)
+                .map(c -> c.entityId())
+                .distinct()
+                .toList();
+        if (lineIds.isEmpty()) return;
+
+        var snapshot = snapshots.current();
+        for (var line : snapshot.lines()) {
+            if (!lineIds.contains(line.id())) continue;
+            // Builders are single-use, so build one per emitter
+            Supplier<SseEmitter.SseEventBuilder> sse = () -> SseEmitter.event()
+                    .name("line-status")
+                    .id(String.valueOf(snapshot.version()))
+                    .data(line, MediaType.APPLICATION_JSON);
+            subscribers.forEach(s -> s.enqueue(sse));
+        }
+    }
+
+    /** One client's pending events; at most one sender drains them at a time, so they are written in order. */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<Supplier<SseEmitter.SseEventBuilder>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enqueue(Supplier<SseEmitter.SseEventBuilder> event) {
+            if (closed.get()) return;
+            if (queued.incrementAndGet() > maxQueued) {
+                close(new IllegalStateException("SSE client is more than " + maxQueued + " events behind"));
+                return;
+            }
+            queue.add(event);
+            if (draining.compareAndSet(false, true)) senders.execute(this::drain);
+        }
+
+        private void drain() {
+            do {
+                Supplier<SseEmitter.SseEventBuilder> event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    try {
+                        emitter.send(event.get());
+                    } catch (IOException | IllegalStateException ex) {
+                        close(ex);
+                    }
+                }
+                draining.set(false);
+                // An event queued after the last poll but before the flag was cleared found it still set
+            } while (!closed.get() && !queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void close(Exception cause) {
+            if (!closed.compareAndSet(false, true)) return;
+            subscribers.remove(this);
+            queue.clear();
+            // The emitter's write lock may be held by a stalled send, so don't wait for it here
+            senders.execute(() -> emitter.completeWithError(cause));
+        }
+    }
+}
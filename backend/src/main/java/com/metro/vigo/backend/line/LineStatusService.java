@@ -0,0 +1,40 @@
+package com.metro.vigo.backend.line;
+
+import com.metro.vigo.backend.api.Mapper;
+import com.metro.vigo.backend.api.NotFoundException;
+import com.metro.vigo.backend.api.dto.LineDto;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.Set;
+
+@Service
+public class LineStatusService {
+
+    public static final Set<String> STATUSES = Set.of("OK", "DELAYED", "DOWN");
+
+    private final LineRepository repo;
+
+    public LineStatusService(LineRepository repo) {
+        this.repo = repo;
+    }
+
+    /**
+     * Persists the new status. The change log records the update, and on commit the network
+     * snapshot (with every response rendered from it) is replaced and subscribers are notified.
+     */
+    @Transactional
+    public LineDto updateStatus(long lineId, String status) {
+        if (status == null || !STATUSES.contains(status.trim().toUpperCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Invalid status: " + status + " (expected one of OK, DELAYED, DOWN)");
+        }
+
+        var line = repo.findById(lineId)
+                .orElseThrow(() -> new NotFoundException("Line not found: " + lineId));
+
+        // Same status: no write, no version bump
+        line.setStatus(status.trim().toUpperCase(Locale.ROOT));
+        return Mapper.toLineDto(line);
+    }
+}
@@ -0,0 +1,100 @@
+package com.metro.vigo.backend.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets (microsecond resolution).
+ *
+ * Each power of two is split into 32 sub-buckets, so any recorded value is reported within ~3%.
+ * Counts are striped by thread so concurrent recorders rarely touch the same cache line;
+ * {@link #snapshot()} sums the stripes.
+ */
+public final class LatencyHistogram {
+
+    static final int SUB_BITS = 5;
+    static final int SUB_COUNT = 1 << SUB_BITS;
+    // Largest tracked value is ~2^36 us (about 19 hours); anything above lands in the last bucket
+    static final int MAX_SHIFT = 31;
+    static final int BUCKETS = (MAX_SHIFT + 2) * SUB_COUNT;
+
+    private static final int STRIPES = Math.min(8, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors())));
+
+    private final AtomicLongArray[] stripes = new AtomicLongArray[STRIPES];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new AtomicLongArray(BUCKETS);
+    }
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        stripe().incrementAndGet(index(micros));
+        count.increment();
+        sumMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    /** Convenience for {@code long start = System.nanoTime(); ...; h.recordSince(start);} */
+    public void recordSince(long startNanos) {
+        recordNanos(System.nanoTime() - startNanos);
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (var stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) counts[i] += stripe.get(i);
+        }
+        return new Snapshot(count.sum(), sumMicros.sum(), maxMicros.get(), counts);
+    }
+
+    private AtomicLongArray stripe() {
+        // Fibonacci hashing spreads sequential thread ids across stripes
+        long h = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> 59) & (STRIPES - 1)];
+    }
+
+    static int index(long micros) {
+        if (micros < SUB_COUNT) return (int) micros;
+        int msb = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = msb - SUB_BITS;
+        if (shift > MAX_SHIFT) return BUCKETS - 1;
+        return ((shift + 1) << SUB_BITS) + (int) ((micros >>> shift) & (SUB_COUNT - 1));
+    }
+
+    static long lowerBound(int index) {
+        if (index < SUB_COUNT) return index;
+        int shift = (index >>> SUB_BITS) - 1;
+        return (long) (SUB_COUNT + (index & (SUB_COUNT - 1))) << shift;
+    }
+
+    static long upperBound(int index) {
+        return index + 1 < BUCKETS ? lowerBound(index + 1) - 1 : Long.MAX_VALUE;
+    }
+
+    /** Point-in-time copy; counts may be a few records ahead of {@code count} under load. */
+    public record Snapshot(long count, long sumMicros, long maxMicros, long[] counts) {
+
+        public double meanMicros() {
+            return count == 0 ? 0 : (double) sumMicros / count;
+        }
+
+        /** Highest value equivalent to the given quantile (0..1), in microseconds. */
+        public long percentileMicros(double quantile) {
+            long total = 0;
+            for (long c : counts) total += c;
+            if (total == 0) return 0;
+
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(upperBound(i), maxMicros);
+            }
+            return maxMicros;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.metro.vigo.backend.metrics;
+
+import com.metro.vigo.backend.api.dto.MetricsDto;
+import com.metro.vigo.backend.concurrency.SnapshotOnly;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+
+@RestController
+@SnapshotOnly
+@RequestMapping("/api/internal/metrics")
+public class MetricsController {
+
+    static final MediaType PROMETHEUS = MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final MetricsRegistry registry;
+
+    public MetricsController(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    // JSON by default; Prometheus text with ?format=prometheus or Accept: text/plain
+    @GetMapping
+    public ResponseEntity<?> metrics(
+            @RequestParam(name = "format", required = false) String format,
+            @RequestHeader HttpHeaders headers
+    ) {
+        boolean prometheus = "prometheus".equalsIgnoreCase(format)
+                || headers.getAccept().stream().anyMatch(m -> m.isCompatibleWith(MediaType.TEXT_PLAIN) && !m.isWildcardType());
+        if (prometheus) {
+            return ResponseEntity.ok().contentType(PROMETHEUS).body(prometheusText());
+        }
+        return ResponseEntity.ok(json());
+    }
+
+    private MetricsDto json() {
+        List<MetricsDto.Timer> timers = new ArrayList<>();
+        sorted(registry.timers()).forEach((key, histogram) -> {
+            var s = histogram.snapshot();
+            timers.add(new MetricsDto.Timer(
+                    key.name(),
+                    labelMap(key),
+                    s.count(),
+                    s.meanMicros() / 1000.0,
+                    s.percentileMicros(0.5) / 1000.0,
+                    s.percentileMicros(0.9) / 1000.0,
+                    s.percentileMicros(0.99) / 1000.0,
+                    s.percentileMicros(0.999) / 1000.0,
+                    s.maxMicros() / 1000.0
+            ));
+        });
+
+        List<MetricsDto.Counter> counters = new ArrayList<>();
+        sorted(registry.counters()).forEach((key, adder) ->
+                counters.add(new MetricsDto.Counter(key.name(), labelMap(key), adder.sum())));
+
+        List<MetricsDto.Gauge> gauges = new ArrayList<>();
+        sorted(registry.gauges()).forEach((key, value) ->
+                gauges.add(new MetricsDto.Gauge(key.name(), labelMap(key), value.getAsDouble())));
+
+        return new MetricsDto(timers, counters, gauges);
+    }
+
+    private String prometheusText() {
+        var out = new StringBuilder(4096);
+
+        String family = null;
+        for (var e : sorted(registry.timers()).entrySet()) {
+            var name = e.getKey().name() + "_seconds";
+            if (!name.equals(family)) {
+                out.append("# TYPE ").append(name).append(" summary\n");
+                family = name;
+            }
+            var s = e.getValue().snapshot();
+            for (double q : QUANTILES) {
+                sample(out, name, e.getKey(), "quantile", Double.toString(q), s.percentileMicros(q) / 1e6);
+            }
+            sample(out, name + "_sum", e.getKey(), null, null, s.sumMicros() / 1e6);
+            sample(out, name + "_count", e.getKey(), null, null, s.count());
+        }
+
+        family = null;
+        for (var e : sorted(registry.counters()).entrySet()) {
+            var name = e.getKey().name();
+            if (!name.equals(family)) {
+                out.append("# TYPE ").append(name).append(" counter\n");
+                family = name;
+            }
+            sample(out, name, e.getKey(), null, null, e.getValue().sum());
+        }
+
+        family = null;
+        for (var e : sorted(registry.gauges()).entrySet()) {
+            var name = e.getKey().name();
+            if (!name.equals(family)) {
+                out.append("# TYPE ").append(name).append(" gauge\n");
+                family = name;
+            }
+            sample(out, name, e.getKey(), null, null, e.getValue().getAsDouble());
+        }
+        return out.toString();
+    }
+
+    private static void sample(StringBuilder out, String name, MetricsRegistry.Key key, String extraLabel, String extraValue, double value) {
+        out.append(name);
+        var labels = key.labels();
+        if (!labels.isEmpty() || extraLabel != null) {
+            out.append('{');
+            for (int i = 0; i < labels.size(); i += 2) {
+                if (i > 0) out.append(',');
+                label(out, labels.get(i), labels.get(i + 1));
+            }
+            if (extraLabel != null) {
+                if (!labels.isEmpty()) out.append(',');
+                label(out, extraLabel, extraValue);
+            }
+            out.append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static void label(StringBuilder out, String name, String value) {
+        out.append(name).append("=\"")
+                .append(value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                .append('"');
+    }
+
+    private static Map<String, String> labelMap(MetricsRegistry.Key key) {
+        Map<String, String> labels = new LinkedHashMap<>();
+        for (int i = 0; i < key.labels().size(); i += 2) {
+            labels.put(key.labels().get(i), key.labels().get(i + 1));
+        }
+        return labels;
+    }
+
+    // Stable output: grouped by name, then by labels
+    private static <V> SortedMap<MetricsRegistry.Key, V> sorted(Map<MetricsRegistry.Key, V> metrics) {
+        SortedMap<MetricsRegistry.Key, V> result = new TreeMap<>(
+                Comparator.comparing(MetricsRegistry.Key::name).thenComparing(k -> String.join("\u0000", k.labels())));
+        result.putAll(metrics);
+        return result;
+    }
+}
@@ -0,0 +1,46 @@
+package com.metro.vigo.backend.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/** Records latency and status per endpoint (method + route pattern, not the raw path). */
+@Component
+public class MetricsInterceptor implements HandlerInterceptor {
+
+    private static final String START = MetricsInterceptor.class.getName() + ".start";
+
+    private final MetricsRegistry registry;
+
+    public MetricsInterceptor(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(START) == null) request.setAttribute(START, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(START) instanceof Long start)) return;
+
+        var endpoint = endpoint(request);
+
+        registry.timer("http_server_requests", "endpoint", endpoint).recordSince(start);
+        registry.counter("http_server_responses_total", "endpoint", endpoint, "status", statusClass(response.getStatus())).increment();
+    }
+
+    /** Method plus route pattern, e.g. {@code GET /api/lines/{id}}. */
+    static String endpoint(HttpServletRequest request) {
+        var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "UNMATCHED");
+    }
+
+    private static String statusClass(int status) {
+        return (status / 100) + "xx";
+    }
+}
@@ -0,0 +1,46 @@
+package com.metro.vigo.backend.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * In-process metrics: latency histograms, counters and gauges, identified by name plus label pairs.
+ * Lookups are a single map read once a metric exists; hot paths should still keep the instance.
+ */
+@Component
+public class MetricsRegistry {
+
+    /** {@code labels} holds alternating key/value entries. */
+    public record Key(String name, List<String> labels) {}
+
+    private final Map<Key, LatencyHistogram> timers = new ConcurrentHashMap<>();
+    private final Map<Key, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<Key, DoubleSupplier> gauges = new ConcurrentHashMap<>();
+
+    public LatencyHistogram timer(String name, String... labels) {
+        return timers.computeIfAbsent(key(name, labels), k -> new LatencyHistogram());
+    }
+
+    public LongAdder counter(String name, String... labels) {
+        return counters.computeIfAbsent(key(name, labels), k -> new LongAdder());
+    }
+
+    /** Registers a value read at scrape time; re-registering the same key replaces the supplier. */
+    public void gauge(String name, DoubleSupplier value, String... labels) {
+        gauges.put(key(name, labels), value);
+    }
+
+    public Map<Key, LatencyHistogram> timers() { return timers; }
+    public Map<Key, LongAdder> counters() { return counters; }
+    public Map<Key, DoubleSupplier> gauges() { return gauges; }
+
+    private static Key key(String name, String... labels) {
+        if (labels.length % 2 != 0) throw new IllegalArgumentException("labels must be key/value pairs");
+        return new Key(name, List.of(labels));
+    }
+}
@@ -0,0 +1,64 @@
+package com.metro.vigo.backend.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements executed while handling the current request.
+ * Bound to the request thread by {@link QueryStatsFilter}; Hibernate hooks feed it through the static methods.
+ */
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    // "in (?, ?, ?)" and "in (?)" are the same statement shape
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private int count;
+    private long nanos;
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    private QueryStats() {}
+
+    static QueryStats open() {
+        var stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    /** Stats for the current request, or null outside one (startup, schedulers, async work). */
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    static void onStatement(String sql) {
+        var stats = CURRENT.get();
+        if (stats == null) return;
+        stats.count++;
+        stats.shapes.merge(shape(sql), 1, Integer::sum);
+    }
+
+    static void onExecuted(long elapsedNanos) {
+        var stats = CURRENT.get();
+        if (stats != null) stats.nanos += elapsedNanos;
+    }
+
+    public int count() { return count; }
+    public long nanos() { return nanos; }
+
+    /** The most repeated statement shape and how often it ran; null if nothing ran. */
+    Map.Entry<String, Integer> mostRepeated() {
+        return shapes.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+    }
+
+    static String shape(String sql) {
+        var s = WHITESPACE.matcher(sql.strip()).replaceAll(" ");
+        return IN_LIST.matcher(s).replaceAll("(?)");
+    }
+}
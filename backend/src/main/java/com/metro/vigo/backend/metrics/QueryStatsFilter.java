@@ -0,0 +1,59 @@
+package com.metro.vigo.backend.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Scopes {@link QueryStats} to each request, records per-endpoint query metrics and
+ * warns when one statement shape repeats more than {@code metro.query-stats.repeat-threshold} times (likely N+1).
+ */
+@Component
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryStatsFilter.class);
+
+    private final MetricsRegistry registry;
+    private final int repeatThreshold;
+
+    public QueryStatsFilter(MetricsRegistry registry,
+                            @Value("${metro.query-stats.repeat-threshold:5}") int repeatThreshold) {
+        this.registry = registry;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var stats = QueryStats.open();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryStats.close();
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStats stats) {
+        if (stats.count() == 0) return;
+
+        var endpoint = MetricsInterceptor.endpoint(request);
+        registry.counter("db_queries_total", "endpoint", endpoint).add(stats.count());
+        registry.timer("db_request_time", "endpoint", endpoint).recordNanos(stats.nanos());
+
+        var repeated = stats.mostRepeated();
+        if (repeated != null && repeated.getValue() > repeatThreshold) {
+            registry.counter("db_repeated_statements_total", "endpoint", endpoint).increment();
+            log.warn("Possible N+1 on {}: statement ran {} times ({} queries in request): {}",
+                    endpoint, repeated.getValue(), stats.count(), repeated.getKey());
+        }
+    }
+}
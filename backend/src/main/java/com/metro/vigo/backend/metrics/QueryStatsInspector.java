@@ -0,0 +1,13 @@
+package com.metro.vigo.backend.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/** Counts every SQL statement Hibernate prepares. Registered via hibernate.session_factory.statement_inspector. */
+public class QueryStatsInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryStats.onStatement(sql);
+        return sql;
+    }
+}
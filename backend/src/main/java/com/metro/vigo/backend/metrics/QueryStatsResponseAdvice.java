@@ -0,0 +1,39 @@
+package com.metro.vigo.backend.metrics;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+
+/**
+ * Adds X-Query-Count / X-Query-Time-Ms just before the body is written, i.e. after the handler's DB work.
+ * Streaming bodies (NDJSON, SSE) don't pass through here; their queries only show up in the metrics.
+ */
+@RestControllerAdvice
+public class QueryStatsResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String COUNT_HEADER = "X-Query-Count";
+    static final String TIME_HEADER = "X-Query-Time-Ms";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        var stats = QueryStats.current();
+        if (stats != null) {
+            response.getHeaders().set(COUNT_HEADER, String.valueOf(stats.count()));
+            response.getHeaders().set(TIME_HEADER, String.format(Locale.ROOT, "%.3f", stats.nanos() / 1e6));
+        }
+        return body;
+    }
+}
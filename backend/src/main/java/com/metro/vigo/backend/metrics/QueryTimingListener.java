@@ -0,0 +1,32 @@
+package com.metro.vigo.backend.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds JDBC execution time to the request's {@link QueryStats}.
+ * Hibernate creates one instance per session (hibernate.session.events.auto), so the start field is not shared.
+ */
+public class QueryTimingListener implements SessionEventListener {
+
+    private long start;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryStats.onExecuted(System.nanoTime() - start);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryStats.onExecuted(System.nanoTime() - start);
+    }
+}
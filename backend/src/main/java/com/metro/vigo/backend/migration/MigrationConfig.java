@@ -0,0 +1,83 @@
+package com.metro.vigo.backend.migration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+/**
+ * Runs {@link SchemaMigrator} before JPA starts. Hibernate no longer touches the schema (ddl-auto: none).
+ *
+ * With a bootstrap executor (deferred repository bootstrap) the migrations run there, just ahead of building the
+ * EntityManagerFactory, and wait for the database instead of failing the context: the server starts and serves
+ * the snapshot meanwhile. Without one they run inline, as before.
+ */
+@Configuration
+@ConditionalOnProperty(name = "metro.migrations.enabled", havingValue = "true", matchIfMissing = true)
+public class MigrationConfig {
+
+    @Bean
+    public SchemaMigrator schemaMigrator(
+            DataSource dataSource,
+            @Value("${metro.migrations.location:classpath:db/migration}") String location
+    ) {
+        return new SchemaMigrator(dataSource, location);
+    }
+
+    // Static so it is registered before the configuration class itself is instantiated
+    @Bean
+    public static BeanPostProcessor migrateBeforeEntityManagerFactory(ObjectProvider<SchemaMigrator> migrator) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean emf) gate(emf, migrator.getObject());
+                return bean;
+            }
+        };
+    }
+
+    static void gate(AbstractEntityManagerFactoryBean emf, SchemaMigrator migrator) {
+        var executor = emf.getBootstrapExecutor();
+        if (executor == null) {
+            migrator.migrate();
+        } else {
+            emf.setBootstrapExecutor(new MigratingExecutor(executor, migrator));
+        }
+    }
+
+    /** Runs the migrations before each bootstrap task; only the EntityManagerFactory build is submitted. */
+    record MigratingExecutor(AsyncTaskExecutor delegate, SchemaMigrator migrator) implements AsyncTaskExecutor {
+
+        @Override
+        public void execute(Runnable task) {
+            delegate.execute(() -> {
+                migrator.migrateWhenReachable();
+                task.run();
+            });
+        }
+
+        @Override
+        public Future<?> submit(Runnable task) {
+            return delegate.submit(() -> {
+                migrator.migrateWhenReachable();
+                task.run();
+            });
+        }
+
+        @Override
+        public <T> Future<T> submit(Callable<T> task) {
+            return delegate.submit(() -> {
+                migrator.migrateWhenReachable();
+                return task.call();
+            });
+        }
+    }
+}
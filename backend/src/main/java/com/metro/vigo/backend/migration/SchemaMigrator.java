@@ -0,0 +1,224 @@
+package com.metro.vigo.backend.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Minimal ordered SQL migrations: {@code V<version>__<description>.sql} files from the classpath,
+ * applied once each, in version order, each in its own transaction together with its
+ * {@code schema_migrations} row. Already applied scripts are checksummed and must not change.
+ *
+ * A Postgres advisory lock serialises instances starting at the same time.
+ *
+ * {@link #migrateWhenReachable()} waits for the database first; {@link MigrationConfig} runs it on the
+ * EntityManagerFactory's bootstrap executor so startup does not wait for it.
+ */
+public class SchemaMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final long LOCK_KEY = 0x4D56_4D49_4752L; // "MVMIGR"
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    record Migration(int version, String description, Resource resource, long checksum) {}
+
+    private final DataSource dataSource;
+    private final String location;
+    private final Duration initialBackoff;
+
+    public SchemaMigrator(DataSource dataSource, String location) {
+        this(dataSource, location, Duration.ofSeconds(1));
+    }
+
+    SchemaMigrator(DataSource dataSource, String location, Duration initialBackoff) {
+        this.dataSource = dataSource;
+        this.location = location;
+        this.initialBackoff = initialBackoff;
+    }
+
+    /** Applies pending migrations; fails if the database cannot be reached. */
+    public void migrate() {
+        Connection connection;
+        try {
+            connection = dataSource.getConnection();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Schema migration failed", ex);
+        }
+        migrate(connection);
+    }
+
+    /**
+     * Like {@link #migrate()}, but retries the connection with backoff (up to 30 s apart) until the database
+     * answers. Failures once connected (a failing script, an edited one) are not retried.
+     */
+    public void migrateWhenReachable() {
+        var backoff = initialBackoff;
+        while (true) {
+            Connection connection;
+            try {
+                connection = dataSource.getConnection();
+            } catch (SQLException ex) {
+                log.info("DB not reachable for migrations ({}), retrying in {} ms", ex.getMessage(), backoff.toMillis());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the database", ie);
+                }
+                backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+                continue;
+            }
+            migrate(connection);
+            return;
+        }
+    }
+
+    // Closes the connection
+    private void migrate(Connection connection) {
+        var migrations = discover();
+        try (connection) {
+            connection.setAutoCommit(true);
+            try (var st = connection.createStatement()) {
+                st.execute("select pg_advisory_lock(" + LOCK_KEY + ")");
+            }
+            try {
+                createHistoryTable(connection);
+                var applied = applied(connection);
+                validate(migrations, applied);
+
+                int count = 0;
+                for (var m : migrations) {
+                    if (applied.containsKey(m.version())) continue;
+                    apply(connection, m);
+                    count++;
+                }
+                log.info("Schema at version {} ({} migration(s) applied)",
+                        migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version(), count);
+            } finally {
+                try (var st = connection.createStatement()) {
+                    st.execute("select pg_advisory_unlock(" + LOCK_KEY + ")");
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Schema migration failed", ex);
+        }
+    }
+
+    List<Migration> discover() {
+        Resource[] resources;
+        try {
+            resources = new PathMatchingResourcePatternResolver().getResources(location + "/V*__*.sql");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        Map<Integer, Migration> byVersion = new TreeMap<>();
+        for (var resource : resources) {
+            var matcher = FILE_NAME.matcher(Objects.requireNonNull(resource.getFilename()));
+            if (!matcher.matches()) continue;
+            var m = new Migration(
+                    Integer.parseInt(matcher.group(1)),
+                    matcher.group(2).replace('_', ' '),
+                    resource,
+                    checksum(resource)
+            );
+            var previous = byVersion.put(m.version(), m);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate migration version " + m.version()
+                        + ": " + previous.resource().getFilename() + " and " + resource.getFilename());
+            }
+        }
+        return List.copyOf(byVersion.values());
+    }
+
+    private static void createHistoryTable(Connection connection) throws SQLException {
+        try (var st = connection.createStatement()) {
+            st.execute("""
+                    create table if not exists schema_migrations (
+                        version      integer primary key,
+                        description  varchar(200) not null,
+                        checksum     bigint not null,
+                        applied_at   timestamp with time zone not null,
+                        execution_ms integer not null
+                    )
+                    """);
+        }
+    }
+
+    private static Map<Integer, Long> applied(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (var st = connection.createStatement();
+             var rs = st.executeQuery("select version, checksum from schema_migrations")) {
+            while (rs.next()) applied.put(rs.getInt(1), rs.getLong(2));
+        }
+        return applied;
+    }
+
+    private static void validate(List<Migration> migrations, Map<Integer, Long> applied) {
+        Map<Integer, Migration> known = new HashMap<>();
+        migrations.forEach(m -> known.put(m.version(), m));
+        applied.forEach((version, checksum) -> {
+            var m = known.get(version);
+            if (m == null) {
+                log.warn("Migration V{} is recorded in schema_migrations but no longer on the classpath", version);
+            } else if (m.checksum() != checksum) {
+                throw new IllegalStateException("Migration " + m.resource().getFilename()
+                        + " was modified after being applied (checksum " + checksum + " -> " + m.checksum() + ")");
+            }
+        });
+    }
+
+    private static void apply(Connection connection, Migration m) throws SQLException {
+        long start = System.nanoTime();
+        connection.setAutoCommit(false);
+        try {
+            ScriptUtils.executeSqlScript(connection, new EncodedResource(m.resource(), StandardCharsets.UTF_8));
+            try (var ps = connection.prepareStatement(
+                    "insert into schema_migrations (version, description, checksum, applied_at, execution_ms) values (?, ?, ?, ?, ?)")) {
+                ps.setInt(1, m.version());
+                ps.setString(2, m.description());
+                ps.setLong(3, m.checksum());
+                ps.setTimestamp(4, Timestamp.from(Instant.now()));
+                ps.setInt(5, (int) ((System.nanoTime() - start) / 1_000_000));
+                ps.executeUpdate();
+            }
+            connection.commit();
+            log.info("Applied migration V{} {} in {} ms", m.version(), m.description(), (System.nanoTime() - start) / 1_000_000);
+        } catch (SQLException | RuntimeException ex) {
+            connection.rollback();
+            throw new IllegalStateException("Migration " + m.resource().getFilename() + " failed", ex);
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    // Line endings are normalised so a checkout with CRLF doesn't look like an edited script
+    private static long checksum(Resource resource) {
+        try (var in = resource.getInputStream()) {
+            var text = new String(in.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+            var crc = new CRC32();
+            crc.update(text.getBytes(StandardCharsets.UTF_8));
+            return crc.getValue();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.metro.vigo.backend.network;
+
+import com.metro.vigo.backend.api.dto.StationDto;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Walking links between distinct stations within a radius, as compact adjacency arrays (CSR) indexed
+ * like {@link NetworkSnapshot#stations()}: the footpaths of station {@code i} are entries
+ * {@code start(i) .. end(i) - 1}, each with a target station index and walking minutes.
+ *
+ * Built once per snapshot with a uniform grid (cell = radius), so only neighbouring cells are compared. Only
+ * occupied cells are stored (sorted by cell key), so the grid costs O(stations) whatever the coordinates span.
+ * Distances use an equirectangular projection, which is accurate to well under 1% at city scale.
+ */
+public final class Footpaths {
+
+    /** Radius in metres, walking speed in metres per minute, and a detour factor for street layouts. */
+    public record Settings(double radiusMeters, double metersPerMinute, double detourFactor) {
+        public static final Settings DEFAULT = new Settings(400, 75, 1.3);
+        public static final Settings NONE = new Settings(0, 75, 1.3);
+    }
+
+    private static final double M_PER_DEG_LAT = 110_574;
+    private static final double M_PER_DEG_LON_EQUATOR = 111_320;
+
+    private final int[] start;
+    private final int[] target;
+    private final int[] minutes;
+    private final double mPerDegLon; // projection used for this build, 0 if nothing was located
+
+    private Footpaths(int[] start, int[] target, int[] minutes, double mPerDegLon) {
+        this.start = start;
+        this.target = target;
+        this.minutes = minutes;
+        this.mPerDegLon = mPerDegLon;
+    }
+
+    public int start(int station) { return start[station]; }
+    public int end(int station) { return start[station + 1]; }
+    public int target(int edge) { return target[edge]; }
+    public int minutes(int edge) { return minutes[edge]; }
+    public int size() { return target.length; }
+
+    static Footpaths build(List<StationDto> stations, Settings settings) {
+        int n = stations.size();
+        if (settings.radiusMeters() <= 0 || n == 0) {
+            return new Footpaths(new int[n + 1], new int[0], new int[0], 0);
+        }
+
+        // 1) Project to metres around the mean latitude; stations without (valid) coordinates get no footpaths
+        double meanLat = stations.stream().filter(Footpaths::located).mapToDouble(StationDto::lat).average().orElse(0);
+        double mPerDegLon = M_PER_DEG_LON_EQUATOR * Math.cos(Math.toRadians(meanLat));
+        double[] x = new double[n];
+        double[] y = new double[n];
+        boolean[] located = new boolean[n];
+        int locatedCount = 0;
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            var s = stations.get(i);
+            if (!located(s)) continue;
+            located[i] = true;
+            locatedCount++;
+            x[i] = s.lon() * mPerDegLon;
+            y[i] = s.lat() * M_PER_DEG_LAT;
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+        }
+        if (locatedCount == 0) return new Footpaths(new int[n + 1], new int[0], new int[0], 0);
+
+        // 2) Bucket stations into cells of radius size: occupied cell keys sorted, then CSR over them
+        double cell = settings.radiusMeters();
+        int[] col = new int[n];
+        int[] row = new int[n];
+        long[] keys = new long[locatedCount];
+        for (int i = 0, k = 0; i < n; i++) {
+            if (!located[i]) continue;
+            col[i] = cellCoord(x[i] - minX, cell);
+            row[i] = cellCoord(y[i] - minY, cell);
+            keys[k++] = cellKey(col[i], row[i]);
+        }
+        Arrays.sort(keys);
+        int cellCount = 0;
+        for (int k = 0; k < keys.length; k++) {
+            if (k == 0 || keys[k] != keys[k - 1]) keys[cellCount++] = keys[k];
+        }
+        long[] cells = Arrays.copyOf(keys, cellCount);
+
+        int[] cellOf = new int[n];
+        int[] cellStart = new int[cellCount + 1];
+        for (int i = 0; i < n; i++) {
+            if (!located[i]) continue;
+            cellOf[i] = Arrays.binarySearch(cells, cellKey(col[i], row[i]));
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < cellCount; c++) cellStart[c + 1] += cellStart[c];
+        int[] members = new int[locatedCount];
+        int[] fill = Arrays.copyOf(cellStart, cellStart.length);
+        for (int i = 0; i < n; i++) {
+            if (located[i]) members[fill[cellOf[i]]++] = i;
+        }
+
+        // 3) Edges: each station against the 3x3 cells around it
+        double r2 = cell * cell;
+        int[] start = new int[n + 1];
+        var targets = new IntBuffer();
+        var mins = new IntBuffer();
+        for (int i = 0; i < n; i++) {
+            start[i] = targets.size;
+            if (!located[i]) continue;
+            for (int r = Math.max(0, row[i] - 1); r <= Math.min(MAX_CELL, row[i] + 1); r++) {
+                for (int c = Math.max(0, col[i] - 1); c <= Math.min(MAX_CELL, col[i] + 1); c++) {
+                    int cellIdx = c == col[i] && r == row[i] ? cellOf[i] : Arrays.binarySearch(cells, cellKey(c, r));
+                    if (cellIdx < 0) continue;
+                    for (int k = cellStart[cellIdx]; k < cellStart[cellIdx + 1]; k++) {
+                        int j = members[k];
+                        if (j == i) continue;
+                        double dx = x[j] - x[i];
+                        double dy = y[j] - y[i];
+                        double d2 = dx * dx + dy * dy;
+                        if (d2 > r2) continue;
+                        targets.add(j);
+                        mins.add(walkMinutes(d2, settings));
+                    }
+                }
+            }
+        }
+        start[n] = targets.size;
+        return new Footpaths(start, targets.toArray(), mins.toArray(), mPerDegLon);
+    }
+
+    /**
+     * A copy for the same stations (same indices) after some of them moved. Only the moved stations are
+     * compared against every other one; the rest keep their footpaths, minus those to moved stations and plus
+     * any new ones. Keeps this build's projection, so it drifts from a full build only by the shift in mean
+     * latitude. Falls back to a full build when many stations moved.
+     */
+    Footpaths withMoved(List<StationDto> stations, Set<Integer> moved, Settings settings) {
+        int n = stations.size();
+        if (settings.radiusMeters() <= 0) return this;
+        if (mPerDegLon == 0 || moved.size() > 32) return build(stations, settings);
+
+        double r2 = settings.radiusMeters() * settings.radiusMeters();
+        // Footpaths of each moved station, both directions (distances are symmetric)
+        Map<Integer, IntBuffer> added = new HashMap<>();
+        Map<Integer, IntBuffer> addedMins = new HashMap<>();
+        for (int i : moved) {
+            var a = stations.get(i);
+            if (!located(a)) continue;
+            for (int j = 0; j < n; j++) {
+                var b = stations.get(j);
+                if (j == i || !located(b)) continue;
+                double dx = (b.lon() - a.lon()) * mPerDegLon;
+                double dy = (b.lat() - a.lat()) * M_PER_DEG_LAT;
+                double d2 = dx * dx + dy * dy;
+                if (d2 > r2) continue;
+                int min = walkMinutes(d2, settings);
+                added.computeIfAbsent(i, k -> new IntBuffer()).add(j);
+                addedMins.computeIfAbsent(i, k -> new IntBuffer()).add(min);
+                if (!moved.contains(j)) {
+                    added.computeIfAbsent(j, k -> new IntBuffer()).add(i);
+                    addedMins.computeIfAbsent(j, k -> new IntBuffer()).add(min);
+                }
+            }
+        }
+
+        int[] newStart = new int[n + 1];
+        var targets = new IntBuffer();
+        var mins = new IntBuffer();
+        for (int s = 0; s < n; s++) {
+            newStart[s] = targets.size;
+            if (!moved.contains(s)) {
+                for (int e = start[s]; e < start[s + 1]; e++) {
+                    if (moved.contains(target[e])) continue;
+                    targets.add(target[e]);
+                    mins.add(minutes[e]);
+                }
+            }
+            var extra = added.get(s);
+            if (extra == null) continue;
+            var extraMins = addedMins.get(s);
+            for (int k = 0; k < extra.size; k++) {
+                targets.add(extra.data[k]);
+                mins.add(extraMins.data[k]);
+            }
+        }
+        newStart[n] = targets.size;
+        return new Footpaths(newStart, targets.toArray(), mins.toArray(), mPerDegLon);
+    }
+
+    private static boolean located(StationDto s) {
+        return s.lat() != null && s.lon() != null && Math.abs(s.lat()) <= 90 && Math.abs(s.lon()) <= 180;
+    }
+
+    // Cell coordinates are clamped: far-out (bad) coordinates share the edge cell, and the distance check still applies
+    private static final int MAX_CELL = Integer.MAX_VALUE - 1;
+
+    private static int cellCoord(double offsetMeters, double cell) {
+        return (int) Math.min(MAX_CELL, offsetMeters / cell);
+    }
+
+    private static long cellKey(int col, int row) {
+        return (long) col << 32 | row;
+    }
+
+    private static int walkMinutes(double d2, Settings settings) {
+        return Math.max(1, (int) Math.ceil(Math.sqrt(d2) * settings.detourFactor() / settings.metersPerMinute()));
+    }
+
+    private static final class IntBuffer {
+        int[] data = new int[64];
+        int size;
+
+        void add(int v) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = v;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
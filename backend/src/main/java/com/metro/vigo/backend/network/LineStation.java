@@ -2,9 +2,11 @@ package com.metro.vigo.backend.network;
 
 import com.metro.vigo.backend.line.Line;
 import com.metro.vigo.backend.station.Station;
+import com.metro.vigo.backend.sync.ChangeLogEntityListener;
 import jakarta.persistence.*;
 
 @Entity
+@EntityListeners(ChangeLogEntityListener.class)
 @Table(name = "line_stations",
         uniqueConstraints = @UniqueConstraint(name = "uq_line_station", columnNames = {"line_id", "station_id"}),
         indexes = {
@@ -39,4 +41,6 @@ public class LineStation {
     public Line getLine() { return line; }
     public Station getStation() { return station; }
     public int getPosition() { return position; }
+
+    public void setPosition(int position) { this.position = position; }
 }
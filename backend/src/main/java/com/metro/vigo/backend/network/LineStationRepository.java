@@ -4,6 +4,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface LineStationRepository extends JpaRepository<LineStation, Long> {
@@ -25,4 +26,21 @@ public interface LineStationRepository extends JpaRepository<LineStation, Long>
         order by ls.position asc
     """)
     List<LineStation> findByStationIdWithLinesOrdered(@Param("stationId") Long stationId);
+
+    @Query("""
+        select ls
+        from LineStation ls
+        join fetch ls.line l
+        join fetch ls.station s
+        order by l.id asc, ls.position asc
+    """)
+    List<LineStation> findAllWithLinesAndStationsOrdered();
+
+    @Query("""
+        select ls
+        from LineStation ls
+        where ls.line.id in :lineIds
+        order by ls.line.id asc, ls.position asc
+    """)
+    List<LineStation> findByLineIdInOrdered(@Param("lineIds") Collection<Long> lineIds);
 }
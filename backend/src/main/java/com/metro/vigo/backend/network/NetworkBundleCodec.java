@@ -0,0 +1,185 @@
+package com.metro.vigo.backend.network;
+
+import com.metro.vigo.backend.api.dto.LineDetailDto;
+import com.metro.vigo.backend.api.dto.NetworkBundleDto;
+import com.metro.vigo.backend.api.dto.StationDto;
+import org.springframework.http.MediaType;
+
+import com.metro.vigo.backend.api.dto.LineDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Normalised network bundle: every station appears once and lines reference stations by index.
+ *
+ * Binary layout (big-endian, columnar so each column compresses well):
+ * <pre>
+ * int    magic "MVNB"
+ * short  format (1)
+ * long   network version
+ * int    stationCount
+ *   long[]   ids
+ *   utf[]    names
+ *   double[] lats (NaN = unknown)
+ *   double[] lons (NaN = unknown)
+ *   byte[]   facility flags (see FLAG_*)
+ *   utf[]    accessibility notes (only for stations with FLAG_NOTE)
+ * int    lineCount
+ *   long[]   ids
+ *   utf[]    codes, names, colors, statuses (one column each)
+ *   per line: int stopCount, int[stopCount] station indexes
+ * </pre>
+ */
+public final class NetworkBundleCodec {
+
+    public static final String BINARY_VALUE = "application/x-metro-network";
+    public static final MediaType BINARY = MediaType.parseMediaType(BINARY_VALUE);
+
+    static final int MAGIC = 0x4D564E42; // "MVNB"
+    static final short FORMAT = 1;
+
+    static final int FLAG_ACCESSIBLE = 1;
+    static final int FLAG_ELEVATOR = 1 << 1;
+    static final int FLAG_TOILETS = 1 << 2;
+    static final int FLAG_INFO_POINT = 1 << 3;
+    static final int FLAG_EBIKES = 1 << 4;
+    static final int FLAG_BIKE_PARKING = 1 << 5;
+    static final int FLAG_NOTE = 1 << 6;
+
+    private NetworkBundleCodec() {}
+
+    public static NetworkBundleDto toDto(NetworkSnapshot snapshot) {
+        return new NetworkBundleDto(snapshot.version(), snapshot.lines(), snapshot.stations(), lineStationIndexes(snapshot));
+    }
+
+    public static byte[] encode(NetworkSnapshot snapshot) {
+        var stations = snapshot.stations();
+        var lines = snapshot.lineDetails().stream().toList();
+        var stops = lineStationIndexes(snapshot);
+
+        var bytes = new ByteArrayOutputStream(4096);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT);
+            out.writeLong(snapshot.version());
+
+            out.writeInt(stations.size());
+            for (var s : stations) out.writeLong(s.id());
+            for (var s : stations) out.writeUTF(s.name());
+            for (var s : stations) out.writeDouble(s.lat() != null ? s.lat() : Double.NaN);
+            for (var s : stations) out.writeDouble(s.lon() != null ? s.lon() : Double.NaN);
+            for (var s : stations) out.writeByte(facilityFlags(s));
+            for (var s : stations) {
+                if (s.accessibilityNote() != null) out.writeUTF(s.accessibilityNote());
+            }
+
+            out.writeInt(lines.size());
+            for (var l : lines) out.writeLong(l.id());
+            for (var l : lines) out.writeUTF(l.code());
+            for (var l : lines) out.writeUTF(l.name());
+            for (var l : lines) out.writeUTF(l.colorHex());
+            for (var l : lines) out.writeUTF(l.status());
+            for (var seq : stops) {
+                out.writeInt(seq.length);
+                for (int idx : seq) out.writeInt(idx);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Inverse of {@link #encode}; used to restore a snapshot from {@link SnapshotFileStore}. */
+    static NetworkSnapshot decode(DataInput in, Footpaths.Settings footpathSettings) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Not a network bundle");
+        short format = in.readShort();
+        if (format != FORMAT) throw new IOException("Unsupported bundle format " + format);
+        long version = in.readLong();
+
+        int stationCount = in.readInt();
+        long[] ids = new long[stationCount];
+        String[] names = new String[stationCount];
+        double[] lats = new double[stationCount];
+        double[] lons = new double[stationCount];
+        int[] flags = new int[stationCount];
+        for (int i = 0; i < stationCount; i++) ids[i] = in.readLong();
+        for (int i = 0; i < stationCount; i++) names[i] = in.readUTF();
+        for (int i = 0; i < stationCount; i++) lats[i] = in.readDouble();
+        for (int i = 0; i < stationCount; i++) lons[i] = in.readDouble();
+        for (int i = 0; i < stationCount; i++) flags[i] = in.readUnsignedByte();
+
+        List<StationDto> stations = new ArrayList<>(stationCount);
+        for (int i = 0; i < stationCount; i++) {
+            int f = flags[i];
+            stations.add(new StationDto(
+                    ids[i],
+                    names[i],
+                    Double.isNaN(lats[i]) ? null : lats[i],
+                    Double.isNaN(lons[i]) ? null : lons[i],
+                    (f & FLAG_ACCESSIBLE) != 0,
+                    (f & FLAG_ELEVATOR) != 0,
+                    (f & FLAG_TOILETS) != 0,
+                    (f & FLAG_INFO_POINT) != 0,
+                    (f & FLAG_EBIKES) != 0,
+                    (f & FLAG_BIKE_PARKING) != 0,
+                    (f & FLAG_NOTE) != 0 ? in.readUTF() : null
+            ));
+        }
+
+        int lineCount = in.readInt();
+        long[] lineIds = new long[lineCount];
+        String[][] text = new String[4][lineCount]; // codes, names, colors, statuses
+        for (int i = 0; i < lineCount; i++) lineIds[i] = in.readLong();
+        for (var column : text) {
+            for (int i = 0; i < lineCount; i++) column[i] = in.readUTF();
+        }
+
+        List<LineDto> lines = new ArrayList<>(lineCount);
+        Map<Long, LineDetailDto> details = new LinkedHashMap<>();
+        for (int i = 0; i < lineCount; i++) {
+            int stopCount = in.readInt();
+            List<StationDto> stops = new ArrayList<>(stopCount);
+            for (int k = 0; k < stopCount; k++) stops.add(stations.get(in.readInt()));
+
+            lines.add(new LineDto(lineIds[i], text[0][i], text[1][i], text[2][i], text[3][i]));
+            details.put(lineIds[i], new LineDetailDto(lineIds[i], text[0][i], text[1][i], text[2][i], text[3][i], List.copyOf(stops)));
+        }
+
+        return NetworkSnapshot.of(version, List.copyOf(lines), details, List.copyOf(stations), footpathSettings);
+    }
+
+    static int facilityFlags(StationDto s) {
+        int flags = 0;
+        if (s.accessible()) flags |= FLAG_ACCESSIBLE;
+        if (s.hasElevator()) flags |= FLAG_ELEVATOR;
+        if (s.hasToilets()) flags |= FLAG_TOILETS;
+        if (s.hasInfoPoint()) flags |= FLAG_INFO_POINT;
+        if (s.hasEBikes()) flags |= FLAG_EBIKES;
+        if (s.hasBikeParking()) flags |= FLAG_BIKE_PARKING;
+        if (s.accessibilityNote() != null) flags |= FLAG_NOTE;
+        return flags;
+    }
+
+    private static int[][] lineStationIndexes(NetworkSnapshot snapshot) {
+        return snapshot.lineDetails().stream()
+                .map(l -> stationIndexes(snapshot, l))
+                .toArray(int[][]::new);
+    }
+
+    private static int[] stationIndexes(NetworkSnapshot snapshot, LineDetailDto line) {
+        var stops = line.stations();
+        int[] result = new int[stops.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = snapshot.stationIndex(stops.get(i).id());
+        }
+        return result;
+    }
+}
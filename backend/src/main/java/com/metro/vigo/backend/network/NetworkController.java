@@ -0,0 +1,52 @@
+package com.metro.vigo.backend.network;
+
+import com.metro.vigo.backend.concurrency.SnapshotOnly;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@SnapshotOnly
+@RequestMapping("/api/network")
+public class NetworkController {
+
+    static final String VERSION_HEADER = "X-Network-Version";
+
+    private final NetworkSnapshotService snapshots;
+    private final NetworkResponseCache responses;
+
+    public NetworkController(NetworkSnapshotService snapshots, NetworkResponseCache responses) {
+        this.snapshots = snapshots;
+        this.responses = responses;
+    }
+
+    // Whole network in one bundle. JSON by default, compact binary with Accept: application/x-metro-network.
+    // Clients keep the ETag and revalidate with If-None-Match (or poll /version).
+    @GetMapping
+    public ResponseEntity<byte[]> bundle(@RequestHeader HttpHeaders headers) {
+        var cached = wantsBinary(headers)
+                ? responses.binary("network.bin", NetworkBundleCodec.BINARY, NetworkBundleCodec::encode)
+                : responses.json("network", NetworkBundleCodec::toDto);
+
+        var response = cached.toResponseEntity(headers);
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .header(VERSION_HEADER, String.valueOf(cached.version()))
+                .body(response.getBody());
+    }
+
+    @GetMapping("/version")
+    public Map<String, Long> version() {
+        return Map.of("version", snapshots.current().version());
+    }
+
+    private static boolean wantsBinary(HttpHeaders headers) {
+        // Only an explicit Accept selects binary; */* keeps JSON
+        return headers.getAccept().stream()
+                .anyMatch(m -> m.getType().equals(NetworkBundleCodec.BINARY.getType())
+                        && m.getSubtype().equals(NetworkBundleCodec.BINARY.getSubtype()));
+    }
+}
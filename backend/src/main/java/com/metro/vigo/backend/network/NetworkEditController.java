@@ -0,0 +1,39 @@
+package com.metro.vigo.backend.network;
+
+import com.metro.vigo.backend.api.dto.NetworkEditDto;
+import com.metro.vigo.backend.api.dto.NetworkEditResultDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/** Writes to the network. Unauthenticated, so only registered with metro.admin.network-edit.enabled=true. */
+@RestController
+@ConditionalOnProperty(name = "metro.admin.network-edit.enabled", havingValue = "true")
+@RequestMapping("/api/admin/network")
+public class NetworkEditController {
+
+    private final NetworkEditService edits;
+    private final NetworkSnapshotService snapshots;
+
+    public NetworkEditController(NetworkEditService edits, NetworkSnapshotService snapshots) {
+        this.edits = edits;
+        this.snapshots = snapshots;
+    }
+
+    // Everything in the body commits together or not at all. The snapshot is patched on commit,
+    // so the returned version already serves the edits.
+    @PostMapping
+    public NetworkEditResultDto apply(@RequestBody NetworkEditDto body) {
+        var created = edits.apply(body);
+        return new NetworkEditResultDto(snapshots.current().version(), created);
+    }
+
+    // [12, 7, 31]: the line's station ids in stop order
+    @PutMapping("/lines/{id}/stations")
+    public NetworkEditResultDto resequence(@PathVariable Long id, @RequestBody List<Long> stationIds) {
+        if (stationIds == null) throw new IllegalArgumentException("Request body is required");
+        var sequence = new NetworkEditDto.Sequence(String.valueOf(id), stationIds.stream().map(String::valueOf).toList());
+        return apply(new NetworkEditDto(null, null, List.of(sequence)));
+    }
+}
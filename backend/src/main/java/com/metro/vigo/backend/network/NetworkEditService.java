@@ -0,0 +1,242 @@
+package com.metro.vigo.backend.network;
+
+import com.metro.vigo.backend.api.ConflictException;
+import com.metro.vigo.backend.api.NotFoundException;
+import com.metro.vigo.backend.api.dto.NetworkEditDto;
+import com.metro.vigo.backend.incident.IncidentRepository;
+import com.metro.vigo.backend.line.Line;
+import com.metro.vigo.backend.line.LineRepository;
+import com.metro.vigo.backend.line.LineStatusService;
+import com.metro.vigo.backend.station.Station;
+import com.metro.vigo.backend.station.StationRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Admin edits to lines, stations and stop sequences. A batch commits as one transaction; the change log records
+ * every row it writes, and on commit {@link NetworkSnapshotService} patches the served snapshot.
+ */
+@Service
+public class NetworkEditService {
+
+    private static final Pattern COLOR = Pattern.compile("#[0-9A-Fa-f]{6}");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+
+    private final LineRepository lineRepo;
+    private final StationRepository stationRepo;
+    private final LineStationRepository lineStationRepo;
+    private final IncidentRepository incidentRepo;
+
+    public NetworkEditService(LineRepository lineRepo, StationRepository stationRepo,
+                              LineStationRepository lineStationRepo, IncidentRepository incidentRepo) {
+        this.lineRepo = lineRepo;
+        this.stationRepo = stationRepo;
+        this.lineStationRepo = lineStationRepo;
+        this.incidentRepo = incidentRepo;
+    }
+
+    /** Applies the whole batch or nothing. Returns the ids of created stations and lines by key. */
+    @Transactional
+    public Map<String, Long> apply(NetworkEditDto edit) {
+        if (edit == null) throw new IllegalArgumentException("Request body is required");
+
+        Map<String, Long> created = new LinkedHashMap<>();
+        Map<String, Station> newStations = new HashMap<>();
+        Map<String, Line> newLines = new HashMap<>();
+        Set<Long> deletedStations = new LinkedHashSet<>();
+        Set<Long> deletedLines = new LinkedHashSet<>();
+
+        for (var e : orEmpty(edit.stations())) {
+            if (e.delete()) {
+                deletedStations.add(requireId(e.id(), "station"));
+            } else if (e.id() == null) {
+                var key = newKey(e.key(), newStations.keySet(), "station");
+                if (isBlank(e.name())) throw new IllegalArgumentException("New station " + key + " needs a name");
+                checkLocation(e.lat(), e.lon());
+                var station = stationRepo.save(new Station(e.name().trim(), e.lat(), e.lon(), Boolean.TRUE.equals(e.accessible())));
+                newStations.put(key, station);
+                created.put(key, station.getId());
+            } else {
+                update(findStation(e.id()), e);
+            }
+        }
+
+        for (var e : orEmpty(edit.lines())) {
+            if (e.delete()) {
+                deletedLines.add(requireId(e.id(), "line"));
+            } else if (e.id() == null) {
+                var key = newKey(e.key(), newLines.keySet(), "line");
+                if (isBlank(e.code()) || isBlank(e.name()) || e.colorHex() == null) {
+                    throw new IllegalArgumentException("New line " + key + " needs a code, a name and a colorHex");
+                }
+                var line = new Line(uniqueCode(e.code(), null), e.name().trim(), color(e.colorHex()),
+                        e.status() == null ? "OK" : status(e.status()));
+                lineRepo.save(line);
+                newLines.put(key, line);
+                created.put(key, line.getId());
+            } else {
+                update(findLine(e.id()), e);
+            }
+        }
+
+        for (var seq : orEmpty(edit.sequences())) {
+            var line = resolve(seq.line(), newLines, this::findLine, "line");
+            if (deletedLines.contains(line.getId())) {
+                throw new IllegalArgumentException("Line " + line.getId() + " is both resequenced and deleted");
+            }
+            List<Station> stops = new ArrayList<>();
+            Set<Long> seen = new HashSet<>();
+            for (var ref : orEmpty(seq.stations())) {
+                var station = resolve(ref, newStations, this::findStation, "station");
+                if (deletedStations.contains(station.getId())) {
+                    throw new IllegalArgumentException("Station " + station.getId() + " is deleted in the same edit");
+                }
+                if (!seen.add(station.getId())) {
+                    throw new IllegalArgumentException("Station " + station.getId() + " appears twice on line " + line.getCode());
+                }
+                stops.add(station);
+            }
+            resequence(line, stops);
+        }
+
+        for (long id : deletedLines) {
+            var line = findLine(id);
+            if (incidentRepo.existsByLineId(id)) throw new ConflictException("Line " + id + " is referenced by incidents");
+            lineStationRepo.deleteAll(lineStationRepo.findByLineIdWithStationsOrdered(id));
+            lineRepo.delete(line);
+        }
+
+        for (long id : deletedStations) {
+            var station = findStation(id);
+            if (incidentRepo.existsByStationId(id)) throw new ConflictException("Station " + id + " is referenced by incidents");
+            for (var link : lineStationRepo.findByStationIdWithLinesOrdered(id)) {
+                // Close the gap, so positions stay 1..n
+                var rest = lineStationRepo.findByLineIdWithStationsOrdered(link.getLine().getId()).stream()
+                        .map(LineStation::getStation)
+                        .filter(s -> !s.getId().equals(id))
+                        .toList();
+                resequence(link.getLine(), rest);
+            }
+            stationRepo.delete(station);
+        }
+
+        return created;
+    }
+
+    /**
+     * Makes the line's links match {@code stops} (positions 1..n). Links of stations that stay are kept and
+     * only renumbered, so an unchanged sequence writes nothing.
+     */
+    private void resequence(Line line, List<Station> stops) {
+        Map<Long, LineStation> existing = new HashMap<>();
+        for (var ls : lineStationRepo.findByLineIdWithStationsOrdered(line.getId())) existing.put(ls.getStation().getId(), ls);
+
+        for (int i = 0; i < stops.size(); i++) {
+            var ls = existing.remove(stops.get(i).getId());
+            if (ls == null) {
+                lineStationRepo.save(new LineStation(line, stops.get(i), i + 1));
+            } else if (ls.getPosition() != i + 1) {
+                ls.setPosition(i + 1);
+            }
+        }
+        lineStationRepo.deleteAll(existing.values());
+    }
+
+    private void update(Station station, NetworkEditDto.StationEdit e) {
+        if (e.name() != null) {
+            if (e.name().isBlank()) throw new IllegalArgumentException("Station name must not be blank");
+            station.setName(e.name().trim());
+        }
+        if (e.lat() != null || e.lon() != null) {
+            if (e.lat() == null || e.lon() == null) throw new IllegalArgumentException("lat and lon must be given together");
+            checkLocation(e.lat(), e.lon());
+            station.setLat(e.lat());
+            station.setLon(e.lon());
+        }
+        if (e.accessible() != null) station.setAccessible(e.accessible());
+    }
+
+    private void update(Line line, NetworkEditDto.LineEdit e) {
+        if (e.code() != null) line.setCode(uniqueCode(e.code(), line.getId()));
+        if (e.name() != null) {
+            if (e.name().isBlank()) throw new IllegalArgumentException("Line name must not be blank");
+            line.setName(e.name().trim());
+        }
+        if (e.colorHex() != null) line.setColorHex(color(e.colorHex()));
+        if (e.status() != null) line.setStatus(status(e.status()));
+    }
+
+    private String uniqueCode(String code, Long lineId) {
+        if (isBlank(code)) throw new IllegalArgumentException("Line code must not be blank");
+        var trimmed = code.trim();
+        lineRepo.findByCode(trimmed)
+                .filter(other -> !other.getId().equals(lineId))
+                .ifPresent(other -> {
+                    throw new ConflictException("Line code already in use: " + trimmed);
+                });
+        return trimmed;
+    }
+
+    private static String color(String colorHex) {
+        if (!COLOR.matcher(colorHex).matches()) throw new IllegalArgumentException("Invalid colorHex: " + colorHex + " (expected #RRGGBB)");
+        return colorHex.toUpperCase(Locale.ROOT);
+    }
+
+    private static String status(String status) {
+        var normalized = status.trim().toUpperCase(Locale.ROOT);
+        if (!LineStatusService.STATUSES.contains(normalized)) {
+            throw new IllegalArgumentException("Invalid status: " + status + " (expected one of OK, DELAYED, DOWN)");
+        }
+        return normalized;
+    }
+
+    private static void checkLocation(Double lat, Double lon) {
+        if (lat == null && lon == null) return;
+        if (lat == null || lon == null) throw new IllegalArgumentException("lat and lon must be given together");
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new IllegalArgumentException("Invalid location: " + lat + "," + lon);
+        }
+    }
+
+    private Station findStation(long id) {
+        return stationRepo.findById(id).orElseThrow(() -> new NotFoundException("Station not found: " + id));
+    }
+
+    private Line findLine(long id) {
+        return lineRepo.findById(id).orElseThrow(() -> new NotFoundException("Line not found: " + id));
+    }
+
+    // A key from this batch, or an existing id
+    private static <T> T resolve(String ref, Map<String, T> created, Function<Long, T> find, String kind) {
+        if (isBlank(ref)) throw new IllegalArgumentException("Empty " + kind + " reference");
+        var fresh = created.get(ref.trim());
+        if (fresh != null) return fresh;
+        if (!NUMBER.matcher(ref.trim()).matches()) throw new IllegalArgumentException("Unknown " + kind + " key: " + ref);
+        return find.apply(Long.parseLong(ref.trim()));
+    }
+
+    private static String newKey(String key, Set<String> used, String kind) {
+        if (isBlank(key)) throw new IllegalArgumentException("A new " + kind + " needs a key");
+        var trimmed = key.trim();
+        if (NUMBER.matcher(trimmed).matches()) throw new IllegalArgumentException("Key must not be a number: " + key);
+        if (used.contains(trimmed)) throw new IllegalArgumentException("Duplicate " + kind + " key: " + key);
+        return trimmed;
+    }
+
+    private static long requireId(Long id, String kind) {
+        if (id == null) throw new IllegalArgumentException("Deleting a " + kind + " needs its id");
+        return id;
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+}
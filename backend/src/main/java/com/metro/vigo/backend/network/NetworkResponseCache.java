@@ -0,0 +1,73 @@
+package com.metro.vigo.backend.network;
+
+import com.metro.vigo.backend.api.CachedResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Pre-rendered JSON (plain + gzip) for the static network resources.
+ * Renderings are tied to the snapshot instance they were built from, so a new snapshot
+ * invalidates every cached body at once.
+ */
+@Component
+public class NetworkResponseCache {
+
+    private final NetworkSnapshotService snapshots;
+    private final JsonMapper jsonMapper;
+
+    private final AtomicReference<Renderings> renderings = new AtomicReference<>(new Renderings(null));
+
+    public NetworkResponseCache(NetworkSnapshotService snapshots, JsonMapper jsonMapper) {
+        this.snapshots = snapshots;
+        this.jsonMapper = jsonMapper;
+    }
+
+    public CachedResponse lines() {
+        return json("lines", NetworkSnapshot::lines);
+    }
+
+    /** Returns null when the line does not exist. */
+    public CachedResponse lineDetail(long lineId) {
+        var snapshot = snapshots.current();
+        if (snapshot.lineDetail(lineId) == null) return null;
+        return get(snapshot, "line:" + lineId, s -> render(s, MediaType.APPLICATION_JSON, jsonMapper.writeValueAsBytes(s.lineDetail(lineId))));
+    }
+
+    public CachedResponse json(String key, Function<NetworkSnapshot, Object> body) {
+        return get(snapshots.current(), key, s -> render(s, MediaType.APPLICATION_JSON, jsonMapper.writeValueAsBytes(body.apply(s))));
+    }
+
+    public CachedResponse binary(String key, MediaType contentType, Function<NetworkSnapshot, byte[]> body) {
+        return get(snapshots.current(), key, s -> render(s, contentType, body.apply(s)));
+    }
+
+    private CachedResponse get(NetworkSnapshot snapshot, String key, Function<NetworkSnapshot, CachedResponse> renderer) {
+        var r = renderings.get();
+        if (r.snapshot != snapshot) {
+            var fresh = new Renderings(snapshot);
+            // Another thread may already have swapped in renderings for this snapshot
+            r = renderings.compareAndSet(r, fresh) ? fresh : renderings.get();
+            if (r.snapshot != snapshot) r = fresh;
+        }
+        return r.entries.computeIfAbsent(key, k -> renderer.apply(snapshot));
+    }
+
+    private static CachedResponse render(NetworkSnapshot snapshot, MediaType contentType, byte[] body) {
+        return CachedResponse.of(contentType, body, snapshot.version());
+    }
+
+    private static final class Renderings {
+        final NetworkSnapshot snapshot;
+        final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+
+        Renderings(NetworkSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.metro.vigo.backend.network;
+
+import com.metro.vigo.backend.api.Mapper;
+import com.metro.vigo.backend.api.dto.LineDetailDto;
+import com.metro.vigo.backend.api.dto.LineDto;
+import com.metro.vigo.backend.api.dto.StationDto;
+import com.metro.vigo.backend.line.Line;
+import com.metro.vigo.backend.station.Station;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Immutable, read-only view of the network (lines, stations and their ordering).
+ * A new instance is built (or patched from the previous one) whenever the network version changes;
+ * readers never see a partial one.
+ */
+public final class NetworkSnapshot {
+
+    private final long version;
+    private final List<LineDto> lines;
+    private final Map<Long, LineDetailDto> lineDetails;
+    private final List<StationDto> stations;
+    private final Map<Long, StationDto> stationsById;
+    private final Map<Long, Integer> stationIndex;
+    private final Map<Long, List<LineDto>> linesByStation;
+    private final String[] searchNames; // lower-cased, aligned with stations
+    private final Map<Long, Map<Long, Integer>> stopPositions; // line id -> station id -> index in the line's stops
+    private final Footpaths footpaths;
+
+    private NetworkSnapshot(long version, List<LineDto> lines, Map<Long, LineDetailDto> lineDetails, List<StationDto> stations,
+                            Map<Long, StationDto> stationsById, Map<Long, Integer> stationIndex,
+                            Map<Long, List<LineDto>> linesByStation, String[] searchNames,
+                            Map<Long, Map<Long, Integer>> stopPositions, Footpaths footpaths) {
+        this.version = version;
+        this.lines = lines;
+        this.lineDetails = lineDetails;
+        this.stations = stations;
+        this.stationsById = stationsById;
+        this.stationIndex = stationIndex;
+        this.linesByStation = linesByStation;
+        this.searchNames = searchNames;
+        this.stopPositions = stopPositions;
+        this.footpaths = footpaths;
+    }
+
+    private static NetworkSnapshot build(long version, List<LineDto> lines, Map<Long, LineDetailDto> lineDetails, List<StationDto> stations,
+                                         Footpaths.Settings footpathSettings) {
+        // Lines serving each station, by code (as /api/stations/{id}/lines lists them)
+        Map<Long, List<LineDto>> serving = new HashMap<>();
+        for (var line : lines) {
+            var detail = lineDetails.get(line.id());
+            if (detail == null) continue;
+            for (var s : detail.stations()) {
+                var list = serving.computeIfAbsent(s.id(), k -> new ArrayList<>());
+                if (!list.contains(line)) list.add(line);
+            }
+        }
+        serving.replaceAll((id, list) -> byCode(list));
+
+        Map<Long, Map<Long, Integer>> positions = new HashMap<>();
+        for (var detail : lineDetails.values()) positions.put(detail.id(), positions(detail));
+
+        return new NetworkSnapshot(
+                version,
+                lines,
+                lineDetails,
+                stations,
+                byId(stations),
+                indexOf(stations),
+                Collections.unmodifiableMap(serving),
+                searchNames(stations),
+                Collections.unmodifiableMap(positions),
+                Footpaths.build(stations, footpathSettings)
+        );
+    }
+
+    /**
+     * @param lines    all lines, in id order
+     * @param links    all line-station links, ordered by line id and position (with line and station fetched)
+     * @param stations all stations, in name order
+     */
+    public static NetworkSnapshot of(long version, List<Line> lines, List<LineStation> links, List<Station> stations,
+                                     Footpaths.Settings footpathSettings) {
+        Map<Long, List<StationDto>> stopsByLine = new HashMap<>();
+        for (var ls : links) {
+            stopsByLine.computeIfAbsent(ls.getLine().getId(), k -> new ArrayList<>())
+                    .add(Mapper.toStationDto(ls.getStation()));
+        }
+
+        Map<Long, LineDetailDto> details = new LinkedHashMap<>();
+        for (var l : lines) {
+            details.put(l.getId(), new LineDetailDto(
+                    l.getId(),
+                    l.getCode(),
+                    l.getName(),
+                    l.getColorHex(),
+                    l.getStatus(),
+                    List.copyOf(stopsByLine.getOrDefault(l.getId(), List.of()))
+            ));
+        }
+
+        return build(
+                version,
+                lines.stream().map(Mapper::toLineDto).toList(),
+                Collections.unmodifiableMap(details),
+                stations.stream().map(Mapper::toStationDto).toList(),
+                footpathSettings
+        );
+    }
+
+    /** Rebuilds a snapshot from already-mapped DTOs (e.g. decoded from disk). */
+    static NetworkSnapshot of(long version, List<LineDto> lines, Map<Long, LineDetailDto> lineDetails, List<StationDto> stations,
+                              Footpaths.Settings footpathSettings) {
+        return build(version, lines, Collections.unmodifiableMap(lineDetails), stations, footpathSettings);
+    }
+
+    /**
+     * A copy with the given rows replaced. Only the parts they affect are rebuilt: the stop lists of lines that
+     * changed or stop at a changed station, the served-by lists of their stations, the name order and search
+     * names when a station is added, removed or renamed, and footpaths when one moves. Everything else is shared.
+     *
+     * @param changedLines    line id -> current row, or null if deleted
+     * @param changedStations station id -> current row, or null if deleted
+     * @param orderings       line id -> station ids in stop order, for lines whose links changed
+     * @param stationOrder    all station ids in name order; only called when the order can have changed
+     */
+    public NetworkSnapshot patch(long version, Map<Long, LineDto> changedLines, Map<Long, StationDto> changedStations,
+                                 Map<Long, List<Long>> orderings, Supplier<List<Long>> stationOrder,
+                                 Footpaths.Settings footpathSettings) {
+        var stations = this.stations;
+        var byId = this.stationsById;
+        var index = this.stationIndex;
+        var names = this.searchNames;
+        var paths = this.footpaths;
+
+        if (!changedStations.isEmpty()) {
+            boolean reordered = false;
+            Set<Integer> moved = new HashSet<>();
+            for (var e : changedStations.entrySet()) {
+                var before = stationsById.get(e.getKey());
+                var after = e.getValue();
+                if (before == null || after == null) {
+                    reordered |= before != after;
+                } else if (!before.name().equals(after.name())) {
+                    reordered = true;
+                } else if (!Objects.equals(before.lat(), after.lat()) || !Objects.equals(before.lon(), after.lon())) {
+                    moved.add(stationIndex.get(e.getKey()));
+                }
+            }
+
+            if (reordered) {
+                // Names sort by the DB collation, so the order comes from there rather than a Java comparator
+                Map<Long, StationDto> rows = new HashMap<>(stationsById);
+                changedStations.forEach((id, s) -> {
+                    if (s == null) rows.remove(id);
+                    else rows.put(id, s);
+                });
+                stations = stationOrder.get().stream().map(rows::get).filter(Objects::nonNull).toList();
+                byId = byId(stations);
+                index = indexOf(stations);
+                names = searchNames(stations);
+                paths = Footpaths.build(stations, footpathSettings);
+            } else {
+                // Same stations in the same order: replace the rows in place, indices stay valid
+                List<StationDto> copy = new ArrayList<>(this.stations);
+                Map<Long, StationDto> rows = new HashMap<>(stationsById);
+                changedStations.forEach((id, s) -> {
+                    if (s == null) return; // neither served nor in the DB
+                    copy.set(stationIndex.get(id), s);
+                    rows.put(id, s);
+                });
+                stations = Collections.unmodifiableList(copy);
+                byId = Collections.unmodifiableMap(rows);
+                if (!moved.isEmpty()) paths = footpaths.withMoved(stations, moved, footpathSettings);
+            }
+        }
+
+        // Lines whose row or links changed, plus lines stopping at a changed station (their stop lists embed it)
+        Set<Long> affected = new HashSet<>(changedLines.keySet());
+        affected.addAll(orderings.keySet());
+        changedStations.keySet().forEach(id -> linesAt(id).forEach(l -> affected.add(l.id())));
+        if (affected.isEmpty()) {
+            return new NetworkSnapshot(version, lines, lineDetails, stations, byId, index, linesByStation, names, stopPositions, paths);
+        }
+
+        var lines = this.lines;
+        if (!changedLines.isEmpty()) {
+            Map<Long, LineDto> rows = new TreeMap<>();
+            this.lines.forEach(l -> rows.put(l.id(), l));
+            changedLines.forEach((id, l) -> {
+                if (l == null) rows.remove(id);
+                else rows.put(id, l);
+            });
+            lines = List.copyOf(rows.values());
+        }
+
+        Map<Long, LineDetailDto> details = new LinkedHashMap<>();
+        Map<Long, Map<Long, Integer>> positions = new HashMap<>(stopPositions);
+        Map<Long, LineDto> rebuilt = new HashMap<>();
+        Set<Long> touched = new HashSet<>(changedStations.keySet());
+        for (var line : lines) {
+            var before = lineDetails.get(line.id());
+            if (!affected.contains(line.id())) {
+                details.put(line.id(), before);
+                continue;
+            }
+            var stopIds = orderings.containsKey(line.id())
+                    ? orderings.get(line.id())
+                    : before == null ? List.<Long>of() : before.stations().stream().map(StationDto::id).toList();
+            var detail = new LineDetailDto(line.id(), line.code(), line.name(), line.colorHex(), line.status(),
+                    stopIds.stream().map(byId::get).filter(Objects::nonNull).toList());
+            details.put(line.id(), detail);
+            positions.put(line.id(), positions(detail));
+            rebuilt.put(line.id(), line);
+            if (before != null) before.stations().forEach(s -> touched.add(s.id()));
+            detail.stations().forEach(s -> touched.add(s.id()));
+        }
+        changedLines.forEach((id, l) -> {
+            if (l != null) return;
+            positions.remove(id);
+            var before = lineDetails.get(id);
+            if (before != null) before.stations().forEach(s -> touched.add(s.id()));
+        });
+
+        // Served-by lists only for stations on a rebuilt or removed line
+        Map<Long, List<LineDto>> serving = new HashMap<>(linesByStation);
+        for (long stationId : touched) {
+            List<LineDto> list = new ArrayList<>();
+            for (var l : linesByStation.getOrDefault(stationId, List.of())) {
+                if (!affected.contains(l.id())) list.add(l);
+            }
+            rebuilt.forEach((id, l) -> {
+                if (positions.get(id).containsKey(stationId)) list.add(l);
+            });
+            if (list.isEmpty()) serving.remove(stationId);
+            else serving.put(stationId, byCode(list));
+        }
+
+        return new NetworkSnapshot(
+                version,
+                lines,
+                Collections.unmodifiableMap(details),
+                stations,
+                byId,
+                index,
+                Collections.unmodifiableMap(serving),
+                names,
+                Collections.unmodifiableMap(positions),
+                paths
+        );
+    }
+
+    public long version() { return version; }
+    public List<LineDto> lines() { return lines; }
+    public Collection<LineDetailDto> lineDetails() { return lineDetails.values(); }
+    public LineDetailDto lineDetail(long lineId) { return lineDetails.get(lineId); }
+    public List<StationDto> stations() { return stations; }
+    public StationDto station(long stationId) { return stationsById.get(stationId); }
+
+    /** Position of the station in {@link #stations()}, or -1. */
+    public int stationIndex(long stationId) { return stationIndex.getOrDefault(stationId, -1); }
+
+    /** Lines stopping at the station, ordered by code; empty if none (or unknown station). */
+    public List<LineDto> linesAt(long stationId) { return linesByStation.getOrDefault(stationId, List.of()); }
+
+    /** Index of the station in the line's stop sequence, or -1. */
+    public int stopPosition(long lineId, long stationId) {
+        var byStation = stopPositions.get(lineId);
+        if (byStation == null) return -1;
+        return byStation.getOrDefault(stationId, -1);
+    }
+
+    /** Walking links between nearby stations, indexed by {@link #stationIndex(long)}. */
+    public Footpaths footpaths() { return footpaths; }
+
+    /** Case-insensitive name search in name order, like the DB "containing" query. */
+    public List<StationDto> searchStations(String query, int limit) {
+        var q = query.toLowerCase(Locale.ROOT);
+        List<StationDto> result = new ArrayList<>(Math.min(limit, 16));
+        for (int i = 0; i < searchNames.length && result.size() < limit; i++) {
+            if (searchNames[i].contains(q)) result.add(stations.get(i));
+        }
+        return result;
+    }
+
+    private static List<LineDto> byCode(List<LineDto> lines) {
+        return lines.stream().sorted(Comparator.comparing(LineDto::code, String.CASE_INSENSITIVE_ORDER)).toList();
+    }
+
+    private static Map<Long, Integer> positions(LineDetailDto detail) {
+        Map<Long, Integer> byStation = new HashMap<>();
+        for (int i = 0; i < detail.stations().size(); i++) byStation.putIfAbsent(detail.stations().get(i).id(), i);
+        return byStation;
+    }
+
+    private static String[] searchNames(List<StationDto> stations) {
+        String[] names = new String[stations.size()];
+        for (int i = 0; i < names.length; i++) names[i] = stations.get(i).name().toLowerCase(Locale.ROOT);
+        return names;
+    }
+
+    private static Map<Long, StationDto> byId(List<StationDto> stations) {
+        Map<Long, StationDto> byId = new HashMap<>();
+        for (var s : stations) byId.put(s.id(), s);
+        return Collections.unmodifiableMap(byId);
+    }
+
+    private static Map<Long, Integer> indexOf(List<StationDto> stations) {
+        Map<Long, Integer> index = new HashMap<>();
+        for (int i = 0; i < stations.size(); i++) index.put(stations.get(i).id(), i);
+        return Collections.unmodifiableMap(index);
+    }
+}
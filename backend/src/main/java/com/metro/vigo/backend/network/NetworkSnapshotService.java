@@ -0,0 +1,202 @@
+package com.metro.vigo.backend.network;
+
+import com.metro.vigo.backend.api.Mapper;
+import com.metro.vigo.backend.api.dto.LineDto;
+import com.metro.vigo.backend.api.dto.StationDto;
+import com.metro.vigo.backend.line.LineRepository;
+import com.metro.vigo.backend.station.StationRepository;
+import com.metro.vigo.backend.sync.Change;
+import com.metro.vigo.backend.sync.ChangeLogEvent;
+import com.metro.vigo.backend.sync.ChangeLogService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class NetworkSnapshotService {
+
+    private final LineRepository lineRepo;
+    private final StationRepository stationRepo;
+    private final LineStationRepository lineStationRepo;
+    private final ChangeLogService changeLog;
+    private final SnapshotFileStore fileStore;
+    private final Footpaths.Settings footpathSettings;
+
+    private static final Logger log = LoggerFactory.getLogger(NetworkSnapshotService.class);
+
+    // Below this many changed rows a patch is always used, whatever the network size
+    private static final int PATCH_MIN_ROWS = 64;
+
+    private final AtomicReference<NetworkSnapshot> current = new AtomicReference<>();
+    // A lock rather than synchronized: loading blocks on JDBC, which would pin a virtual thread's carrier
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private NetworkSnapshot restored; // guarded by loadLock
+
+    public NetworkSnapshotService(
+            LineRepository lineRepo,
+            StationRepository stationRepo,
+            LineStationRepository lineStationRepo,
+            ChangeLogService changeLog,
+            SnapshotFileStore fileStore,
+            @Value("${metro.footpaths.radius-m:400}") double footpathRadiusMeters,
+            @Value("${metro.footpaths.walk-m-per-min:75}") double walkMetersPerMinute
+    ) {
+        this.lineRepo = lineRepo;
+        this.stationRepo = stationRepo;
+        this.lineStationRepo = lineStationRepo;
+        this.changeLog = changeLog;
+        this.fileStore = fileStore;
+        this.footpathSettings = new Footpaths.Settings(footpathRadiusMeters, walkMetersPerMinute, Footpaths.Settings.DEFAULT.detourFactor());
+
+        // Warm start: serve the last snapshot written to disk until SnapshotStalenessCheck has compared it with the DB
+        this.restored = fileStore != null ? fileStore.read(footpathSettings) : null;
+        current.set(restored);
+    }
+
+    /** Lock-free once loaded; only the first caller (or the first after an invalidation) builds it. */
+    public NetworkSnapshot current() {
+        var snapshot = current.get();
+        return snapshot != null ? snapshot : load();
+    }
+
+    /** The loaded snapshot, or null if the next reader would have to rebuild it (never blocks). */
+    public NetworkSnapshot peek() {
+        return current.get();
+    }
+
+    /** Rebuilds from the DB and swaps the result in; readers keep the previous snapshot meanwhile. */
+    public NetworkSnapshot refresh() {
+        loadLock.lock();
+        try {
+            var snapshot = fromDatabase();
+            current.set(snapshot);
+            restored = null;
+            return snapshot;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /** Drops the current snapshot; the next reader rebuilds it. */
+    public void invalidate() {
+        loadLock.lock();
+        try {
+            current.set(null);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Patches the served snapshot with the changed rows and swaps the copy in. Readers keep using the previous
+     * one until then and never wait; they only load from the DB when nothing was loaded yet or a patch failed.
+     */
+    // First listener, so later ones (push, caches) already see the new network
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onChange(ChangeLogEvent event) {
+        if (!event.touchesNetwork()) return;
+        loadLock.lock();
+        try {
+            var served = current.get();
+            if (served == null) return; // the next reader loads everything anyway
+            // A snapshot restored from disk may be stale, so it is never the base of a patch
+            if (served == restored) {
+                restored = null;
+                current.set(fromDatabase());
+            } else {
+                current.set(patched(served, event.changes()));
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Updating the network snapshot failed, the next reader reloads it", ex);
+            current.set(null);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private NetworkSnapshot load() {
+        loadLock.lock();
+        try {
+            return loadLocked();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private NetworkSnapshot loadLocked() {
+        var snapshot = current.get();
+        if (snapshot == null) {
+            snapshot = fromDatabase();
+            current.set(snapshot);
+        }
+        return snapshot;
+    }
+
+    private NetworkSnapshot patched(NetworkSnapshot served, List<Change> changes) {
+        Set<Long> lineIds = new HashSet<>();
+        Set<Long> stationIds = new HashSet<>();
+        Set<Long> orderedLineIds = new HashSet<>();
+        long version = served.version();
+        for (var c : changes) {
+            switch (c.type()) {
+                case LINE -> lineIds.add(c.entityId());
+                case STATION -> stationIds.add(c.entityId());
+                case LINE_STATIONS -> orderedLineIds.add(c.entityId());
+                default -> { continue; }
+            }
+            version = Math.max(version, c.version());
+        }
+
+        // Bulk loads touch most of the network; one full read is cheaper than patching nearly every part
+        if (lineIds.size() + orderedLineIds.size() > Math.max(PATCH_MIN_ROWS, served.lines().size() / 4)
+                || stationIds.size() > Math.max(PATCH_MIN_ROWS, served.stations().size() / 4)) {
+            return fromDatabase();
+        }
+
+        Map<Long, List<Long>> orderings = new HashMap<>();
+        orderedLineIds.forEach(id -> orderings.put(id, new ArrayList<>()));
+        if (!orderings.isEmpty()) {
+            for (var ls : lineStationRepo.findByLineIdInOrdered(orderedLineIds)) {
+                orderings.get(ls.getLine().getId()).add(ls.getStation().getId());
+            }
+        }
+        // Rows the served snapshot doesn't know yet (committed by a transaction whose event comes later)
+        orderings.keySet().stream().filter(id -> served.lineDetail(id) == null).forEach(lineIds::add);
+        orderings.values().forEach(ids -> ids.stream().filter(id -> served.station(id) == null).forEach(stationIds::add));
+
+        Map<Long, LineDto> lines = new HashMap<>();
+        lineIds.forEach(id -> lines.put(id, null));
+        lineRepo.findAllById(lineIds).forEach(l -> lines.put(l.getId(), Mapper.toLineDto(l)));
+
+        Map<Long, StationDto> stations = new HashMap<>();
+        stationIds.forEach(id -> stations.put(id, null));
+        stationRepo.findAllById(stationIds).forEach(s -> stations.put(s.getId(), Mapper.toStationDto(s)));
+
+        var snapshot = served.patch(version, lines, stations, orderings, stationRepo::findIdsOrderedByName, footpathSettings);
+        if (fileStore != null) fileStore.writeAsync(snapshot);
+        return snapshot;
+    }
+
+    private NetworkSnapshot fromDatabase() {
+        // Read the version first: anything committed while we load is newer and gets synced again
+        var snapshot = NetworkSnapshot.of(
+                changeLog.head(),
+                lineRepo.findAll(Sort.by("id")),
+                lineStationRepo.findAllWithLinesAndStationsOrdered(),
+                stationRepo.findAll(Sort.by("name", "id")),
+                footpathSettings
+        );
+        if (fileStore != null) fileStore.writeAsync(snapshot);
+        return snapshot;
+    }
+}
@@ -0,0 +1,163 @@
+package com.metro.vigo.backend.network;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps the last network snapshot on local disk so a restart can serve before the DB is reachable.
+ *
+ * File layout (big-endian): int magic "MVNS", short file format, int payload length, long CRC32 of
+ * the payload, then the payload in {@link NetworkBundleCodec} format. The file is memory-mapped on read and
+ * replaced atomically on write; anything unreadable (old format, torn file, bad checksum) is ignored.
+ */
+@Component
+public class SnapshotFileStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotFileStore.class);
+
+    static final int MAGIC = 0x4D564E53; // "MVNS"
+    static final short FORMAT = 1;
+    private static final int HEADER_BYTES = 4 + 2 + 4 + 8;
+
+    private final Path file;
+    private final boolean enabled;
+    // One writer, so files land in snapshot order
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("snapshot-writer").factory());
+
+    private volatile long lastWrittenVersion = -1;
+
+    public SnapshotFileStore(
+            @Value("${metro.snapshot.file:data/network.snapshot}") Path file,
+            @Value("${metro.snapshot.enabled:true}") boolean enabled
+    ) {
+        this.file = file;
+        this.enabled = enabled;
+    }
+
+    /** Finishes a pending write, so a clean shutdown leaves the latest snapshot on disk. */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        if (!writer.awaitTermination(10, TimeUnit.SECONDS)) log.warn("Snapshot file {} may not be up to date", file);
+    }
+
+    /** The snapshot stored on disk, or null if there is none usable. Footpaths are rebuilt with the given settings. */
+    public NetworkSnapshot read(Footpaths.Settings footpathSettings) {
+        if (!enabled || !Files.isRegularFile(file)) return null;
+        long start = System.nanoTime();
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getShort() != FORMAT) {
+                log.warn("Ignoring snapshot file {}: unknown format", file);
+                return null;
+            }
+            int length = buffer.getInt();
+            long crc = buffer.getLong();
+            if (length != buffer.remaining()) {
+                log.warn("Ignoring snapshot file {}: truncated", file);
+                return null;
+            }
+
+            var payload = buffer.slice();
+            var checksum = new CRC32();
+            checksum.update(payload.duplicate());
+            if (checksum.getValue() != crc) {
+                log.warn("Ignoring snapshot file {}: checksum mismatch", file);
+                return null;
+            }
+
+            var snapshot = NetworkBundleCodec.decode(new DataInputStream(new BufferInput(payload)), footpathSettings);
+            lastWrittenVersion = snapshot.version();
+            log.info("Loaded network snapshot v{} from {} in {} ms ({} lines, {} stations)",
+                    snapshot.version(), file, (System.nanoTime() - start) / 1_000_000,
+                    snapshot.lines().size(), snapshot.stations().size());
+            return snapshot;
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Ignoring snapshot file {}: {}", file, ex.toString());
+            return null;
+        }
+    }
+
+    /** Writes the snapshot in the background unless this version is already on disk. */
+    public void writeAsync(NetworkSnapshot snapshot) {
+        if (!enabled || snapshot.version() == lastWrittenVersion) return;
+        writer.execute(() -> {
+            if (snapshot.version() == lastWrittenVersion) return;
+            try {
+                write(snapshot);
+                lastWrittenVersion = snapshot.version();
+            } catch (IOException | RuntimeException ex) {
+                log.warn("Could not write snapshot file {}: {}", file, ex.toString());
+            }
+        });
+    }
+
+    private void write(NetworkSnapshot snapshot) throws IOException {
+        byte[] payload = NetworkBundleCodec.encode(snapshot);
+        var crc = new CRC32();
+        crc.update(payload);
+
+        var header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putShort(FORMAT)
+                .putInt(payload.length)
+                .putLong(crc.getValue())
+                .flip();
+
+        var dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        var tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (var channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                var body = ByteBuffer.wrap(payload);
+                while (header.hasRemaining() || body.hasRemaining()) {
+                    channel.write(new ByteBuffer[]{header, body});
+                }
+                channel.force(true);
+            }
+            // Readers see either the old file or the complete new one
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** Sequential reads straight from the mapped buffer (no copy into a byte[]). */
+    private static final class BufferInput extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInput(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) return -1;
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+}
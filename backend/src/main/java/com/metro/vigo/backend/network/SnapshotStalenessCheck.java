@@ -0,0 +1,57 @@
+package com.metro.vigo.backend.network;
+
+import com.metro.vigo.backend.sync.ChangeLogService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compares the snapshot being served (usually the one restored from disk) with the DB and rebuilds it when it is
+ * stale. Run by {@link com.metro.vigo.backend.DatabaseStartup} once the DB answers, after seeding.
+ *
+ * The change-log head catches normal writes; row counts also catch bulk loads that bypass the change log.
+ */
+@Component
+public class SnapshotStalenessCheck {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotStalenessCheck.class);
+
+    private static final String COUNTS = """
+            select (select count(*) from lines),
+                   (select count(*) from stations),
+                   (select count(*) from line_stations)
+            """;
+
+    private final NetworkSnapshotService snapshots;
+    private final ChangeLogService changeLog;
+    private final JdbcTemplate jdbc;
+
+    SnapshotStalenessCheck(NetworkSnapshotService snapshots, ChangeLogService changeLog, JdbcTemplate jdbc) {
+        this.snapshots = snapshots;
+        this.changeLog = changeLog;
+        this.jdbc = jdbc;
+    }
+
+    /** One check; a {@link org.springframework.dao.DataAccessException} means the DB did not answer. */
+    public void run() {
+        var served = snapshots.peek();
+        if (served == null) return; // nothing loaded; the first reader loads from the DB anyway
+
+        long head = changeLog.head();
+        long[] counts = jdbc.queryForObject(COUNTS, (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3)});
+        long links = served.lineDetails().stream().mapToLong(l -> l.stations().size()).sum();
+
+        boolean stale = head != served.version()
+                || counts[0] != served.lines().size()
+                || counts[1] != served.stations().size()
+                || counts[2] != links;
+        // Skip if a change already replaced the snapshot we were checking
+        if (stale && snapshots.peek() == served) {
+            var fresh = snapshots.refresh();
+            log.info("Snapshot v{} was stale, rebuilt from DB as v{}", served.version(), fresh.version());
+        } else if (!stale) {
+            log.info("Snapshot v{} matches the DB", served.version());
+        }
+    }
+}
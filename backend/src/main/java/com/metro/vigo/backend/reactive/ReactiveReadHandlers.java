@@ -0,0 +1,177 @@
+package com.metro.vigo.backend.reactive;
+
+import com.metro.vigo.backend.api.CachedResponse;
+import com.metro.vigo.backend.arrival.ArrivalService;
+import com.metro.vigo.backend.incident.ActiveIncidentCache;
+import com.metro.vigo.backend.journey.JourneyPlannerService;
+import com.metro.vigo.backend.network.NetworkResponseCache;
+import com.metro.vigo.backend.network.NetworkSnapshot;
+import com.metro.vigo.backend.network.NetworkSnapshotService;
+import com.metro.vigo.backend.station.StationCursor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read endpoints for the Netty server. Everything is served from the network snapshot and the
+ * active incident cache; when either has to be (re)loaded from the DB that one load is moved off the event loop.
+ * So is journey planning and on-demand arrival computation: both are CPU work, and a request with the same key
+ * as one in flight blocks until that one finishes.
+ */
+public class ReactiveReadHandlers {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-After";
+    static final int SEARCH_LIMIT = 10;
+    static final int FIRST_PAGE = 20;
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+
+    private final NetworkSnapshotService snapshots;
+    private final NetworkResponseCache responses;
+    private final ActiveIncidentCache incidents;
+    private final ArrivalService arrivals;
+    private final JourneyPlannerService planner;
+
+    public ReactiveReadHandlers(NetworkSnapshotService snapshots, NetworkResponseCache responses,
+                                ActiveIncidentCache incidents, ArrivalService arrivals, JourneyPlannerService planner) {
+        this.snapshots = snapshots;
+        this.responses = responses;
+        this.incidents = incidents;
+        this.arrivals = arrivals;
+        this.planner = planner;
+    }
+
+    public Mono<ServerResponse> lines(ServerRequest request) {
+        return inMemory(() -> cached(responses.lines(), request));
+    }
+
+    public Mono<ServerResponse> line(ServerRequest request) {
+        long id = id(request);
+        return inMemory(() -> {
+            var cached = responses.lineDetail(id);
+            return cached == null ? ServerResponse.notFound().build() : cached(cached, request);
+        });
+    }
+
+    // Same query contract as StationController: ?query= (top 10), no params (first 20), or ?limit=&after=<cursor>
+    public Mono<ServerResponse> stations(ServerRequest request) {
+        var query = request.queryParam("query").map(String::trim).filter(q -> !q.isEmpty());
+        var after = request.queryParam("after").orElse(null);
+        var limit = request.queryParam("limit").map(Integer::valueOf).orElse(null);
+
+        return withSnapshot(snapshot -> {
+            if (query.isPresent()) {
+                return ServerResponse.ok().bodyValue(snapshot.searchStations(query.get(), SEARCH_LIMIT));
+            }
+            var all = snapshot.stations();
+            if (after == null && limit == null) {
+                return ServerResponse.ok().bodyValue(all.subList(0, Math.min(FIRST_PAGE, all.size())));
+            }
+
+            int size = limit == null ? DEFAULT_PAGE_SIZE : limit;
+            if (size < 1 || size > MAX_PAGE_SIZE) {
+                throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+            }
+            int from = 0;
+            if (after != null && !after.isEmpty()) {
+                // The snapshot keeps stations in (name, id) order, so the cursor's id locates the page
+                int index = snapshot.stationIndex(StationCursor.decode(after).id());
+                if (index < 0) throw new IllegalArgumentException("Unknown cursor: " + after);
+                from = index + 1;
+            }
+            var page = all.subList(Math.min(from, all.size()), Math.min(from + size, all.size()));
+
+            var response = ServerResponse.ok();
+            if (page.size() == size) {
+                var last = page.get(page.size() - 1);
+                response.header(NEXT_CURSOR_HEADER, new StationCursor(last.name(), last.id()).encode());
+            }
+            return response.bodyValue(page);
+        });
+    }
+
+    public Mono<ServerResponse> station(ServerRequest request) {
+        long id = id(request);
+        return withSnapshot(snapshot -> {
+            var station = snapshot.station(id);
+            return station == null ? ServerResponse.notFound().build() : ServerResponse.ok().bodyValue(station);
+        });
+    }
+
+    public Mono<ServerResponse> stationLines(ServerRequest request) {
+        long id = id(request);
+        return withSnapshot(snapshot -> ServerResponse.ok().bodyValue(snapshot.linesAt(id)));
+    }
+
+    public Mono<ServerResponse> arrivals(ServerRequest request) {
+        long id = id(request);
+        return inMemory(() -> {
+            var board = arrivals.precomputed(id);
+            return board != null ? ServerResponse.ok().bodyValue(board) : offLoop(() -> arrivals.nextArrivalsForStation(id));
+        });
+    }
+
+    public Mono<ServerResponse> journey(ServerRequest request) {
+        long from = Long.parseLong(required(request, "from"));
+        long to = Long.parseLong(required(request, "to"));
+        Instant when = request.queryParam("datetime")
+                .filter(s -> !s.isBlank())
+                .map(Instant::parse)
+                .orElseGet(Instant::now);
+        return inMemory(() -> offLoop(() -> planner.plan(from, to, when)));
+    }
+
+    public Mono<ServerResponse> incidents(ServerRequest request) {
+        Long lineId = request.queryParam("lineId").map(Long::valueOf).orElse(null);
+        Long stationId = request.queryParam("stationId").map(Long::valueOf).orElse(null);
+        return inMemory(() -> ServerResponse.ok().bodyValue(
+                lineId == null && stationId == null ? incidents.current() : incidents.filtered(lineId, stationId)));
+    }
+
+    public Mono<ServerResponse> activeIncidents(ServerRequest request) {
+        return inMemory(() -> ServerResponse.ok().bodyValue(incidents.current()));
+    }
+
+    private Mono<ServerResponse> withSnapshot(Function<NetworkSnapshot, Mono<ServerResponse>> handler) {
+        return inMemory(() -> handler.apply(snapshots.current()));
+    }
+
+    // Runs the handler on the event loop when both in-memory views are loaded, otherwise loads them on boundedElastic first
+    private Mono<ServerResponse> inMemory(Supplier<Mono<ServerResponse>> handler) {
+        if (snapshots.peek() != null && incidents.peek() != null) {
+            return Mono.defer(handler);
+        }
+        return Mono.fromRunnable(() -> {
+                    snapshots.current();
+                    incidents.current();
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(Mono.defer(handler));
+    }
+
+    private static Mono<ServerResponse> offLoop(Supplier<?> body) {
+        return Mono.fromSupplier(body)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(value -> ServerResponse.ok().bodyValue(value));
+    }
+
+    private static Mono<ServerResponse> cached(CachedResponse cached, ServerRequest request) {
+        ResponseEntity<byte[]> entity = cached.toResponseEntity(request.headers().asHttpHeaders());
+        var response = ServerResponse.status(entity.getStatusCode()).headers(h -> h.addAll(entity.getHeaders()));
+        return entity.getBody() == null ? response.build() : response.bodyValue(entity.getBody());
+    }
+
+    private static long id(ServerRequest request) {
+        return Long.parseLong(request.pathVariable("id"));
+    }
+
+    private static String required(ServerRequest request, String name) {
+        return request.queryParam(name).orElseThrow(() -> new IllegalArgumentException(name + " is required"));
+    }
+}
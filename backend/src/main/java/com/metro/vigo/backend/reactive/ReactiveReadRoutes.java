@@ -0,0 +1,84 @@
+package com.metro.vigo.backend.reactive;
+
+import com.metro.vigo.backend.admission.JourneyAdmission;
+import com.metro.vigo.backend.api.NotFoundException;
+import com.metro.vigo.backend.api.TooManyRequestsException;
+import com.metro.vigo.backend.arrival.ArrivalService;
+import com.metro.vigo.backend.incident.ActiveIncidentCache;
+import com.metro.vigo.backend.journey.JourneyPlannerService;
+import com.metro.vigo.backend.network.NetworkResponseCache;
+import com.metro.vigo.backend.network.NetworkSnapshotService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/** Functional WebFlux routes mirroring the MVC read endpoints; only active with the "reactive" profile. */
+@Configuration
+@Profile("reactive")
+public class ReactiveReadRoutes {
+
+    @Bean
+    public ReactiveReadHandlers reactiveReadHandlers(NetworkSnapshotService snapshots, NetworkResponseCache responses,
+                                                     ActiveIncidentCache incidents, ArrivalService arrivals,
+                                                     JourneyPlannerService planner) {
+        return new ReactiveReadHandlers(snapshots, responses, incidents, arrivals, planner);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveReadRoutes(ReactiveReadHandlers handlers, JourneyAdmission admission) {
+        return routes(handlers, admit(admission));
+    }
+
+    /** {@code journeyAdmission} wraps the journey route the way JourneyAdmissionInterceptor does on the servlet stack. */
+    public static RouterFunction<ServerResponse> routes(ReactiveReadHandlers h,
+                                                        HandlerFilterFunction<ServerResponse, ServerResponse> journeyAdmission) {
+        return route()
+                .GET("/api/lines", h::lines)
+                .GET("/api/lines/{id}", h::line)
+                .GET("/api/stations", h::stations)
+                .GET("/api/stations/{id}", h::station)
+                .GET("/api/stations/{id}/lines", h::stationLines)
+                .GET("/api/stations/{id}/arrivals", h::arrivals)
+                .GET("/api/journey", journeyAdmission.apply(h::journey))
+                .GET("/api/incidents", h::incidents)
+                .GET("/api/incidents/active", h::activeIncidents)
+                .filter(ReactiveReadRoutes::mapErrors)
+                .build();
+    }
+
+    // Same error bodies as ApiExceptionHandler
+    private static Mono<ServerResponse> mapErrors(ServerRequest request, HandlerFunction<ServerResponse> next) {
+        return Mono.defer(() -> next.handle(request))
+                .onErrorResume(NotFoundException.class, ex -> error(HttpStatus.NOT_FOUND, "NOT_FOUND", ex))
+                .onErrorResume(IllegalArgumentException.class, ex -> error(HttpStatus.BAD_REQUEST, "BAD_REQUEST", ex))
+                .onErrorResume(TooManyRequestsException.class, ex -> ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                        .bodyValue(Map.of("error", "TOO_MANY_REQUESTS", "message", ex.getMessage())));
+    }
+
+    // Same client key as the servlet stack (remote address); the permit is held until the response completes or is cancelled
+    static HandlerFilterFunction<ServerResponse, ServerResponse> admit(JourneyAdmission admission) {
+        return (request, next) -> {
+            var client = request.remoteAddress().map(InetSocketAddress::getHostString).orElse("unknown");
+            long start = admission.admit(client);
+            return Mono.defer(() -> next.handle(request)).doFinally(signal -> admission.release(start));
+        };
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String code, Exception ex) {
+        return ServerResponse.status(status).bodyValue(Map.of("error", code, "message", String.valueOf(ex.getMessage())));
+    }
+}
@@ -0,0 +1,79 @@
+package com.metro.vigo.backend.reactive;
+
+import com.metro.vigo.backend.config.WebConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.List;
+
+/**
+ * Serves {@link ReactiveReadRoutes} on its own Reactor Netty port, next to the servlet stack.
+ * Reads run on Netty event loops; writes, sync and streaming stay on the MVC port.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveReadServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveReadServer.class);
+
+    private final RouterFunction<ServerResponse> routes;
+    private final int port;
+
+    private volatile DisposableServer server;
+
+    public ReactiveReadServer(RouterFunction<ServerResponse> reactiveReadRoutes,
+                              @Value("${metro.reactive.port:8081}") int port) {
+        this.routes = reactiveReadRoutes;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        var strategies = HandlerStrategies.builder().webFilter(corsFilter()).build();
+        var handler = RouterFunctions.toHttpHandler(routes, strategies);
+        server = HttpServer.create()
+                .port(port)
+                .compress(false) // cached bodies are already gzip-encoded when the client accepts it
+                .handle(new ReactorHttpHandlerAdapter(handler))
+                .bindNow();
+        log.info("Reactive read API listening on port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        var s = server;
+        if (s != null) s.disposeNow();
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    private static CorsWebFilter corsFilter() {
+        var cors = new CorsConfiguration();
+        cors.setAllowedOrigins(List.of(WebConfig.ALLOWED_ORIGINS));
+        cors.setAllowedMethods(List.of("GET", "OPTIONS"));
+        cors.setAllowedHeaders(List.of("*"));
+        cors.setExposedHeaders(List.of("ETag", "X-Network-Version", "X-Next-After"));
+        cors.setAllowCredentials(true);
+        var source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/api/**", cors);
+        return new CorsWebFilter(source);
+    }
+}
@@ -1,8 +1,10 @@
 package com.metro.vigo.backend.station;
 
+import com.metro.vigo.backend.sync.ChangeLogEntityListener;
 import jakarta.persistence.*;
 
 @Entity
+@EntityListeners(ChangeLogEntityListener.class)
 @Table(name = "stations", indexes = {
         @Index(name = "idx_stations_name", columnList = "name")
 })
@@ -72,6 +74,10 @@ public class Station {
     public String getAccessibilityNote() { return accessibilityNote; }
 
     // Setters (you can add Lombok instead if you want)
+    public void setName(String name) { this.name = name; }
+    public void setLat(Double lat) { this.lat = lat; }
+    public void setLon(Double lon) { this.lon = lon; }
+    public void setAccessible(boolean accessible) { this.accessible = accessible; }
     public void setHasElevator(boolean hasElevator) { this.hasElevator = hasElevator; }
     public void setHasToilets(boolean hasToilets) { this.hasToilets = hasToilets; }
     public void setHasInfoPoint(boolean hasInfoPoint) { this.hasInfoPoint = hasInfoPoint; }
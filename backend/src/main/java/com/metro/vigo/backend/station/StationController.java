@@ -2,8 +2,11 @@ package com.metro.vigo.backend.station;
 
 import com.metro.vigo.backend.api.Mapper;
 import com.metro.vigo.backend.api.dto.StationDto;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.metro.vigo.backend.api.dto.LineDto;
 import com.metro.vigo.backend.network.LineStationRepository;
 import java.util.stream.Collectors;
@@ -15,21 +18,66 @@ import java.util.List;
 @RequestMapping("/api/stations")
 public class StationController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-After";
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+
     private final StationRepository repo;
 
     private final LineStationRepository lineStationRepo;
 
-    public StationController(StationRepository repo, LineStationRepository lineStationRepo) {
+    private final StationExporter exporter;
+
+    public StationController(StationRepository repo, LineStationRepository lineStationRepo, StationExporter exporter) {
         this.repo = repo;
         this.lineStationRepo = lineStationRepo;
+        this.exporter = exporter;
     }
 
+    // /api/stations?query=vig           -> name search (top 10)
+    // /api/stations?limit=50&after=<cursor> -> keyset page; X-Next-After carries the next (opaque) cursor
     @GetMapping
-    public List<StationDto> search(@RequestParam(name = "query", required = false) String query) {
-        var list = (query == null || query.trim().isEmpty())
-                ? repo.findTop20ByOrderByNameAsc()
-                : repo.findTop10ByNameContainingIgnoreCaseOrderByNameAsc(query.trim());
-        return list.stream().map(Mapper::toStationDto).toList();
+    public ResponseEntity<List<StationDto>> search(
+            @RequestParam(name = "query", required = false) String query,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "limit", required = false) Integer limit
+    ) {
+        if (query != null && !query.trim().isEmpty()) {
+            var list = repo.findTop10ByNameContainingIgnoreCaseOrderByNameAsc(query.trim());
+            return ResponseEntity.ok(list.stream().map(Mapper::toStationDto).toList());
+        }
+        if (after == null && limit == null) {
+            var list = repo.findTop20ByOrderByNameAsc();
+            return ResponseEntity.ok(list.stream().map(Mapper::toStationDto).toList());
+        }
+
+        int size = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        List<Station> page;
+        if (after == null || after.isEmpty()) {
+            page = repo.findByOrderByNameAscIdAsc(Limit.of(size));
+        } else {
+            var cursor = StationCursor.decode(after);
+            page = repo.findPageAfter(cursor.name(), cursor.id(), Limit.of(size));
+        }
+
+        var response = ResponseEntity.ok();
+        if (page.size() == size) {
+            var last = page.get(page.size() - 1);
+            response.header(NEXT_CURSOR_HEADER, new StationCursor(last.getName(), last.getId()).encode());
+        }
+        return response.body(page.stream().map(Mapper::toStationDto).toList());
+    }
+
+    // Accept: application/x-ndjson -> every station, one JSON object per line, streamed
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exporter::writeNdjson);
     }
 
     @GetMapping("/{id}")
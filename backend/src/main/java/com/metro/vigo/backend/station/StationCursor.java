@@ -0,0 +1,33 @@
+package com.metro.vigo.backend.station;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset cursor for station pages: the (name, id) of the last station served. Sent as an opaque base64url token
+ * so names with commas, non-ASCII letters or line breaks survive a response header and a query string.
+ */
+public record StationCursor(String name, long id) {
+
+    public String encode() {
+        var raw = name + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static StationCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("after must be a cursor from the X-Next-After header");
+        }
+        // Names may contain commas; the id is always after the last one
+        int comma = raw.lastIndexOf(',');
+        if (comma < 0) throw new IllegalArgumentException("after must be a cursor from the X-Next-After header");
+        try {
+            return new StationCursor(raw.substring(0, comma), Long.parseLong(raw.substring(comma + 1)));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("after must be a cursor from the X-Next-After header");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.metro.vigo.backend.station;
+
+import com.metro.vigo.backend.api.Mapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/** Writes every station as newline-delimited JSON while scrolling the result set. */
+@Service
+public class StationExporter {
+
+    private final StationRepository repo;
+    private final EntityManager entityManager;
+    private final JsonMapper jsonMapper;
+
+    public StationExporter(StationRepository repo, EntityManager entityManager, JsonMapper jsonMapper) {
+        this.repo = repo;
+        this.entityManager = entityManager;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void writeNdjson(OutputStream out) throws IOException {
+        try (var stations = repo.streamAllOrderedByName()) {
+            var it = stations.iterator();
+            while (it.hasNext()) {
+                var station = it.next();
+                out.write(jsonMapper.writeValueAsBytes(Mapper.toStationDto(station)));
+                out.write('\n');
+                // Keep the persistence context (and memory) constant while scrolling
+                entityManager.detach(station);
+            }
+        }
+        out.flush();
+    }
+}
@@ -1,10 +1,39 @@
 package com.metro.vigo.backend.station;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface StationRepository extends JpaRepository<Station, Long> {
     List<Station> findTop10ByNameContainingIgnoreCaseOrderByNameAsc(String query);
     List<Station> findTop20ByOrderByNameAsc();
+
+    // Keyset pagination on (name, id): walks idx_stations_name_id instead of counting an OFFSET
+    List<Station> findByOrderByNameAscIdAsc(Limit limit);
+
+    @Query("""
+        select s
+        from Station s
+        where s.name > :name or (s.name = :name and s.id > :id)
+        order by s.name asc, s.id asc
+    """)
+    List<Station> findPageAfter(@Param("name") String name, @Param("id") long id, Limit limit);
+
+    // Ids only: the snapshot re-sorts its station list by the DB collation after a rename
+    @Query("select s.id from Station s order by s.name asc, s.id asc")
+    List<Long> findIdsOrderedByName();
+
+    // Scrolls with a server-side cursor; callers must run inside a transaction and close the stream
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select s from Station s order by s.name asc, s.id asc")
+    Stream<Station> streamAllOrderedByName();
 }
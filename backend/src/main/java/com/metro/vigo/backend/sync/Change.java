@@ -0,0 +1,12 @@
+package com.metro.vigo.backend.sync;
+
+import java.time.Instant;
+
+/** One committed write. {@code version} is the change log sequence number. */
+public record Change(
+        long version,
+        ChangeType type,
+        long entityId,
+        ChangeOperation operation,
+        Instant createdAt
+) {}
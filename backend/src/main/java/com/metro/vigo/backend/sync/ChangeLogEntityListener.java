@@ -0,0 +1,46 @@
+package com.metro.vigo.backend.sync;
+
+import com.metro.vigo.backend.incident.Incident;
+import com.metro.vigo.backend.line.Line;
+import com.metro.vigo.backend.network.LineStation;
+import com.metro.vigo.backend.station.Station;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/** JPA callbacks that feed every write of the synced entities into the change log. */
+@Component
+public class ChangeLogEntityListener {
+
+    // Lazy: listeners are created while the EntityManagerFactory is still bootstrapping
+    private final ObjectProvider<ChangeLogService> changeLog;
+
+    public ChangeLogEntityListener(ObjectProvider<ChangeLogService> changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void upserted(Object entity) {
+        record(entity, ChangeOperation.UPSERT);
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        // Removing a link changes the line's ordering, it does not delete the line
+        record(entity, entity instanceof LineStation ? ChangeOperation.UPSERT : ChangeOperation.DELETE);
+    }
+
+    private void record(Object entity, ChangeOperation operation) {
+        var log = changeLog.getObject();
+        switch (entity) {
+            case Line l -> log.record(ChangeType.LINE, l.getId(), operation);
+            case Station s -> log.record(ChangeType.STATION, s.getId(), operation);
+            case LineStation ls -> log.record(ChangeType.LINE_STATIONS, ls.getLine().getId(), operation);
+            case Incident i -> log.record(ChangeType.INCIDENT, i.getId(), operation);
+            default -> { }
+        }
+    }
+}
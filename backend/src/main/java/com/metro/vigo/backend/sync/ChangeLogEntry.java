@@ -0,0 +1,37 @@
+package com.metro.vigo.backend.sync;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "change_log")
+public class ChangeLogEntry {
+
+    // Doubles as the change version: monotonically increasing
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private ChangeType entityType;
+
+    @Column(nullable = false)
+    private long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ChangeOperation operation;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    protected ChangeLogEntry() {}
+
+    public Long getId() { return id; }
+    public ChangeType getEntityType() { return entityType; }
+    public long getEntityId() { return entityId; }
+    public ChangeOperation getOperation() { return operation; }
+    public Instant getCreatedAt() { return createdAt; }
+}
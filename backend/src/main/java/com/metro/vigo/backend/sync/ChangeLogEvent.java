@@ -0,0 +1,11 @@
+package com.metro.vigo.backend.sync;
+
+import java.util.List;
+
+/** Published after a transaction with recorded changes commits. */
+public record ChangeLogEvent(List<Change> changes) {
+
+    public boolean touchesNetwork() {
+        return changes.stream().anyMatch(c -> c.type() != ChangeType.INCIDENT);
+    }
+}
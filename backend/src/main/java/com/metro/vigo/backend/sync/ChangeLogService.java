@@ -0,0 +1,250 @@
+package com.metro.vigo.backend.sync;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only log of writes to lines, stations, line-station links and incidents.
+ * Rows go to the {@code change_log} table inside the writing transaction; once it commits,
+ * they are added to an in-memory ring (recent history) and published as a {@link ChangeLogEvent}.
+ *
+ * Each writing transaction also sends a {@code NOTIFY} with its highest version (delivered by Postgres
+ * only on commit), so other nodes can {@link #catchUp()} and publish the same events locally.
+ *
+ * Versions are assigned at insert but become visible at commit. Writers take a transaction-scoped advisory
+ * lock before their first row, so versions commit in order: once a version is visible, every lower one has
+ * committed or never will. {@link #head()} only reports versions below which this node knows every change.
+ */
+@Service
+public class ChangeLogService {
+
+    private static final String INSERT = """
+            insert into change_log (entity_type, entity_id, operation, created_at)
+            values (?, ?, ?, ?)
+            returning id
+            """;
+
+    private static final String HEAD = "select coalesce(max(id), 0) from change_log";
+
+    private static final String SINCE = """
+            select id, entity_type, entity_id, operation, created_at
+            from change_log
+            where id > ?
+            order by id
+            limit ?
+            """;
+
+    private static final String SINCE_UP_TO = """
+            select id, entity_type, entity_id, operation, created_at
+            from change_log
+            where id > ? and id <= ?
+            order by id
+            limit ?
+            """;
+
+    private static final String NOTIFY = "select pg_notify(?, ?)";
+
+    // Held from a transaction's first change log row until it ends (released by Postgres on commit or rollback)
+    private static final String WRITE_LOCK = "select pg_advisory_xact_lock(?)";
+    private static final long WRITE_LOCK_KEY = 0x6D6574726F4C6F67L; // "metroLog"
+
+    private static final int CATCH_UP_BATCH = 5000;
+    // A client further behind than this is sent a full sync instead of a delta read from the table
+    private static final int MAX_DELTA = 5000;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final int ringCapacity;
+    private final String notifyChannel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // Key for the per-transaction pending write
+    private final Object pendingKey = new Object();
+
+    /** Changes of one transaction, and the highest version committed before it took the write lock. */
+    private record PendingWrite(long after, List<Change> changes) {}
+
+    private volatile ChangeRing ring;
+    // Not synchronized: a virtual thread blocked on JDBC inside a monitor would pin its carrier (Java 21)
+    private final ReentrantLock ringLock = new ReentrantLock();
+
+    public ChangeLogService(
+            JdbcTemplate jdbc,
+            TransactionTemplate tx,
+            ApplicationEventPublisher events,
+            @Value("${metro.changelog.ring-capacity:4096}") int ringCapacity,
+            @Value("${metro.cluster.enabled:true}") boolean clusterEnabled,
+            @Value("${metro.cluster.channel:metro_changes}") String channel
+    ) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.events = events;
+        this.ringCapacity = ringCapacity;
+        this.notifyChannel = clusterEnabled ? channel : null;
+    }
+
+    /** Records a write. Must be called inside the writing transaction when there is one; otherwise opens its own. */
+    public void record(ChangeType type, long entityId, ChangeOperation operation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            tx.executeWithoutResult(status -> record(type, entityId, operation));
+            return;
+        }
+        var write = pending();
+        var now = Instant.now();
+        Long version = jdbc.queryForObject(INSERT, Long.class, type.name(), entityId, operation.name(), Timestamp.from(now));
+        write.changes().add(new Change(version, type, entityId, operation, now));
+    }
+
+    /**
+     * Takes the change log write lock for the current transaction. Callers that insert {@code change_log} rows
+     * themselves in bulk SQL call this before the insert, then pass the rows to {@link #recorded}.
+     */
+    public void beginWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Change log writes need a transaction");
+        }
+        pending();
+    }
+
+    /** Registers changes whose {@code change_log} rows the caller inserted itself, like {@link #record} does for one row. */
+    public void recorded(List<Change> changes) {
+        if (changes.isEmpty()) return;
+        var write = (PendingWrite) TransactionSynchronizationManager.getResource(pendingKey);
+        if (write == null) throw new IllegalStateException("beginWrite() must be called before inserting change log rows");
+        write.changes().addAll(changes);
+    }
+
+    /**
+     * Reads committed changes this node has not seen (written by other nodes), adds them to the ring and
+     * publishes them as a {@link ChangeLogEvent}. Returns how many were new.
+     */
+    public int catchUp() {
+        var r = ring();
+        int fresh = 0;
+        while (true) {
+            // Versions commit in order, so reading above the stable version returns every change up to the last row
+            long from = r.stable();
+            List<Change> batch = new ArrayList<>();
+            List<Change> unseen = new ArrayList<>();
+            jdbc.query(SINCE, rs -> {
+                var change = change(rs);
+                batch.add(change);
+                if (r.append(change)) unseen.add(change);
+            }, from, CATCH_UP_BATCH);
+
+            if (!batch.isEmpty()) r.committed(from, batch.getLast().version());
+            if (!unseen.isEmpty()) events.publishEvent(new ChangeLogEvent(List.copyOf(unseen)));
+            fresh += unseen.size();
+            if (batch.size() < CATCH_UP_BATCH) return fresh;
+        }
+    }
+
+    /** Highest committed version in the database, for the listener's poll fallback. */
+    public long databaseHead() {
+        return jdbc.queryForObject(HEAD, Long.class);
+    }
+
+    /** Identifies this node in notification payloads ({@code <nodeId>:<version>}). */
+    public String nodeId() {
+        return nodeId;
+    }
+
+    private void notifyCluster(long version) {
+        if (notifyChannel == null) return;
+        jdbc.query(NOTIFY, rs -> null, notifyChannel, nodeId + ":" + version);
+    }
+
+    /**
+     * Latest version up to which this node knows every committed change. A version handed to clients must never
+     * be higher: a change below it that commits later would never be sent to them.
+     */
+    public long head() {
+        return ring().stable();
+    }
+
+    /**
+     * Changes after {@code version} up to {@link #head()}, in version order. Served from memory when recent enough,
+     * otherwise read from the table; null when more than {@code MAX_DELTA} changes are missing.
+     */
+    public List<Change> since(long version) {
+        var r = ring();
+        long upTo = r.stable();
+        var recent = r.since(version);
+        if (recent != null) return recent;
+
+        var changes = jdbc.query(SINCE_UP_TO, (rs, i) -> change(rs), version, upTo, MAX_DELTA + 1);
+        return changes.size() > MAX_DELTA ? null : changes;
+    }
+
+    private void publish(PendingWrite write) {
+        var changes = write.changes();
+        var r = ring();
+        changes.forEach(r::append);
+        r.committed(write.after(), changes.stream().mapToLong(Change::version).max().orElseThrow());
+        events.publishEvent(new ChangeLogEvent(List.copyOf(changes)));
+    }
+
+    private static Change change(ResultSet rs) throws SQLException {
+        return new Change(
+                rs.getLong("id"),
+                ChangeType.valueOf(rs.getString("entity_type")),
+                rs.getLong("entity_id"),
+                ChangeOperation.valueOf(rs.getString("operation")),
+                rs.getTimestamp("created_at").toInstant());
+    }
+
+    private PendingWrite pending() {
+        var existing = (PendingWrite) TransactionSynchronizationManager.getResource(pendingKey);
+        if (existing != null) return existing;
+
+        ring(); // load the head before our own rows exist
+        // Every version below the ones we are about to get has now committed or rolled back, so the head read
+        // next (a fresh snapshot under read committed) is the last change before ours
+        jdbc.query(WRITE_LOCK, rs -> null, WRITE_LOCK_KEY);
+        var write = new PendingWrite(jdbc.queryForObject(HEAD, Long.class), new ArrayList<>());
+        var changes = write.changes();
+        TransactionSynchronizationManager.bindResource(pendingKey, write);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // NOTIFY is transactional: other nodes hear about the changes only if this commits
+                if (!changes.isEmpty()) notifyCluster(changes.stream().mapToLong(Change::version).max().orElseThrow());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(pendingKey);
+                if (status == STATUS_COMMITTED && !changes.isEmpty()) publish(write);
+            }
+        });
+        return write;
+    }
+
+    private ChangeRing ring() {
+        var r = ring;
+        if (r != null) return r;
+        ringLock.lock();
+        try {
+            // Plain JDBC: this can run inside a Hibernate flush, where JPA queries would re-enter it
+            if (ring == null) ring = new ChangeRing(ringCapacity, jdbc.queryForObject(HEAD, Long.class));
+            return ring;
+        } finally {
+            ringLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.metro.vigo.backend.sync;
+
+public enum ChangeOperation {
+    UPSERT,
+    DELETE
+}
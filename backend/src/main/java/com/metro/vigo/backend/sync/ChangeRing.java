@@ -0,0 +1,99 @@
+package com.metro.vigo.backend.sync;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Fixed-size in-memory tail of the change log, ordered by version.
+ * Answers "what changed since v" without touching the DB as long as v is recent enough.
+ *
+ * Only changes up to {@link #stable()} are served: every change committed with a version at or below it
+ * is known. Changes above it (a local commit whose predecessors have not been read yet) are kept but
+ * held back until the gap below them is closed by {@link #committed}.
+ */
+final class ChangeRing {
+
+    private final Change[] slots;
+    private int start; // index of the oldest entry
+    private int size;
+
+    // Versions at or below floor are not kept (evicted, or older than the ring was loaded at)
+    private long floor;
+    private long stable;
+
+    // Committed ranges (after, upTo] waiting for stable to reach their lower end
+    private final TreeMap<Long, Long> ranges = new TreeMap<>();
+
+    ChangeRing(int capacity, long head) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        this.slots = new Change[capacity];
+        this.floor = head;
+        this.stable = head;
+    }
+
+    /** Adds a change; false if it was already known. A change older than the ring covers is new but not kept. */
+    synchronized boolean append(Change change) {
+        if (change.version() <= stable) return false;
+        if (change.version() <= floor) return true;
+
+        // Transactions can complete out of version order; keep the ring sorted
+        int pos = size;
+        while (pos > 0 && slot(pos - 1).version() > change.version()) pos--;
+        if (pos > 0 && slot(pos - 1).version() == change.version()) return false; // already known
+
+        if (size == slots.length) {
+            if (pos == 0) {
+                // Older than everything we keep: stop claiming to cover it
+                floor = change.version();
+                return true;
+            }
+            floor = slots[start].version();
+            slots[start] = null;
+            start = (start + 1) % slots.length;
+            size--;
+            pos--;
+        }
+
+        for (int i = size; i > pos; i--) {
+            slots[(start + i) % slots.length] = slot(i - 1);
+        }
+        slots[(start + pos) % slots.length] = change;
+        size++;
+        return true;
+    }
+
+    /**
+     * Records that every change with a version in {@code (after, upTo]} that will ever commit has committed and
+     * been appended. Advances {@link #stable()} once nothing is missing below {@code after}.
+     */
+    synchronized void committed(long after, long upTo) {
+        if (upTo <= after) return;
+        ranges.merge(after, upTo, Math::max);
+        while (!ranges.isEmpty() && ranges.firstKey() <= stable) {
+            stable = Math.max(stable, ranges.pollFirstEntry().getValue());
+        }
+    }
+
+    /** Changes in {@code (version, stable]}, or null when the ring no longer covers {@code version}. */
+    synchronized List<Change> since(long version) {
+        if (version < floor) return null;
+
+        List<Change> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            var c = slot(i);
+            if (c.version() > stable) break;
+            if (c.version() > version) result.add(c);
+        }
+        return result;
+    }
+
+    /** Highest version up to which every committed change is known. */
+    synchronized long stable() {
+        return stable;
+    }
+
+    private Change slot(int i) {
+        return slots[(start + i) % slots.length];
+    }
+}
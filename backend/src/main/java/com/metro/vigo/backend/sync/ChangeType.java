@@ -0,0 +1,8 @@
+package com.metro.vigo.backend.sync;
+
+public enum ChangeType {
+    LINE,
+    STATION,
+    LINE_STATIONS,  // entity id is the line id: its station ordering changed
+    INCIDENT
+}
@@ -0,0 +1,152 @@
+package com.metro.vigo.backend.sync;
+
+import com.metro.vigo.backend.metrics.MetricsRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps this node's caches in step with writes made by other replicas.
+ *
+ * Holds one dedicated connection (outside the Hikari pool) on {@code LISTEN <channel>}. A notification from
+ * another node triggers {@link ChangeLogService#catchUp()}, which reads the new change log rows and publishes
+ * them as local {@link ChangeLogEvent}s, so the snapshot, incident cache and SSE streams react as they do to
+ * local writes. Notifications sent while disconnected are lost: every quiet poll interval the database head
+ * is compared with ours, and a reconnect always catches up.
+ */
+@Component
+@ConditionalOnProperty(name = "metro.cluster.enabled", havingValue = "true", matchIfMissing = true)
+public class ClusterChangeListener implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterChangeListener.class);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final ChangeLogService changeLog;
+    private final String url;
+    private final String user;
+    private final String password;
+    private final String channel;
+    private final Duration pollInterval;
+
+    private final LongAdder notified;
+    private final LongAdder polled;
+
+    private volatile boolean running;
+    private volatile Thread thread;
+    private volatile Connection connection;
+
+    public ClusterChangeListener(
+            ChangeLogService changeLog,
+            MetricsRegistry metrics,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username}") String user,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${metro.cluster.channel:metro_changes}") String channel,
+            @Value("${metro.cluster.poll-interval:PT5S}") Duration pollInterval
+    ) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("metro.cluster.channel must be a lower-case SQL identifier: " + channel);
+        }
+        this.changeLog = changeLog;
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.channel = channel;
+        this.pollInterval = pollInterval;
+        this.notified = metrics.counter("cluster_catch_up_changes_total", "trigger", "notify");
+        this.polled = metrics.counter("cluster_catch_up_changes_total", "trigger", "poll");
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = Thread.ofVirtual().name("cluster-listener").start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closeConnection(); // unblocks getNotifications
+        var t = thread;
+        if (t != null) t.interrupt();
+        thread = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        Duration backoff = Duration.ofMillis(500);
+        while (running) {
+            try {
+                listen();
+                backoff = Duration.ofMillis(500);
+            } catch (SQLException | RuntimeException ex) {
+                if (!running) return;
+                log.warn("Cluster change listener disconnected, retrying in {}: {}", backoff, ex.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    private void listen() throws SQLException {
+        try (var c = DriverManager.getConnection(url, user, password)) {
+            connection = c;
+            c.setAutoCommit(true);
+            try (var st = c.createStatement()) {
+                st.execute("LISTEN " + channel);
+            }
+            var pg = c.unwrap(PGConnection.class);
+            String own = changeLog.nodeId() + ":";
+
+            // Anything written while we were not listening
+            polled.add(changeLog.catchUp());
+
+            int timeout = (int) Math.max(1, pollInterval.toMillis());
+            while (running) {
+                PGNotification[] notifications = pg.getNotifications(timeout);
+                if (notifications == null || notifications.length == 0) {
+                    // Quiet interval: cheap head check in case a notification was missed
+                    if (changeLog.databaseHead() > changeLog.head()) polled.add(changeLog.catchUp());
+                    continue;
+                }
+                boolean foreign = false;
+                for (var n : notifications) {
+                    if (!n.getParameter().startsWith(own)) foreign = true;
+                }
+                // One catch-up covers a burst of notifications
+                if (foreign) notified.add(changeLog.catchUp());
+            }
+        } finally {
+            connection = null;
+        }
+    }
+
+    private void closeConnection() {
+        var c = connection;
+        if (c == null) return;
+        try {
+            c.close();
+        } catch (SQLException ignored) {
+            // shutting down
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.metro.vigo.backend.sync;
+
+import com.metro.vigo.backend.api.dto.SyncDto;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    private final SyncService service;
+
+    public SyncController(SyncService service) {
+        this.service = service;
+    }
+
+    // /api/sync?since=42 -> only what changed after version 42 (omit "since" for a full download)
+    @GetMapping
+    public SyncDto sync(@RequestParam(name = "since", defaultValue = "0") long since) {
+        return service.since(since);
+    }
+}
@@ -0,0 +1,116 @@
+package com.metro.vigo.backend.sync;
+
+import com.metro.vigo.backend.api.Mapper;
+import com.metro.vigo.backend.api.dto.IncidentDto;
+import com.metro.vigo.backend.api.dto.LineDto;
+import com.metro.vigo.backend.api.dto.StationDto;
+import com.metro.vigo.backend.api.dto.SyncDto;
+import com.metro.vigo.backend.api.dto.TombstoneDto;
+import com.metro.vigo.backend.incident.IncidentRepository;
+import com.metro.vigo.backend.line.LineRepository;
+import com.metro.vigo.backend.network.LineStation;
+import com.metro.vigo.backend.network.LineStationRepository;
+import com.metro.vigo.backend.station.StationRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+@Service
+public class SyncService {
+
+    private final ChangeLogService changeLog;
+    private final LineRepository lineRepo;
+    private final StationRepository stationRepo;
+    private final LineStationRepository lineStationRepo;
+    private final IncidentRepository incidentRepo;
+
+    public SyncService(
+            ChangeLogService changeLog,
+            LineRepository lineRepo,
+            StationRepository stationRepo,
+            LineStationRepository lineStationRepo,
+            IncidentRepository incidentRepo
+    ) {
+        this.changeLog = changeLog;
+        this.lineRepo = lineRepo;
+        this.stationRepo = stationRepo;
+        this.lineStationRepo = lineStationRepo;
+        this.incidentRepo = incidentRepo;
+    }
+
+    @Transactional(readOnly = true)
+    public SyncDto since(long since) {
+        long head = changeLog.head();
+
+        // No usable client state (or state from another database): send everything
+        if (since <= 0 || since > head) return full(head);
+
+        // Everything up to head is included, so a client resuming from it misses nothing that commits later
+        var changes = changeLog.since(since);
+        if (changes == null) return full(head); // too far behind for a delta
+        if (changes.isEmpty()) {
+            return new SyncDto(head, false, List.of(), List.of(), Map.of(), List.of(), List.of());
+        }
+
+        // Latest operation per entity wins
+        Map<ChangeType, Map<Long, ChangeOperation>> latest = new EnumMap<>(ChangeType.class);
+        long version = head;
+        for (var c : changes) {
+            latest.computeIfAbsent(c.type(), t -> new LinkedHashMap<>()).put(c.entityId(), c.operation());
+            version = Math.max(version, c.version());
+        }
+
+        List<TombstoneDto> tombstones = new ArrayList<>();
+        var lineIds = upserts(latest, ChangeType.LINE, tombstones);
+        var stationIds = upserts(latest, ChangeType.STATION, tombstones);
+        var orderedLineIds = upserts(latest, ChangeType.LINE_STATIONS, tombstones);
+        var incidentIds = upserts(latest, ChangeType.INCIDENT, tombstones);
+
+        List<LineDto> lines = lineIds.isEmpty() ? List.of()
+                : lineRepo.findAllById(lineIds).stream().map(Mapper::toLineDto).toList();
+        List<StationDto> stations = stationIds.isEmpty() ? List.of()
+                : stationRepo.findAllById(stationIds).stream().map(Mapper::toStationDto).toList();
+        List<IncidentDto> incidents = incidentIds.isEmpty() ? List.of()
+                : incidentRepo.findWithRefsByIdIn(incidentIds).stream().map(Mapper::toIncidentDto).toList();
+
+        Map<Long, List<Long>> lineStations = new LinkedHashMap<>();
+        if (!orderedLineIds.isEmpty()) {
+            // A line whose links were all removed syncs as an empty ordering
+            orderedLineIds.forEach(id -> lineStations.put(id, new ArrayList<>()));
+            group(lineStationRepo.findByLineIdInOrdered(orderedLineIds), lineStations);
+        }
+
+        return new SyncDto(version, false, lines, stations, lineStations, incidents, tombstones);
+    }
+
+    private SyncDto full(long head) {
+        Map<Long, List<Long>> lineStations = new LinkedHashMap<>();
+        group(lineStationRepo.findAllWithLinesAndStationsOrdered(), lineStations);
+
+        return new SyncDto(
+                head,
+                true,
+                lineRepo.findAll().stream().map(Mapper::toLineDto).toList(),
+                stationRepo.findAll().stream().map(Mapper::toStationDto).toList(),
+                lineStations,
+                incidentRepo.findActiveWithRefs().stream().map(Mapper::toIncidentDto).toList(),
+                List.of()
+        );
+    }
+
+    private static List<Long> upserts(Map<ChangeType, Map<Long, ChangeOperation>> latest, ChangeType type, List<TombstoneDto> tombstones) {
+        List<Long> ids = new ArrayList<>();
+        latest.getOrDefault(type, Map.of()).forEach((id, op) -> {
+            if (op == ChangeOperation.DELETE) tombstones.add(new TombstoneDto(type.name(), id));
+            else ids.add(id);
+        });
+        return ids;
+    }
+
+    private static void group(List<LineStation> links, Map<Long, List<Long>> into) {
+        for (var ls : links) {
+            into.computeIfAbsent(ls.getLine().getId(), k -> new ArrayList<>()).add(ls.getStation().getId());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.metro.vigo.backend.synthetic;
+
+import com.metro.vigo.backend.DatabaseSeeder;
+import com.metro.vigo.backend.line.LineRepository;
+import com.metro.vigo.backend.station.StationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * With the "synthetic" profile, an empty database gets a generated network instead of the Vigo seed.
+ * Runs before SeedData, which then finds the network tables populated and only adds its incidents.
+ */
+@Configuration
+@Profile("synthetic")
+public class SyntheticDataConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataConfig.class);
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    DatabaseSeeder syntheticNetwork(
+            LineRepository lineRepo,
+            StationRepository stationRepo,
+            SyntheticNetworkLoader loader,
+            @Value("${metro.synthetic.stations:5000}") int stations,
+            @Value("${metro.synthetic.lines:300}") int lines,
+            @Value("${metro.synthetic.seed:42}") long seed
+    ) {
+        return () -> {
+            if (lineRepo.count() > 0 || stationRepo.count() > 0) {
+                log.info("Synthetic network skipped: database already has a network");
+                return;
+            }
+
+            long start = System.nanoTime();
+            var network = SyntheticNetworkGenerator.generate(SyntheticNetworkSpec.of(stations, lines, seed));
+            loader.load(network);
+            log.info("Synthetic network loaded: {} stations, {} lines, {} links in {} ms",
+                    network.stations().size(), network.lines().size(), network.links().size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package com.metro.vigo.backend.synthetic;
+
+import com.metro.vigo.backend.line.Line;
+import com.metro.vigo.backend.network.LineStation;
+import com.metro.vigo.backend.station.Station;
+
+import java.util.List;
+
+/** Unsaved entities; links reference the instances in {@code lines} and {@code stations}. */
+public record SyntheticNetwork(
+        List<Line> lines,
+        List<Station> stations,
+        List<LineStation> links
+) {}
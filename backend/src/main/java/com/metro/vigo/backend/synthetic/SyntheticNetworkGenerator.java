@@ -0,0 +1,207 @@
+package com.metro.vigo.backend.synthetic;
+
+import com.metro.vigo.backend.line.Line;
+import com.metro.vigo.backend.network.LineStation;
+import com.metro.vigo.backend.station.Station;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic metro-like network generator for scale tests and benchmarks.
+ *
+ * Stations are scattered around a centre (denser downtown). Each line is a meandering walk
+ * that snaps to the nearest station ahead of it; lines crossing the same area share stations,
+ * which is where interchanges come from. With the default factor roughly a fifth of the stations
+ * stay unserved, which also gives benchmarks realistic unreachable pairs.
+ */
+public final class SyntheticNetworkGenerator {
+
+    private static final double KM_PER_DEG_LAT = 110.574;
+    private static final double KM_PER_DEG_LON_EQUATOR = 111.320;
+
+    // Squared-distance multiplier for stations another line already serves (1.5x the distance)
+    private static final double SERVED_PENALTY = 2.25;
+
+    private SyntheticNetworkGenerator() {}
+
+    public static SyntheticNetwork generate(SyntheticNetworkSpec spec) {
+        var random = new SplittableRandom(spec.seed());
+        int n = spec.stations();
+
+        // 1) Station positions, in km relative to the centre
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            double r = spec.radiusKm() * Math.pow(random.nextDouble(), 0.75);
+            double theta = random.nextDouble() * 2 * Math.PI;
+            x[i] = r * Math.cos(theta);
+            y[i] = r * Math.sin(theta);
+        }
+
+        // Average distance between neighbouring stations = typical stop spacing
+        double spacing = Math.sqrt(Math.PI * spec.radiusKm() * spec.radiusKm() / n);
+        var grid = new Grid(x, y, spacing);
+
+        // 2) Lines as walks over the stations
+        int avgStops = spec.averageStopsPerLine();
+        List<int[]> sequences = new ArrayList<>(spec.lines());
+        int[] onLine = new int[n]; // line index + 1 that last visited the station
+        for (int l = 0; l < spec.lines(); l++) {
+            int stops = Math.max(3, (int) Math.round(avgStops * (0.7 + 0.6 * random.nextDouble())));
+            sequences.add(walk(random, grid, x, y, spacing, spec.radiusKm(), stops, onLine, l + 1));
+        }
+
+        // 3) Entities
+        double cosLat = Math.cos(Math.toRadians(spec.centerLat()));
+        List<Station> stations = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            var s = new Station(
+                    String.format(Locale.ROOT, "Synthetic %05d", i + 1),
+                    spec.centerLat() + y[i] / KM_PER_DEG_LAT,
+                    spec.centerLon() + x[i] / (KM_PER_DEG_LON_EQUATOR * cosLat),
+                    random.nextDouble() < 0.8
+            );
+            s.setHasElevator(random.nextDouble() < 0.6);
+            s.setHasToilets(random.nextDouble() < 0.2);
+            s.setHasInfoPoint(random.nextDouble() < 0.3);
+            s.setHasEBikes(random.nextDouble() < 0.25);
+            s.setHasBikeParking(random.nextDouble() < 0.5);
+            stations.add(s);
+        }
+
+        List<Line> lines = new ArrayList<>(spec.lines());
+        List<LineStation> links = new ArrayList<>();
+        for (int l = 0; l < sequences.size(); l++) {
+            var line = new Line(
+                    String.format(Locale.ROOT, "S%03d", l + 1),
+                    "Synthetic line " + (l + 1),
+                    String.format(Locale.ROOT, "#%06X", random.nextInt(0x1000000)),
+                    "OK"
+            );
+            lines.add(line);
+
+            int[] seq = sequences.get(l);
+            for (int p = 0; p < seq.length; p++) {
+                links.add(new LineStation(line, stations.get(seq[p]), p + 1));
+            }
+        }
+
+        return new SyntheticNetwork(lines, stations, links);
+    }
+
+    private static int[] walk(SplittableRandom random, Grid grid, double[] x, double[] y,
+                              double spacing, double radius, int stops, int[] onLine, int lineTag) {
+        int[] seq = new int[stops];
+        int current = random.nextInt(x.length);
+        double heading = random.nextDouble() * 2 * Math.PI;
+
+        int count = 0;
+        seq[count++] = current;
+        onLine[current] = lineTag;
+
+        while (count < stops) {
+            // Gentle curves; turn back towards the centre near the edge
+            heading += random.nextGaussian() * 0.25;
+            if (Math.hypot(x[current], y[current]) > radius * 0.9) {
+                heading = Math.atan2(-y[current], -x[current]) + random.nextGaussian() * 0.5;
+            }
+
+            double step = spacing * (1.0 + 0.5 * random.nextDouble());
+            double tx = x[current] + step * Math.cos(heading);
+            double ty = y[current] + step * Math.sin(heading);
+
+            int next = grid.nearest(tx, ty, onLine, lineTag);
+            if (next < 0) break; // every nearby station is already on this line
+            seq[count++] = next;
+            onLine[next] = lineTag;
+            current = next;
+        }
+
+        return count == stops ? seq : Arrays.copyOf(seq, count);
+    }
+
+    /** Uniform grid over the station positions for nearest-neighbour lookups. */
+    private static final class Grid {
+        private final double[] x;
+        private final double[] y;
+        private final double cell;
+        private final double minX;
+        private final double minY;
+        private final int cols;
+        private final int rows;
+        private final int[] cellStart; // CSR: stations of cell c are order[cellStart[c] .. cellStart[c+1])
+        private final int[] order;
+
+        Grid(double[] x, double[] y, double cell) {
+            this.x = x;
+            this.y = y;
+            this.cell = cell;
+
+            double mnX = Double.MAX_VALUE, mnY = Double.MAX_VALUE, mxX = -Double.MAX_VALUE, mxY = -Double.MAX_VALUE;
+            for (int i = 0; i < x.length; i++) {
+                mnX = Math.min(mnX, x[i]);
+                mnY = Math.min(mnY, y[i]);
+                mxX = Math.max(mxX, x[i]);
+                mxY = Math.max(mxY, y[i]);
+            }
+            this.minX = mnX;
+            this.minY = mnY;
+            this.cols = (int) ((mxX - mnX) / cell) + 1;
+            this.rows = (int) ((mxY - mnY) / cell) + 1;
+
+            cellStart = new int[cols * rows + 1];
+            int[] cellOf = new int[x.length];
+            for (int i = 0; i < x.length; i++) {
+                cellOf[i] = cellIndex(col(x[i]), row(y[i]));
+                cellStart[cellOf[i] + 1]++;
+            }
+            for (int c = 0; c < cols * rows; c++) cellStart[c + 1] += cellStart[c];
+
+            order = new int[x.length];
+            int[] fill = Arrays.copyOf(cellStart, cellStart.length);
+            for (int i = 0; i < x.length; i++) order[fill[cellOf[i]]++] = i;
+        }
+
+        /** Nearest station to (tx, ty) not tagged with {@code excludeTag}, searching up to 3 rings; -1 if none. */
+        int nearest(double tx, double ty, int[] tags, int excludeTag) {
+            int cc = Math.clamp(col(tx), 0, cols - 1);
+            int cr = Math.clamp(row(ty), 0, rows - 1);
+
+            int best = -1;
+            double bestD = Double.MAX_VALUE;
+            for (int ring = 0; ring <= 3; ring++) {
+                for (int r = cr - ring; r <= cr + ring; r++) {
+                    if (r < 0 || r >= rows) continue;
+                    for (int c = cc - ring; c <= cc + ring; c++) {
+                        if (c < 0 || c >= cols) continue;
+                        // Only the outer ring is new
+                        if (Math.abs(r - cr) != ring && Math.abs(c - cc) != ring) continue;
+                        int cellIdx = cellIndex(c, r);
+                        for (int k = cellStart[cellIdx]; k < cellStart[cellIdx + 1]; k++) {
+                            int i = order[k];
+                            if (tags[i] == excludeTag) continue;
+                            double d = (x[i] - tx) * (x[i] - tx) + (y[i] - ty) * (y[i] - ty);
+                            // Prefer unserved stations a bit so more of the catalogue gets covered
+                            if (tags[i] != 0) d *= SERVED_PENALTY;
+                            if (d < bestD) {
+                                bestD = d;
+                                best = i;
+                            }
+                        }
+                    }
+                }
+                // Anything in a further ring is at least ring * cell away (penalties only add to that)
+                if (best >= 0 && Math.sqrt(bestD) <= ring * cell) break;
+            }
+            return best;
+        }
+
+        private int col(double px) { return (int) ((px - minX) / cell); }
+        private int row(double py) { return (int) ((py - minY) / cell); }
+        private int cellIndex(int c, int r) { return r * cols + c; }
+    }
+}
@@ -0,0 +1,80 @@
+package com.metro.vigo.backend.synthetic;
+
+import com.metro.vigo.backend.line.Line;
+import com.metro.vigo.backend.station.Station;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk-loads a generated network with JDBC batch inserts (JPA IDENTITY inserts cannot be batched).
+ * Bypasses the entity listeners, so nothing is written to the change log.
+ */
+@Component
+public class SyntheticNetworkLoader {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbc;
+
+    public SyntheticNetworkLoader(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Inserts into empty tables, assigning ids 1..n, and moves the id sequences past them. */
+    @Transactional
+    public void load(SyntheticNetwork network) {
+        Map<Line, Long> lineIds = new IdentityHashMap<>();
+        List<Object[]> lineRows = new ArrayList<>();
+        for (var l : network.lines()) {
+            long id = lineIds.size() + 1;
+            lineIds.put(l, id);
+            lineRows.add(new Object[]{id, l.getCode(), l.getName(), l.getColorHex(), l.getStatus()});
+        }
+
+        Map<Station, Long> stationIds = new IdentityHashMap<>();
+        List<Object[]> stationRows = new ArrayList<>();
+        for (var s : network.stations()) {
+            long id = stationIds.size() + 1;
+            stationIds.put(s, id);
+            stationRows.add(new Object[]{
+                    id, s.getName(), s.getLat(), s.getLon(), s.isAccessible(),
+                    s.isHasElevator(), s.isHasToilets(), s.isHasInfoPoint(), s.isHasEBikes(), s.isHasBikeParking(),
+                    s.getAccessibilityNote()
+            });
+        }
+
+        List<Object[]> linkRows = new ArrayList<>();
+        for (var ls : network.links()) {
+            linkRows.add(new Object[]{
+                    (long) linkRows.size() + 1, lineIds.get(ls.getLine()), stationIds.get(ls.getStation()), ls.getPosition()
+            });
+        }
+
+        batch("insert into lines (id, code, name, color_hex, status) values (?, ?, ?, ?, ?)", lineRows);
+        batch("""
+                insert into stations (id, name, lat, lon, accessible,
+                    has_elevator, has_toilets, has_info_point, hasebikes, has_bike_parking, accessibility_note)
+                values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, stationRows);
+        batch("insert into line_stations (id, line_id, station_id, position) values (?, ?, ?, ?)", linkRows);
+
+        for (var table : List.of("lines", "stations", "line_stations")) {
+            jdbc.queryForObject(
+                    "select setval(pg_get_serial_sequence('" + table + "', 'id'), (select max(id) from " + table + "))",
+                    Long.class
+            );
+        }
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbc.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+}
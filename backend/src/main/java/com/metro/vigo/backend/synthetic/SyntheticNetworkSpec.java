@@ -0,0 +1,33 @@
+package com.metro.vigo.backend.synthetic;
+
+/**
+ * Size and shape of a generated network. Same spec (including seed) = same network.
+ *
+ * @param stationsPerLineFactor how many line visits each station gets on average; values above 1 create interchanges
+ */
+public record SyntheticNetworkSpec(
+        int stations,
+        int lines,
+        double stationsPerLineFactor,
+        double centerLat,
+        double centerLon,
+        double radiusKm,
+        long seed
+) {
+
+    public SyntheticNetworkSpec {
+        if (stations < 2) throw new IllegalArgumentException("stations must be >= 2");
+        if (lines < 1) throw new IllegalArgumentException("lines must be >= 1");
+        if (stationsPerLineFactor <= 0) throw new IllegalArgumentException("stationsPerLineFactor must be > 0");
+        if (radiusKm <= 0) throw new IllegalArgumentException("radiusKm must be > 0");
+    }
+
+    /** Metro-like defaults centred on Vigo: ~1.4 lines per station, 15 km radius. */
+    public static SyntheticNetworkSpec of(int stations, int lines, long seed) {
+        return new SyntheticNetworkSpec(stations, lines, 1.4, 42.2328, -8.7226, 15.0, seed);
+    }
+
+    int averageStopsPerLine() {
+        return Math.max(4, (int) Math.ceil(stations * stationsPerLineFactor / lines));
+    }
+}
@@ -0,0 +1,60 @@
+-- Baseline: the schema Hibernate used to create with ddl-auto=update.
+-- Written with IF NOT EXISTS so databases created that way adopt it unchanged.
+
+create table if not exists lines (
+    id         bigint generated by default as identity primary key,
+    code       varchar(255) not null unique,
+    name       varchar(255) not null,
+    color_hex  varchar(255) not null,
+    status     varchar(255) not null
+);
+
+create table if not exists stations (
+    id                 bigint generated by default as identity primary key,
+    name               varchar(255) not null,
+    lat                float(53),
+    lon                float(53),
+    accessible         boolean not null,
+    has_elevator       boolean not null,
+    has_toilets        boolean not null,
+    has_info_point     boolean not null,
+    hasebikes          boolean not null,
+    has_bike_parking   boolean not null,
+    accessibility_note varchar(240)
+);
+
+create index if not exists idx_stations_name on stations (name);
+
+create table if not exists line_stations (
+    id         bigint generated by default as identity primary key,
+    line_id    bigint not null references lines (id),
+    station_id bigint not null references stations (id),
+    position   integer not null,
+    constraint uq_line_station unique (line_id, station_id)
+);
+
+create index if not exists idx_line_stations_line_pos on line_stations (line_id, position);
+
+create table if not exists incidents (
+    id         bigint generated by default as identity primary key,
+    severity   varchar(255) not null,
+    scope      varchar(255) not null,
+    title      varchar(160) not null,
+    message    varchar(800) not null,
+    active     boolean not null,
+    created_at timestamp(6) with time zone not null,
+    updated_at timestamp(6) with time zone,
+    line_id    bigint references lines (id),
+    station_id bigint references stations (id)
+);
+
+create index if not exists idx_incidents_active on incidents (active);
+create index if not exists idx_incidents_created on incidents (created_at);
+
+create table if not exists change_log (
+    id          bigint generated by default as identity primary key,
+    entity_type varchar(32) not null,
+    entity_id   bigint not null,
+    operation   varchar(16) not null,
+    created_at  timestamp(6) with time zone not null
+);
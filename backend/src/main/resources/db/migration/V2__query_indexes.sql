@@ -0,0 +1,20 @@
+-- Indexes for the queries the application actually runs.
+
+-- findByStationIdWithLinesOrdered: filter on station_id, order by position.
+-- Covers line_id too, so the join to lines needs no heap visit on line_stations.
+create index if not exists idx_line_stations_station_pos
+    on line_stations (station_id, position) include (line_id);
+
+-- Keyset pages (findPageAfter / findByOrderByNameAscIdAsc) order by (name, id)
+create index if not exists idx_stations_name_id on stations (name, id);
+
+-- Active incidents are a handful of rows out of the whole history: a partial index keeps
+-- findActiveWithRefs / findActiveFiltered independent of table size. The severity CASE sort
+-- then runs over just those rows.
+create index if not exists idx_incidents_active_created
+    on incidents (created_at desc)
+    where active;
+
+-- Incident filters by line / station only ever look at active rows
+create index if not exists idx_incidents_active_line on incidents (line_id) where active;
+create index if not exists idx_incidents_active_station on incidents (station_id) where active;
@@ -0,0 +1,33 @@
+-- Resolved incidents move here in background batches (IncidentArchiver), so the live table
+-- only holds active and recently resolved rows.
+create table if not exists incident_archive (
+    id          bigint primary key,
+    severity    varchar(255) not null,
+    scope       varchar(255) not null,
+    title       varchar(160) not null,
+    message     varchar(800) not null,
+    created_at  timestamp(6) with time zone not null,
+    resolved_at timestamp(6) with time zone not null,
+    line_id     bigint,
+    station_id  bigint,
+    archived_at timestamp(6) with time zone not null
+);
+
+-- History pages walk (created_at, id) backwards, optionally for one line
+create index if not exists idx_incident_archive_created_id on incident_archive (created_at desc, id desc);
+create index if not exists idx_incident_archive_line_created_id on incident_archive (line_id, created_at desc, id desc);
+create index if not exists idx_incidents_created_id on incidents (created_at desc, id desc);
+
+-- The archiver picks the oldest resolved rows
+create index if not exists idx_incidents_resolved on incidents (updated_at) where not active;
+
+-- Per-line totals over the archive, updated by each archive batch. line_id 0 = no line.
+create table if not exists incident_line_stats (
+    line_id           bigint primary key,
+    incidents         bigint not null,
+    critical          bigint not null,
+    major             bigint not null,
+    minor             bigint not null,
+    disrupted_seconds bigint not null,
+    last_created_at   timestamp(6) with time zone not null
+);
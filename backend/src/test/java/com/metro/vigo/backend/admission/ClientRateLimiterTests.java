@@ -0,0 +1,55 @@
+package com.metro.vigo.backend.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientRateLimiterTests {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    // One stripe of 16 clients; a bucket of 1 token refills in one second
+    private final ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 1, 16);
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        assertEquals(0, limiter.tryAcquire("a", 0));
+        assertEquals(1, limiter.tryAcquire("a", SECOND / 2));
+        assertEquals(0, limiter.tryAcquire("a", SECOND + SECOND / 2));
+    }
+
+    @Test
+    void fullStripeTurnsAwayNewClientsButServesKnownOnes() {
+        fill(0);
+
+        assertTrue(limiter.tryAcquire("new", SECOND / 2) > 0);
+        assertEquals(16, limiter.clients());
+        assertEquals(0, limiter.tryAcquire("client-3", SECOND));
+    }
+
+    @Test
+    void refilledBucketsArePrunedToMakeRoom() {
+        fill(0);
+
+        assertEquals(0, limiter.tryAcquire("new", 2 * SECOND));
+        assertEquals(1, limiter.clients());
+    }
+
+    @Test
+    void pruneRunsAtMostOncePerInterval() {
+        fill(0);
+        // Prunes nothing (every bucket is still refilling) and starts the interval
+        assertTrue(limiter.tryAcquire("new", SECOND / 2) > 0);
+
+        // Buckets are refilled now, but the next scan is not due yet
+        assertTrue(limiter.tryAcquire("new", SECOND + SECOND / 4) > 0);
+        assertEquals(16, limiter.clients());
+
+        assertEquals(0, limiter.tryAcquire("new", SECOND / 2 + ClientRateLimiter.PRUNE_INTERVAL_NANOS));
+    }
+
+    private void fill(long now) {
+        for (int i = 0; i < 16; i++) assertEquals(0, limiter.tryAcquire("client-" + i, now));
+    }
+}
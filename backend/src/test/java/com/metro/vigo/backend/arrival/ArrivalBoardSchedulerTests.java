@@ -0,0 +1,104 @@
+package com.metro.vigo.backend.arrival;
+
+import com.metro.vigo.backend.sync.Change;
+import com.metro.vigo.backend.sync.ChangeLogEvent;
+import com.metro.vigo.backend.sync.ChangeOperation;
+import com.metro.vigo.backend.sync.ChangeType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/** Builds run off the publishing thread, and changes arriving during a build collapse into one more. */
+class ArrivalBoardSchedulerTests {
+
+    private final ArrivalService arrivals = mock(ArrivalService.class);
+    private final ArrivalBoardScheduler scheduler = new ArrivalBoardScheduler(arrivals);
+
+    @Test
+    void changesDuringABuildAreCoalescedIntoOneMore() throws Exception {
+        var release = blockFirstBuild();
+
+        for (int i = 0; i < 100; i++) {
+            scheduler.onChange(event(ChangeType.STATION));
+            scheduler.onChange(event(ChangeType.INCIDENT));
+        }
+        release.countDown();
+        scheduler.shutdown(); // waits for the queued build
+
+        verify(arrivals, times(2)).precompute();
+        verify(arrivals, never()).recomputeDelayedLines(); // the second full build covers the incident changes
+    }
+
+    @Test
+    void incidentChangesOnlyRecomputeDelayedLines() throws Exception {
+        var release = blockFirstBuild();
+
+        for (int i = 0; i < 100; i++) scheduler.onChange(event(ChangeType.INCIDENT));
+        release.countDown();
+        scheduler.shutdown();
+
+        verify(arrivals, times(1)).precompute();
+        verify(arrivals, times(1)).recomputeDelayedLines();
+    }
+
+    @Test
+    void publisherDoesNotWaitForTheBuild() throws Exception {
+        var release = blockFirstBuild();
+
+        // Returns while the first build is still blocked
+        scheduler.onChange(event(ChangeType.LINE));
+        scheduler.tick();
+
+        release.countDown();
+        scheduler.shutdown();
+        verify(arrivals, times(2)).precompute();
+    }
+
+    @Test
+    void failedBuildDoesNotStopLaterOnes() throws Exception {
+        var failed = new CountDownLatch(1);
+        doAnswer(inv -> {
+            failed.countDown();
+            throw new IllegalStateException("snapshot not loaded");
+        }).when(arrivals).precompute();
+
+        scheduler.tick();
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        scheduler.onChange(event(ChangeType.INCIDENT));
+        scheduler.shutdown();
+
+        verify(arrivals, times(1)).precompute();
+        verify(arrivals, times(1)).recomputeDelayedLines();
+    }
+
+    // Starts a full build that blocks until the returned latch is released
+    private CountDownLatch blockFirstBuild() throws InterruptedException {
+        var building = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            if (building.getCount() > 0) {
+                building.countDown();
+                release.await();
+            }
+            return null;
+        }).when(arrivals).precompute();
+
+        scheduler.tick();
+        assertTrue(building.await(5, TimeUnit.SECONDS), "first build did not start");
+        return release;
+    }
+
+    private static ChangeLogEvent event(ChangeType type) {
+        return new ChangeLogEvent(List.of(new Change(1, type, 1, ChangeOperation.UPSERT, Instant.now())));
+    }
+}
@@ -0,0 +1,94 @@
+package com.metro.vigo.backend.concurrency;
+
+import com.metro.vigo.backend.metrics.MetricsRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Permit accounting across the sync, async and async-dispatch paths, with servlet mocks. */
+class DbConcurrencyLimiterTests {
+
+    private final DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(new MetricsRegistry(), 2, Duration.ofMillis(10));
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    static class Handlers {
+        public ResponseEntity<StreamingResponseBody> export() { return null; }
+        public SseEmitter stream() { return null; }
+        @SnapshotOnly
+        public List<String> cached() { return null; }
+    }
+
+    @Test
+    void streamingBodyKeepsItsPermitUntilTheAsyncRequestCompletes() throws Exception {
+        var handler = handler("export");
+        var request = asyncRequest();
+
+        limiter.preHandle(request, response, handler);
+        request.startAsync();
+        limiter.afterConcurrentHandlingStarted(request, response, handler);
+        assertEquals(1, limiter.availablePermits(), "the export is still reading from its connection");
+
+        request.getAsyncContext().complete();
+        assertEquals(2, limiter.availablePermits());
+    }
+
+    @Test
+    void asyncDispatchAndCompletionReleaseOnlyOnce() throws Exception {
+        var handler = handler("export");
+        var request = asyncRequest();
+
+        limiter.preHandle(request, response, handler);
+        request.startAsync();
+        limiter.afterConcurrentHandlingStarted(request, response, handler);
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        limiter.preHandle(request, response, handler);
+        limiter.afterCompletion(request, response, handler, null);
+        request.getAsyncContext().complete();
+
+        assertEquals(2, limiter.availablePermits());
+    }
+
+    @Test
+    void emitterReleasesAsSoonAsTheHandlerReturns() throws Exception {
+        var handler = handler("stream");
+        var request = asyncRequest();
+
+        limiter.preHandle(request, response, handler);
+        request.startAsync();
+        limiter.afterConcurrentHandlingStarted(request, response, handler);
+
+        assertEquals(2, limiter.availablePermits());
+    }
+
+    @Test
+    void snapshotOnlyHandlerNeverTakesAPermit() throws Exception {
+        var handler = handler("cached");
+        var request = asyncRequest();
+
+        limiter.preHandle(request, response, handler);
+        assertEquals(2, limiter.availablePermits());
+        limiter.afterCompletion(request, response, handler, null);
+        assertEquals(2, limiter.availablePermits());
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), name);
+    }
+
+    private static MockHttpServletRequest asyncRequest() {
+        var request = new MockHttpServletRequest("GET", "/api/stations");
+        request.setAsyncSupported(true);
+        return request;
+    }
+}
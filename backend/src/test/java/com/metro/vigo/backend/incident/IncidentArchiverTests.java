@@ -0,0 +1,134 @@
+package com.metro.vigo.backend.incident;
+
+import com.metro.vigo.backend.sync.Change;
+import com.metro.vigo.backend.sync.ChangeLogEvent;
+import com.metro.vigo.backend.sync.ChangeLogService;
+import com.metro.vigo.backend.sync.ChangeOperation;
+import com.metro.vigo.backend.sync.ChangeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** One archive run against a migrated schema of its own (see {@link TestSchema}). */
+@EnabledIfEnvironmentVariable(named = "DB_URL", matches = ".+")
+class IncidentArchiverTests {
+
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+
+    private TestSchema db;
+    private ChangeLogService changeLog;
+    private IncidentArchiver archiver;
+    private long line;
+
+    @BeforeEach
+    void setUp() {
+        db = new TestSchema("incident_archiver_test");
+        changeLog = new ChangeLogService(db.jdbc, db.tx, events::add, 64, false, "metro_changes_test");
+        // Batches of 2, so a run spans several transactions
+        archiver = new IncidentArchiver(db.jdbc, db.tx, changeLog, Duration.ofHours(1), 2, 10);
+        line = db.jdbc.queryForObject(
+                "insert into lines (code, name, color_hex, status) values ('L1', 'Line 1', '#000000', 'OK') returning id", Long.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void movesResolvedIncidentsWithStatsAndChangeLogRows() {
+        long major = incident("MAJOR", line, false, hoursAgo(3), hoursAgo(2));        // 1 h
+        long critical = incident("CRITICAL", line, false, hoursAgo(5), hoursAgo(4.5)); // 30 min
+        long noLine = incident("MINOR", null, false, hoursAgo(3), null);               // resolved when created
+        long recent = incident("MINOR", line, false, hoursAgo(3), hoursAgo(0.5));
+        long active = incident("MAJOR", line, true, hoursAgo(6), null);
+
+        archiver.archive();
+
+        assertEquals(List.of(recent, active), db.jdbc.queryForList("select id from incidents order by id", Long.class));
+        assertEquals(List.of(major, critical, noLine), db.jdbc.queryForList("select id from incident_archive order by id", Long.class));
+        assertEquals(Timestamp.from(hoursAgo(2)), db.jdbc.queryForObject(
+                "select resolved_at from incident_archive where id = ?", Timestamp.class, major));
+        assertEquals(Timestamp.from(hoursAgo(3)), db.jdbc.queryForObject(
+                "select resolved_at from incident_archive where id = ?", Timestamp.class, noLine));
+
+        assertEquals(List.of(2L, 1L, 1L, 0L, 5400L), stats(line));
+        assertEquals(List.of(1L, 0L, 0L, 1L, 0L), stats(0));
+
+        // One DELETE per archived incident, versioned by change_log and handed to the ring and listeners
+        var rows = db.jdbc.queryForList("select id, entity_type, entity_id, operation from change_log order by id");
+        assertEquals(List.of(major, critical, noLine).stream().sorted().toList(),
+                rows.stream().map(r -> ((Number) r.get("entity_id")).longValue()).sorted().toList());
+        rows.forEach(r -> {
+            assertEquals(ChangeType.INCIDENT.name(), r.get("entity_type"));
+            assertEquals(ChangeOperation.DELETE.name(), r.get("operation"));
+        });
+        var published = published();
+        assertEquals(rows.stream().map(r -> ((Number) r.get("id")).longValue()).toList(),
+                published.stream().map(Change::version).toList());
+        assertEquals(2, events.size(), "one event per batch");
+        assertEquals(published.get(published.size() - 1).version(), changeLog.head());
+    }
+
+    @Test
+    void laterRunsAddToTheStats() {
+        incident("MAJOR", line, false, hoursAgo(3), hoursAgo(2));
+        archiver.archive();
+
+        incident("CRITICAL", line, false, hoursAgo(10), hoursAgo(9));
+        archiver.archive();
+
+        assertEquals(List.of(2L, 1L, 1L, 0L, 7200L), stats(line));
+        assertEquals(Timestamp.from(hoursAgo(3)), db.jdbc.queryForObject(
+                "select last_created_at from incident_line_stats where line_id = ?", Timestamp.class, line));
+    }
+
+    @Test
+    void nothingToArchiveWritesNothing() {
+        incident("MINOR", line, true, hoursAgo(3), null);
+
+        archiver.archive();
+
+        assertEquals(0, db.jdbc.queryForObject("select count(*) from incident_archive", Integer.class));
+        assertEquals(0, db.jdbc.queryForObject("select count(*) from change_log", Integer.class));
+        assertEquals(List.of(), events);
+    }
+
+    private long incident(String severity, Long lineId, boolean active, Instant createdAt, Instant updatedAt) {
+        return db.jdbc.queryForObject("""
+                insert into incidents (severity, scope, title, message, active, created_at, updated_at, line_id)
+                values (?, ?, 'Title', 'Message', ?, ?, ?, ?) returning id
+                """, Long.class, severity, lineId == null ? "NETWORK" : "LINE", active,
+                Timestamp.from(createdAt), updatedAt == null ? null : Timestamp.from(updatedAt), lineId);
+    }
+
+    /** incidents, critical, major, minor, disrupted_seconds */
+    private List<Long> stats(long lineId) {
+        Map<String, Object> row = db.jdbc.queryForMap(
+                "select incidents, critical, major, minor, disrupted_seconds from incident_line_stats where line_id = ?", lineId);
+        return row.values().stream().map(v -> ((Number) v).longValue()).toList();
+    }
+
+    private List<Change> published() {
+        return events.stream()
+                .map(e -> ((ChangeLogEvent) e).changes())
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    private Instant hoursAgo(double hours) {
+        return now.minusSeconds((long) (hours * 3600));
+    }
+}
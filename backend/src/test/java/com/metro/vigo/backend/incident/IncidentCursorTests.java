@@ -0,0 +1,37 @@
+package com.metro.vigo.backend.incident;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncidentCursorTests {
+
+    @Test
+    void roundTripsMicrosecondTimestamps() {
+        var cursor = new IncidentCursor(Instant.parse("2026-03-02T08:15:00.123456Z"), 42);
+
+        var token = cursor.encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+        assertEquals(cursor, IncidentCursor.decode(token));
+    }
+
+    @Test
+    void rejectsTokensThatAreNotCursors() {
+        assertThrows(IllegalArgumentException.class, () -> IncidentCursor.decode("2026-03-02T08:15:00Z,42"));
+        assertThrows(IllegalArgumentException.class, () -> IncidentCursor.decode(new IncidentCursor(Instant.EPOCH, 1).encode() + "!"));
+        assertThrows(IllegalArgumentException.class, () -> IncidentCursor.decode(encoded("yesterday,1")));
+        assertThrows(IllegalArgumentException.class, () -> IncidentCursor.decode(encoded("2026-03-02T08:15:00Z,")));
+        assertThrows(IllegalArgumentException.class, () -> IncidentCursor.decode(encoded("2026-03-02T08:15:00Z")));
+    }
+
+    private static String encoded(String raw) {
+        return Base64.getUrlEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
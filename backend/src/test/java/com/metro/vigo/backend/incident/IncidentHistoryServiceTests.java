@@ -0,0 +1,131 @@
+package com.metro.vigo.backend.incident;
+
+import com.metro.vigo.backend.api.dto.IncidentDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Keyset paging over the live and archived incidents, against a migrated schema of its own (see {@link TestSchema}).
+ * Both tables hold rows with the same created_at, so pages have to break ties by id across the two.
+ */
+@EnabledIfEnvironmentVariable(named = "DB_URL", matches = ".+")
+class IncidentHistoryServiceTests {
+
+    private static final Instant BASE = Instant.parse("2026-03-02T08:00:00.000001Z");
+
+    private TestSchema db;
+    private IncidentHistoryService history;
+    private long lineA;
+    private long lineB;
+    private final List<Row> rows = new ArrayList<>();
+
+    record Row(long id, Instant createdAt, long lineId, boolean archived) {}
+
+    @BeforeEach
+    void setUp() {
+        db = new TestSchema("incident_history_test");
+        history = new IncidentHistoryService(db.jdbc);
+        lineA = line("A");
+        lineB = line("B");
+
+        // Ids interleave between the tables (archived rows keep the id they had when live), and every
+        // created_at is shared by several rows, some live and some archived
+        for (int i = 0; i < 23; i++) {
+            long id = 100 + i;
+            var createdAt = BASE.plus(i % 5, ChronoUnit.MINUTES);
+            long lineId = i % 3 == 0 ? lineB : lineA;
+            boolean archived = i % 2 == 0;
+            if (archived) {
+                db.jdbc.update("""
+                        insert into incident_archive (id, severity, scope, title, message, created_at, resolved_at, line_id, archived_at)
+                        values (?, 'MINOR', 'LINE', 'Archived', 'Message', ?, ?, ?, ?)
+                        """, id, Timestamp.from(createdAt), Timestamp.from(createdAt.plusSeconds(60)), lineId, Timestamp.from(BASE.plusSeconds(3600)));
+            } else {
+                db.jdbc.update("""
+                        insert into incidents (id, severity, scope, title, message, active, created_at, line_id)
+                        values (?, 'MINOR', 'LINE', 'Live', 'Message', ?, ?, ?)
+                        """, id, i % 4 == 1, Timestamp.from(createdAt), lineId);
+            }
+            rows.add(new Row(id, createdAt, lineId, archived));
+        }
+        rows.sort(Comparator.comparing(Row::createdAt).thenComparingLong(Row::id).reversed());
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void pagesWalkBothTablesNewestFirstWithoutGapsOrRepeats() {
+        for (int size : new int[]{1, 2, 3, 5, 23, 50}) {
+            assertEquals(ids(rows), ids(walk(null, null, null, size)), "page size " + size);
+        }
+    }
+
+    @Test
+    void filtersApplyToBothTables() {
+        var from = BASE.plus(1, ChronoUnit.MINUTES);
+        var to = BASE.plus(4, ChronoUnit.MINUTES);
+        var expected = rows.stream()
+                .filter(r -> r.lineId() == lineA && !r.createdAt().isBefore(from) && r.createdAt().isBefore(to))
+                .toList();
+        assertTrue(expected.stream().anyMatch(Row::archived) && expected.stream().anyMatch(r -> !r.archived()));
+
+        assertEquals(ids(expected), ids(walk(from, to, lineA, 2)));
+    }
+
+    @Test
+    void rowsCarryTheirLineAndArchivedOnesAreInactive() {
+        var page = history.history(null, null, null, null, rows.size());
+
+        for (var dto : page) {
+            var row = rows.stream().filter(r -> r.id() == dto.id()).findFirst().orElseThrow();
+            assertEquals(row.createdAt(), dto.createdAt());
+            assertEquals(row.lineId() == lineA ? "A" : "B", dto.lineCode());
+            if (row.archived()) assertFalse(dto.active(), "archived " + dto.id());
+        }
+    }
+
+    @Test
+    void cursorPastTheEndGivesAnEmptyPage() {
+        var oldest = rows.get(rows.size() - 1);
+        assertEquals(List.of(), history.history(null, null, null, new IncidentCursor(oldest.createdAt(), oldest.id()), 10));
+    }
+
+    // Follows the cursors the controller would hand out, page by page
+    private List<IncidentDto> walk(Instant from, Instant to, Long lineId, int size) {
+        List<IncidentDto> all = new ArrayList<>();
+        IncidentCursor cursor = null;
+        while (true) {
+            var page = history.history(from, to, lineId, cursor, size);
+            all.addAll(page);
+            if (page.size() < size) return all;
+            var last = page.get(page.size() - 1);
+            cursor = IncidentCursor.decode(new IncidentCursor(last.createdAt(), last.id()).encode());
+        }
+    }
+
+    private long line(String code) {
+        return db.jdbc.queryForObject(
+                "insert into lines (code, name, color_hex, status) values (?, ?, '#000000', 'OK') returning id",
+                Long.class, code, "Line " + code);
+    }
+
+    private static List<Long> ids(List<?> list) {
+        return list.stream().map(o -> o instanceof Row r ? r.id() : ((IncidentDto) o).id()).toList();
+    }
+}
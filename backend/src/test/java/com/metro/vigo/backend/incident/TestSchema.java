@@ -0,0 +1,37 @@
+package com.metro.vigo.backend.incident;
+
+import com.metro.vigo.backend.migration.SchemaMigrator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * A schema of its own with the app's migrations applied, on a real Postgres (e.g. docker compose up db) given by
+ * DB_URL, DB_USER and DB_PASS. One connection, so the search path holds for everything the test runs.
+ */
+final class TestSchema implements AutoCloseable {
+
+    final JdbcTemplate jdbc;
+    final TransactionTemplate tx;
+
+    private final String name;
+    private final SingleConnectionDataSource dataSource;
+
+    TestSchema(String name) {
+        this.name = name;
+        dataSource = new SingleConnectionDataSource(System.getenv("DB_URL"), System.getenv("DB_USER"), System.getenv("DB_PASS"), true);
+        jdbc = new JdbcTemplate(dataSource);
+        tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbc.execute("drop schema if exists " + name + " cascade");
+        jdbc.execute("create schema " + name);
+        jdbc.execute("set search_path to " + name);
+        new SchemaMigrator(dataSource, "classpath:db/migration").migrate();
+    }
+
+    @Override
+    public void close() {
+        jdbc.execute("drop schema if exists " + name + " cascade");
+        dataSource.destroy();
+    }
+}
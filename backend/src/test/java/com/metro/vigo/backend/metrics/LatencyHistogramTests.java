@@ -0,0 +1,83 @@
+package com.metro.vigo.backend.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTests {
+
+    @Test
+    void bucketsAreContiguousAndContainTheirBounds() {
+        assertEquals(0, LatencyHistogram.lowerBound(0));
+        for (int i = 0; i < LatencyHistogram.BUCKETS - 1; i++) {
+            long lo = LatencyHistogram.lowerBound(i);
+            long hi = LatencyHistogram.upperBound(i);
+            assertEquals(i, LatencyHistogram.index(lo), "lower bound of bucket " + i);
+            assertEquals(i, LatencyHistogram.index(hi), "upper bound of bucket " + i);
+            assertEquals(hi + 1, LatencyHistogram.lowerBound(i + 1), "gap after bucket " + i);
+        }
+    }
+
+    @Test
+    void bucketsAreExactBelowSubCountAndWithinThreePercentAbove() {
+        for (long v = 0; v < LatencyHistogram.SUB_COUNT; v++) {
+            assertEquals(v, LatencyHistogram.index(v));
+        }
+        for (int i = LatencyHistogram.SUB_COUNT; i < LatencyHistogram.BUCKETS - 1; i++) {
+            long lo = LatencyHistogram.lowerBound(i);
+            long width = LatencyHistogram.upperBound(i) - lo + 1;
+            assertTrue(width * LatencyHistogram.SUB_COUNT <= lo, "bucket " + i + " is wider than 1/32 of its values");
+        }
+    }
+
+    @Test
+    void valuesBeyondTheRangeLandInTheLastBucket() {
+        int last = LatencyHistogram.BUCKETS - 1;
+        assertEquals(last, LatencyHistogram.index(Long.MAX_VALUE));
+        assertEquals(last, LatencyHistogram.index(LatencyHistogram.lowerBound(last) * 4));
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBound(last));
+    }
+
+    @Test
+    void percentilesAreWithinBucketPrecision() {
+        var histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) histogram.recordNanos(micros * 1_000);
+
+        var s = histogram.snapshot();
+        assertEquals(1000, s.count());
+        assertEquals(500.5, s.meanMicros(), 1e-9);
+        assertEquals(1000, s.maxMicros());
+
+        assertEquals(1, s.percentileMicros(0));
+        assertWithinPrecision(500, s.percentileMicros(0.5));
+        assertWithinPrecision(900, s.percentileMicros(0.9));
+        assertWithinPrecision(990, s.percentileMicros(0.99));
+        // Capped by the exact maximum rather than the bucket's upper bound
+        assertEquals(1000, s.percentileMicros(1.0));
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        var s = new LatencyHistogram().snapshot();
+        assertEquals(0, s.count());
+        assertEquals(0, s.meanMicros());
+        assertEquals(0, s.percentileMicros(0.99));
+    }
+
+    @Test
+    void negativeDurationsCountAsZero() {
+        var histogram = new LatencyHistogram();
+        histogram.recordNanos(-5_000);
+
+        var s = histogram.snapshot();
+        assertEquals(1, s.counts()[0]);
+        assertEquals(0, s.percentileMicros(0.5));
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        // Reported as the bucket's upper bound: never below the true value, at most 1/32 above it
+        assertTrue(actual >= expected && actual <= expected + expected / LatencyHistogram.SUB_COUNT,
+                "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,78 @@
+package com.metro.vigo.backend.metrics;
+
+import com.metro.vigo.backend.api.dto.MetricsDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class MetricsControllerTests {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+    private final MetricsController controller = new MetricsController(registry);
+
+    @Test
+    void rendersPrometheusTextFormat() {
+        registry.timer("http_request", "route", "/api/lines").recordNanos(2_000_000);
+        registry.counter("requests_total", "route", "/b").add(2);
+        registry.counter("requests_total", "route", "/a").add(3);
+        registry.gauge("pool_size", () -> 2.5);
+
+        var response = controller.metrics("prometheus", new HttpHeaders());
+
+        assertEquals(MetricsController.PROMETHEUS, response.getHeaders().getContentType());
+        assertEquals("""
+                # TYPE http_request_seconds summary
+                http_request_seconds{route="/api/lines",quantile="0.5"} 0.002
+                http_request_seconds{route="/api/lines",quantile="0.9"} 0.002
+                http_request_seconds{route="/api/lines",quantile="0.99"} 0.002
+                http_request_seconds{route="/api/lines",quantile="0.999"} 0.002
+                http_request_seconds_sum{route="/api/lines"} 0.002
+                http_request_seconds_count{route="/api/lines"} 1.0
+                # TYPE requests_total counter
+                requests_total{route="/a"} 3.0
+                requests_total{route="/b"} 2.0
+                # TYPE pool_size gauge
+                pool_size 2.5
+                """, response.getBody());
+    }
+
+    @Test
+    void escapesLabelValues() {
+        registry.counter("errors_total", "message", "say \"hi\"\\now\nplease").increment();
+
+        var body = (String) controller.metrics("prometheus", new HttpHeaders()).getBody();
+
+        assertEquals("""
+                # TYPE errors_total counter
+                errors_total{message="say \\"hi\\"\\\\now\\nplease"} 1.0
+                """, body);
+    }
+
+    @Test
+    void acceptTextPlainSelectsPrometheus() {
+        registry.counter("requests_total").increment();
+        var headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.TEXT_PLAIN));
+
+        var response = controller.metrics(null, headers);
+
+        assertEquals("# TYPE requests_total counter\nrequests_total 1.0\n", response.getBody());
+    }
+
+    @Test
+    void defaultsToJson() {
+        registry.counter("requests_total", "route", "/a").add(3);
+        var headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.ALL));
+
+        var body = assertInstanceOf(MetricsDto.class, controller.metrics(null, headers).getBody());
+
+        assertEquals(List.of(new MetricsDto.Counter("requests_total", Map.of("route", "/a"), 3)), body.counters());
+    }
+}
@@ -0,0 +1,71 @@
+package com.metro.vigo.backend.metrics;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/** The inspector Hibernate calls for every statement, driven directly as an N+1 handler would. */
+class QueryStatsFilterTests {
+
+    private static final String ENDPOINT = "GET /api/lines/{id}";
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+    private final QueryStatsFilter filter = new QueryStatsFilter(registry, 5);
+    private final QueryStatsInspector inspector = new QueryStatsInspector();
+
+    @Test
+    void repeatedStatementShapeIsFlaggedAsNPlusOne() throws Exception {
+        run((req, res) -> {
+            inspector.inspect("select l.* from line l where l.id = ?");
+            // One lookup per station, the way a lazy association in a loop issues them
+            for (int i = 0; i < 6; i++) {
+                inspector.inspect(i % 2 == 0
+                        ? "select s.* from station s where s.id = ?"
+                        : "select s.*\n  from station s\n where s.id = ?");
+            }
+        });
+
+        assertEquals(7, registry.counter("db_queries_total", "endpoint", ENDPOINT).sum());
+        assertEquals(1, registry.counter("db_repeated_statements_total", "endpoint", ENDPOINT).sum());
+    }
+
+    @Test
+    void repeatsUpToTheThresholdAreNotFlagged() throws Exception {
+        run((req, res) -> {
+            inspector.inspect("select l.* from line l where l.id = ?");
+            for (int i = 0; i < 5; i++) inspector.inspect("select s.* from station s where s.id = ?");
+        });
+
+        assertEquals(6, registry.counter("db_queries_total", "endpoint", ENDPOINT).sum());
+        assertFalse(registry.counters().containsKey(new MetricsRegistry.Key("db_repeated_statements_total", List.of("endpoint", ENDPOINT))));
+    }
+
+    @Test
+    void statementsOutsideARequestAreNotCounted() throws Exception {
+        inspector.inspect("select 1");
+        assertNull(QueryStats.current());
+
+        run((req, res) -> assertEquals(0, QueryStats.current().count()));
+        assertNull(QueryStats.current(), "stats must not leak to the next request on this thread");
+    }
+
+    @Test
+    void shapeIgnoresWhitespaceAndInListLength() {
+        assertEquals("select * from t where id in (?) and x = ?",
+                QueryStats.shape("  select *\n\tfrom t   where id in ( ?, ?,? ) and x = ?  "));
+    }
+
+    private void run(FilterChain chain) throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/lines/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/lines/{id}");
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+    }
+}
@@ -0,0 +1,61 @@
+package com.metro.vigo.backend.metrics;
+
+import com.metro.vigo.backend.api.Mapper;
+import com.metro.vigo.backend.incident.IncidentRepository;
+import com.metro.vigo.backend.network.LineStationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * N+1 guard for the fetch-join queries the snapshot and incident cache load with: touching every association
+ * of the result must not issue another statement. Counted by {@link QueryStatsInspector}, as in a request.
+ * Runs against a real Postgres (e.g. docker compose up db) when DB_URL, DB_USER and DB_PASS are set.
+ */
+@SpringBootTest
+@Transactional // lazy associations would load (and be counted) instead of failing
+@EnabledIfEnvironmentVariable(named = "DB_URL", matches = ".+")
+class RepositoryQueryCountTests {
+
+    @Autowired
+    private LineStationRepository lineStationRepo;
+
+    @Autowired
+    private IncidentRepository incidentRepo;
+
+    private QueryStats stats;
+
+    @BeforeEach
+    void open() {
+        stats = QueryStats.open();
+    }
+
+    @AfterEach
+    void close() {
+        QueryStats.close();
+    }
+
+    @Test
+    void lineStationsLoadWithTheirLinesAndStationsInOneStatement() {
+        var links = lineStationRepo.findAllWithLinesAndStationsOrdered();
+        for (var ls : links) {
+            Mapper.toLineDto(ls.getLine());
+            Mapper.toStationDto(ls.getStation());
+        }
+
+        assertEquals(1, stats.count(), () -> "statements: " + stats.mostRepeated());
+    }
+
+    @Test
+    void activeIncidentsLoadWithTheirRefsInOneStatement() {
+        incidentRepo.findActiveWithRefs().forEach(Mapper::toIncidentDto);
+
+        assertEquals(1, stats.count(), () -> "statements: " + stats.mostRepeated());
+    }
+}
@@ -0,0 +1,198 @@
+package com.metro.vigo.backend.migration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SchemaMigratorTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void discoverOrdersByVersionNumberAndSkipsOtherFiles() throws IOException {
+        script("V10__third.sql", "select 10;");
+        script("V2__second_one.sql", "select 2;");
+        script("V1__first.sql", "select 1;");
+        script("README.md", "not a migration");
+        script("V3_single_underscore.sql", "select 3;");
+
+        var migrations = migrator().discover();
+
+        assertEquals(List.of(1, 2, 10), migrations.stream().map(SchemaMigrator.Migration::version).toList());
+        assertEquals("second one", migrations.get(1).description());
+    }
+
+    @Test
+    void duplicateVersionIsRejected() throws IOException {
+        script("V1__first.sql", "select 1;");
+        script("V01__also_first.sql", "select 1;");
+
+        var ex = assertThrows(IllegalStateException.class, () -> migrator().discover());
+        assertTrue(ex.getMessage().startsWith("Duplicate migration version 1"), ex.getMessage());
+    }
+
+    @Test
+    void checksumIgnoresLineEndingsOnly() throws IOException {
+        script("V1__first.sql", "create table a (id int);\nselect 1;\n");
+        long lf = migrator().discover().get(0).checksum();
+
+        script("V1__first.sql", "create table a (id int);\r\nselect 1;\r\n");
+        assertEquals(lf, migrator().discover().get(0).checksum());
+
+        script("V1__first.sql", "create table a (id bigint);\nselect 1;\n");
+        assertNotEquals(lf, migrator().discover().get(0).checksum());
+    }
+
+    @Test
+    void unreachableDatabaseIsRetriedButAFailureOnceConnectedIsNot() throws Exception {
+        script("V1__first.sql", "select 1;");
+        var connection = mock(Connection.class);
+        when(connection.createStatement()).thenThrow(new SQLException("permission denied"));
+        var dataSource = mock(DataSource.class);
+        when(dataSource.getConnection())
+                .thenThrow(new SQLException("Connection refused"))
+                .thenThrow(new SQLException("Connection refused"))
+                .thenReturn(connection);
+
+        var migrator = new SchemaMigrator(dataSource, location(), Duration.ofMillis(1));
+
+        assertThrows(IllegalStateException.class, migrator::migrateWhenReachable);
+        verify(dataSource, times(3)).getConnection();
+        verify(connection).close();
+    }
+
+    @Test
+    void plainMigrateDoesNotWaitForTheDatabase() throws Exception {
+        var dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertThrows(IllegalStateException.class, () -> migrator(dataSource).migrate());
+        verify(dataSource, times(1)).getConnection();
+    }
+
+    /**
+     * Against a real Postgres (e.g. docker compose up db) when DB_URL, DB_USER and DB_PASS are set,
+     * in a schema of its own that is dropped afterwards.
+     */
+    @Nested
+    @EnabledIfEnvironmentVariable(named = "DB_URL", matches = ".+")
+    class AgainstPostgres {
+
+        private static final String SCHEMA = "schema_migrator_test";
+
+        private SingleConnectionDataSource dataSource;
+        private JdbcTemplate jdbc;
+
+        @BeforeEach
+        void setUp() {
+            dataSource = new SingleConnectionDataSource(System.getenv("DB_URL"), System.getenv("DB_USER"), System.getenv("DB_PASS"), true);
+            jdbc = new JdbcTemplate(dataSource);
+            jdbc.execute("drop schema if exists " + SCHEMA + " cascade");
+            jdbc.execute("create schema " + SCHEMA);
+            jdbc.execute("set search_path to " + SCHEMA);
+        }
+
+        @AfterEach
+        void tearDown() {
+            jdbc.execute("drop schema if exists " + SCHEMA + " cascade");
+            dataSource.destroy();
+        }
+
+        @Test
+        void appliesInVersionOrderOnceEach() throws IOException {
+            script("V1__log.sql", "create table applied (id serial primary key, version int not null); insert into applied (version) values (1);");
+            script("V10__ten.sql", "insert into applied (version) values (10);");
+            script("V2__two.sql", "insert into applied (version) values (2);");
+
+            migrator(dataSource).migrate();
+            assertEquals(List.of(1, 2, 10), applied());
+            assertEquals(List.of(1, 2, 10), recorded());
+
+            // A re-run finds nothing to do
+            migrator(dataSource).migrate();
+            assertEquals(List.of(1, 2, 10), applied());
+
+            // Only the new script runs
+            script("V11__eleven.sql", "insert into applied (version) values (11);");
+            migrator(dataSource).migrate();
+            assertEquals(List.of(1, 2, 10, 11), applied());
+            assertEquals(List.of(1, 2, 10, 11), recorded());
+        }
+
+        @Test
+        void editedScriptIsRejectedBeforeAnythingRuns() throws IOException {
+            script("V1__log.sql", "create table applied (id serial primary key, version int not null);");
+            migrator(dataSource).migrate();
+
+            script("V1__log.sql", "create table applied (id bigserial primary key, version int not null);");
+            script("V2__two.sql", "insert into applied (version) values (2);");
+            var ex = assertThrows(IllegalStateException.class, () -> migrator(dataSource).migrate());
+
+            assertTrue(ex.getMessage().contains("V1__log.sql was modified after being applied"), ex.getMessage());
+            assertEquals(List.of(1), recorded());
+            assertEquals(List.of(), applied());
+        }
+
+        @Test
+        void failedScriptIsRolledBackAndNotRecorded() throws IOException {
+            script("V1__log.sql", "create table applied (id serial primary key, version int not null);");
+            script("V2__broken.sql", "create table half_done (id int); insert into no_such_table values (1);");
+
+            var ex = assertThrows(IllegalStateException.class, () -> migrator(dataSource).migrate());
+
+            assertEquals("Migration V2__broken.sql failed", ex.getMessage());
+            assertEquals(List.of(1), recorded());
+            assertEquals(0, jdbc.queryForObject(
+                    "select count(*) from information_schema.tables where table_schema = ? and table_name = 'half_done'",
+                    Integer.class, SCHEMA));
+        }
+
+        private List<Integer> applied() {
+            return jdbc.queryForList("select version from applied order by id", Integer.class);
+        }
+
+        private List<Integer> recorded() {
+            return jdbc.queryForList("select version from schema_migrations order by version", Integer.class);
+        }
+    }
+
+    private SchemaMigrator migrator() {
+        return migrator(mock(DataSource.class));
+    }
+
+    private SchemaMigrator migrator(DataSource dataSource) {
+        return new SchemaMigrator(dataSource, location(), Duration.ofMillis(1));
+    }
+
+    private String location() {
+        return "file:" + dir.toAbsolutePath();
+    }
+
+    private void script(String name, String sql) throws IOException {
+        Files.writeString(dir.resolve(name), sql);
+    }
+}
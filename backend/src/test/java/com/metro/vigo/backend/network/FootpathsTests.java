@@ -0,0 +1,213 @@
+package com.metro.vigo.backend.network;
+
+import com.metro.vigo.backend.api.dto.StationDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link Footpaths} against an O(n²) check of every pair, in the same equirectangular projection.
+ * Footpaths are compared per station as sorted {@code target:minutes} lists, since the grid scan visits
+ * neighbours in cell order.
+ */
+class FootpathsTests {
+
+    private static final Footpaths.Settings SETTINGS = Footpaths.Settings.DEFAULT;
+    private static final double M_PER_DEG_LAT = 110_574;
+    private static final double M_PER_DEG_LON_EQUATOR = 111_320;
+
+    @Test
+    void buildMatchesBruteForce() {
+        for (long seed = 1; seed <= 5; seed++) {
+            var stations = scattered(new Random(seed), 600);
+            assertEquals(bruteForce(stations, SETTINGS), edges(Footpaths.build(stations, SETTINGS), stations.size()), "seed " + seed);
+        }
+    }
+
+    @Test
+    void stationsOnCellEdges() {
+        // On the equator (cos = 1), with a radius whose half steps in degrees are exact doubles, so every
+        // projected coordinate is exact: stations sit on every cell edge, and axis neighbours are exactly one radius apart
+        double radius = M_PER_DEG_LON_EQUATOR * M_PER_DEG_LAT / (1 << 25);
+        var settings = new Footpaths.Settings(radius, 75, 1.3);
+        List<StationDto> stations = new ArrayList<>();
+        for (int r = -4; r <= 4; r++) {
+            for (int c = -4; c <= 4; c++) {
+                stations.add(station(stations.size(), r * M_PER_DEG_LON_EQUATOR / (1 << 26), c * M_PER_DEG_LAT / (1 << 26)));
+            }
+        }
+
+        var footpaths = Footpaths.build(stations, settings);
+
+        assertEquals(bruteForce(stations, settings), edges(footpaths, stations.size()));
+        int centre = stations.size() / 2;
+        assertTrue(targets(footpaths, centre).contains(centre + 2), "a station exactly one radius away is in reach");
+        assertTrue(targets(footpaths, centre).contains(centre + 9 + 1), "half a cell diagonally");
+        assertFalse(targets(footpaths, centre).contains(centre + 9 + 2), "half a cell by a whole cell is out of reach");
+    }
+
+    @Test
+    void stationsWithoutValidCoordinatesGetNoFootpaths() {
+        var stations = new ArrayList<>(scattered(new Random(7), 200));
+        int firstInvalid = stations.size();
+        stations.add(station(firstInvalid, null, -8.72));
+        stations.add(station(firstInvalid + 1, 42.23, null));
+        stations.add(station(firstInvalid + 2, null, null));
+        stations.add(station(firstInvalid + 3, Double.NaN, -8.72));
+        stations.add(station(firstInvalid + 4, 42.23, Double.NaN));
+        stations.add(station(firstInvalid + 5, 90.0001, -8.72));
+        stations.add(station(firstInvalid + 6, 42.23, -180.0001));
+        stations.add(station(firstInvalid + 7, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY));
+        // Valid, but thousands of cells away from the rest: linked only to each other
+        stations.add(station(firstInvalid + 8, 89.99, 179.99));
+        stations.add(station(firstInvalid + 9, 89.99, 179.9901));
+
+        var footpaths = Footpaths.build(stations, SETTINGS);
+
+        assertEquals(bruteForce(stations, SETTINGS), edges(footpaths, stations.size()));
+        for (int i = 0; i < footpaths.size(); i++) {
+            assertTrue(footpaths.target(i) < firstInvalid || footpaths.target(i) >= firstInvalid + 8, "edge to an invalid station");
+        }
+        for (int i = firstInvalid; i < firstInvalid + 8; i++) {
+            assertEquals(footpaths.start(i), footpaths.end(i), "station " + i);
+        }
+        assertEquals(List.of(firstInvalid + 9), targets(footpaths, firstInvalid + 8));
+    }
+
+    @Test
+    void nothingToBuild() {
+        var stations = scattered(new Random(3), 50);
+        assertEquals(0, Footpaths.build(stations, Footpaths.Settings.NONE).size());
+        assertEquals(0, Footpaths.build(List.of(station(0, null, null), station(1, null, null)), SETTINGS).size());
+        assertEquals(0, Footpaths.build(List.of(), SETTINGS).size());
+    }
+
+    @Test
+    void withMovedMatchesBruteForceInTheOriginalProjection() {
+        var random = new Random(11);
+        var before = new ArrayList<>(scattered(random, 400));
+        var footpaths = Footpaths.build(before, SETTINGS);
+        double mPerDegLon = mPerDegLon(before);
+
+        var after = new ArrayList<>(before);
+        Set<Integer> moved = new HashSet<>();
+        while (moved.size() < 32) {
+            int i = random.nextInt(after.size());
+            if (!moved.add(i)) continue;
+            // Some stations lose their coordinates, some get them back
+            var s = after.get(i);
+            after.set(i, s.lat() == null || moved.size() % 8 != 0
+                    ? station(i, 42.20 + random.nextDouble() * 0.04, -8.74 + random.nextDouble() * 0.04)
+                    : station(i, null, null));
+        }
+
+        var patched = footpaths.withMoved(after, moved, SETTINGS);
+
+        assertEquals(bruteForce(after, SETTINGS, mPerDegLon), edges(patched, after.size()));
+    }
+
+    @Test
+    void withMovedFallsBackToAFullBuildAbove32Stations() {
+        var random = new Random(13);
+        var before = scattered(random, 400);
+        var footpaths = Footpaths.build(before, SETTINGS);
+
+        // Move 33 stations well north, which shifts the mean latitude (and so the projection) a full build uses
+        var after = new ArrayList<>(before);
+        Set<Integer> moved = new HashSet<>();
+        for (int i = 0; moved.size() < 33; i += 7) {
+            moved.add(i);
+            after.set(i, station(i, 43.0 + random.nextDouble() * 0.01, -8.72 + random.nextDouble() * 0.01));
+        }
+
+        var patched = footpaths.withMoved(after, moved, SETTINGS);
+
+        var rebuilt = edges(Footpaths.build(after, SETTINGS), after.size());
+        assertEquals(rebuilt, edges(patched, after.size()));
+        assertEquals(bruteForce(after, SETTINGS), rebuilt);
+    }
+
+    /** Around Vigo, about 4 x 4 km with some clusters, and one station in 20 without coordinates. */
+    private static List<StationDto> scattered(Random random, int n) {
+        List<StationDto> stations = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (i % 20 == 0) {
+                stations.add(station(i, null, null));
+            } else if (i % 5 == 0 && i > 5) {
+                var near = stations.get(i - 1);
+                double lat = near.lat() == null ? 42.22 : near.lat();
+                double lon = near.lon() == null ? -8.72 : near.lon();
+                stations.add(station(i, lat + random.nextGaussian() * 0.002, lon + random.nextGaussian() * 0.002));
+            } else {
+                stations.add(station(i, 42.20 + random.nextDouble() * 0.04, -8.74 + random.nextDouble() * 0.05));
+            }
+        }
+        return stations;
+    }
+
+    private static List<List<String>> bruteForce(List<StationDto> stations, Footpaths.Settings settings) {
+        return bruteForce(stations, settings, mPerDegLon(stations));
+    }
+
+    private static List<List<String>> bruteForce(List<StationDto> stations, Footpaths.Settings settings, double mPerDegLon) {
+        double r = settings.radiusMeters();
+        List<List<String>> expected = new ArrayList<>();
+        for (int i = 0; i < stations.size(); i++) {
+            List<String> reach = new ArrayList<>();
+            var a = stations.get(i);
+            for (int j = 0; j < stations.size() && located(a); j++) {
+                var b = stations.get(j);
+                if (j == i || !located(b)) continue;
+                double dx = b.lon() * mPerDegLon - a.lon() * mPerDegLon;
+                double dy = b.lat() * M_PER_DEG_LAT - a.lat() * M_PER_DEG_LAT;
+                double d2 = dx * dx + dy * dy;
+                if (d2 > r * r) continue;
+                int minutes = Math.max(1, (int) Math.ceil(Math.sqrt(d2) * settings.detourFactor() / settings.metersPerMinute()));
+                reach.add(j + ":" + minutes);
+            }
+            reach.sort(null);
+            expected.add(reach);
+        }
+        return expected;
+    }
+
+    private static List<List<String>> edges(Footpaths footpaths, int n) {
+        List<List<String>> edges = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            List<String> reach = new ArrayList<>();
+            for (int e = footpaths.start(i); e < footpaths.end(i); e++) {
+                reach.add(footpaths.target(e) + ":" + footpaths.minutes(e));
+            }
+            reach.sort(null);
+            edges.add(reach);
+        }
+        return edges;
+    }
+
+    private static List<Integer> targets(Footpaths footpaths, int station) {
+        List<Integer> targets = new ArrayList<>();
+        for (int e = footpaths.start(station); e < footpaths.end(station); e++) targets.add(footpaths.target(e));
+        return targets;
+    }
+
+    private static double mPerDegLon(List<StationDto> stations) {
+        double meanLat = stations.stream().filter(FootpathsTests::located).mapToDouble(StationDto::lat).average().orElse(0);
+        return M_PER_DEG_LON_EQUATOR * Math.cos(Math.toRadians(meanLat));
+    }
+
+    private static boolean located(StationDto s) {
+        return s.lat() != null && s.lon() != null && Math.abs(s.lat()) <= 90 && Math.abs(s.lon()) <= 180;
+    }
+
+    private static StationDto station(long id, Double lat, Double lon) {
+        return new StationDto(id, "Station " + id, lat, lon, false, false, false, false, false, false, null);
+    }
+}
@@ -0,0 +1,116 @@
+package com.metro.vigo.backend.network;
+
+import com.metro.vigo.backend.api.dto.LineDetailDto;
+import com.metro.vigo.backend.api.dto.LineDto;
+import com.metro.vigo.backend.api.dto.StationDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NetworkBundleCodecTests {
+
+    private static final Footpaths.Settings SETTINGS = Footpaths.Settings.DEFAULT;
+
+    /** Every facility flag combination, missing coordinates, notes on some stations only, non-ASCII names. */
+    static NetworkSnapshot sample() {
+        List<StationDto> stations = new ArrayList<>();
+        for (int i = 0; i < 1 << 6; i++) {
+            boolean located = i % 5 != 0;
+            stations.add(new StationDto(
+                    1000L + i,
+                    "Estación %02d · Praza de España ↔ Ría".formatted(i),
+                    located ? 42.23 + i * 0.001 : null,
+                    located ? -8.72 - i * 0.001 : null,
+                    (i & 1) != 0, (i & 2) != 0, (i & 4) != 0, (i & 8) != 0, (i & 16) != 0, (i & 32) != 0,
+                    i % 3 == 0 ? "Acceso sin escalones nº " + i : null));
+        }
+
+        List<LineDto> lines = List.of(
+                new LineDto(1L, "V1", "Iago Aspas · Teis ↔ Coruxo", "#008080", "OK"),
+                new LineDto(2L, "V2", "Circular", "#FF7F50", "DELAYED"),
+                new LineDto(3L, "V3", "Sin paradas", "#50C878", "CLOSED"));
+        Map<Long, LineDetailDto> details = new LinkedHashMap<>();
+        details.put(1L, detail(lines.get(0), stations.subList(0, 20)));
+        // A loop: the first station is also the last, and stations shared with V1
+        var loop = new ArrayList<>(stations.subList(10, 40));
+        loop.add(stations.get(10));
+        details.put(2L, detail(lines.get(1), loop));
+        details.put(3L, detail(lines.get(2), List.of()));
+
+        return NetworkSnapshot.of(987_654_321L, lines, details, stations, SETTINGS);
+    }
+
+    @Test
+    void decodeRestoresEverythingEncoded() throws IOException {
+        var snapshot = sample();
+
+        var decoded = decode(NetworkBundleCodec.encode(snapshot));
+
+        assertEquals(snapshot.version(), decoded.version());
+        assertEquals(snapshot.stations(), decoded.stations());
+        assertEquals(snapshot.lines(), decoded.lines());
+        assertEquals(List.copyOf(snapshot.lineDetails()), List.copyOf(decoded.lineDetails()));
+        assertArrayEquals(NetworkBundleCodec.encode(snapshot), NetworkBundleCodec.encode(decoded));
+    }
+
+    @Test
+    void dtoReferencesStationsByIndex() {
+        var snapshot = sample();
+
+        var dto = NetworkBundleCodec.toDto(snapshot);
+
+        var stops = List.copyOf(snapshot.lineDetails());
+        for (int l = 0; l < stops.size(); l++) {
+            var expected = stops.get(l).stations().stream().mapToInt(s -> snapshot.stationIndex(s.id())).toArray();
+            assertArrayEquals(expected, dto.lineStations()[l]);
+        }
+    }
+
+    @Test
+    void rejectsWrongMagic() {
+        var bytes = NetworkBundleCodec.encode(sample());
+        bytes[0] ^= 0x01;
+
+        var ex = assertThrows(IOException.class, () -> decode(bytes));
+        assertEquals("Not a network bundle", ex.getMessage());
+    }
+
+    @Test
+    void rejectsUnknownFormat() {
+        var bytes = NetworkBundleCodec.encode(sample());
+        ByteBuffer.wrap(bytes).putShort(4, (short) (NetworkBundleCodec.FORMAT + 1));
+
+        var ex = assertThrows(IOException.class, () -> decode(bytes));
+        assertEquals("Unsupported bundle format " + (NetworkBundleCodec.FORMAT + 1), ex.getMessage());
+    }
+
+    @Test
+    void rejectsTruncatedInput() {
+        var bytes = NetworkBundleCodec.encode(sample());
+
+        for (int length : new int[]{0, 5, 14, bytes.length / 2, bytes.length - 1}) {
+            assertThrows(EOFException.class, () -> decode(Arrays.copyOf(bytes, length)), "length " + length);
+        }
+    }
+
+    private static NetworkSnapshot decode(byte[] bytes) throws IOException {
+        return NetworkBundleCodec.decode(new DataInputStream(new ByteArrayInputStream(bytes)), SETTINGS);
+    }
+
+    private static LineDetailDto detail(LineDto line, List<StationDto> stops) {
+        return new LineDetailDto(line.id(), line.code(), line.name(), line.colorHex(), line.status(), List.copyOf(stops));
+    }
+}
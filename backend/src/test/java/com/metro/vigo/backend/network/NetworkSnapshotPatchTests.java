@@ -0,0 +1,232 @@
+package com.metro.vigo.backend.network;
+
+import com.metro.vigo.backend.api.dto.LineDetailDto;
+import com.metro.vigo.backend.api.dto.LineDto;
+import com.metro.vigo.backend.api.dto.StationDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@link NetworkSnapshot#patch} against a full rebuild from the same rows. The test keeps the rows (what the DB
+ * holds) and, for each edit, passes {@code patch} what {@link NetworkSnapshotService} would: the current row
+ * (or null) for every changed line and station, and the stop order of every line whose links changed.
+ */
+class NetworkSnapshotPatchTests {
+
+    private static final Footpaths.Settings SETTINGS = Footpaths.Settings.DEFAULT;
+
+    private final Map<Long, LineDto> lines = new TreeMap<>();
+    private final Map<Long, StationDto> stations = new HashMap<>();
+    private final Map<Long, List<Long>> stops = new HashMap<>();
+    private long version;
+    private NetworkSnapshot snapshot;
+
+    @BeforeEach
+    void network() {
+        // ~200 m apart along a north-south avenue, so neighbours have footpaths
+        for (long id = 1; id <= 12; id++) {
+            stations.put(id, station(id, "Station " + (char) ('A' + id - 1), 42.230 + id * 0.0018, -8.720));
+        }
+        putLine(100, "L1", List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L));
+        putLine(101, "L2", List.of(5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L));
+        putLine(102, "L3", List.of(12L, 3L, 7L, 1L));
+        snapshot = full();
+    }
+
+    @Test
+    void addStation() {
+        var edit = new Edit();
+        edit.station(station(13, "Station AA", 42.2373, -8.7185));
+        edit.stops(100, List.of(1L, 2L, 3L, 4L, 13L, 5L, 6L, 7L, 8L));
+        assertPatchMatchesRebuild(edit);
+    }
+
+    @Test
+    void renameStation() {
+        var edit = new Edit();
+        edit.station(rename(stations.get(2L), "Zeta"));
+        assertPatchMatchesRebuild(edit);
+    }
+
+    @Test
+    void moveStation() {
+        var edit = new Edit();
+        edit.station(move(stations.get(6L), 42.2405, -8.7170));
+        assertPatchMatchesRebuild(edit);
+    }
+
+    @Test
+    void deleteStation() {
+        var edit = new Edit();
+        edit.deleteStation(7);
+        assertPatchMatchesRebuild(edit);
+    }
+
+    @Test
+    void resequenceLine() {
+        var edit = new Edit();
+        edit.stops(102, List.of(1L, 7L, 3L, 12L));
+        assertPatchMatchesRebuild(edit);
+    }
+
+    @Test
+    void addRenameAndDeleteLines() {
+        var edit = new Edit();
+        edit.line(new LineDto(103L, "L0", "Circular", "#112233", "OK"), List.of(2L, 9L, 11L));
+        edit.line(new LineDto(100L, "L9", "Renamed", "#445566", "DELAYED"), null);
+        edit.deleteLine(101);
+        assertPatchMatchesRebuild(edit);
+    }
+
+    @Test
+    void successiveEditsOnPatchedSnapshots() {
+        addStation();
+        renameStation();
+        moveStation();
+        resequenceLine();
+        deleteStation();
+        addRenameAndDeleteLines();
+
+        var mixed = new Edit();
+        mixed.station(move(rename(stations.get(9L), "Station 0"), 42.2350, -8.7210));
+        mixed.station(station(14, "Station M", 42.2400, -8.7195));
+        mixed.stops(102, List.of(14L, 1L, 3L, 12L));
+        assertPatchMatchesRebuild(mixed);
+    }
+
+    private void assertPatchMatchesRebuild(Edit edit) {
+        version++;
+        Map<Long, LineDto> changedLines = new HashMap<>();
+        edit.lineIds.forEach(id -> changedLines.put(id, lines.get(id)));
+        Map<Long, StationDto> changedStations = new HashMap<>();
+        edit.stationIds.forEach(id -> changedStations.put(id, stations.get(id)));
+        Map<Long, List<Long>> orderings = new HashMap<>();
+        edit.orderedLineIds.forEach(id -> orderings.put(id, stops.getOrDefault(id, List.of())));
+
+        var patched = snapshot.patch(version, changedLines, changedStations, orderings, this::stationOrder, SETTINGS);
+        var rebuilt = full();
+
+        assertEquals(rebuilt.version(), patched.version());
+        assertEquals(rebuilt.lines(), patched.lines());
+        assertEquals(details(rebuilt), details(patched));
+        assertEquals(rebuilt.stations(), patched.stations());
+        for (var s : rebuilt.stations()) {
+            assertEquals(rebuilt.station(s.id()), patched.station(s.id()));
+            assertEquals(rebuilt.stationIndex(s.id()), patched.stationIndex(s.id()), "index of " + s.name());
+            assertEquals(rebuilt.linesAt(s.id()), patched.linesAt(s.id()), "lines at " + s.name());
+            for (var l : rebuilt.lines()) {
+                assertEquals(rebuilt.stopPosition(l.id(), s.id()), patched.stopPosition(l.id(), s.id()),
+                        "position of " + s.name() + " on " + l.code());
+            }
+        }
+        // Removed rows are gone from the patched lookups too
+        for (long id : edit.stationIds) {
+            if (stations.containsKey(id)) continue;
+            assertEquals(-1, patched.stationIndex(id));
+            assertEquals(List.of(), patched.linesAt(id));
+        }
+        assertEquals(footpaths(rebuilt), footpaths(patched));
+
+        snapshot = patched;
+    }
+
+    private NetworkSnapshot full() {
+        Map<Long, LineDetailDto> details = new LinkedHashMap<>();
+        for (var l : lines.values()) {
+            details.put(l.id(), new LineDetailDto(l.id(), l.code(), l.name(), l.colorHex(), l.status(),
+                    stops.getOrDefault(l.id(), List.of()).stream().map(stations::get).toList()));
+        }
+        var ordered = stationOrder().stream().map(stations::get).toList();
+        return NetworkSnapshot.of(version, List.copyOf(lines.values()), details, ordered, SETTINGS);
+    }
+
+    private List<Long> stationOrder() {
+        return stations.values().stream()
+                .sorted(Comparator.comparing(StationDto::name).thenComparing(StationDto::id))
+                .map(StationDto::id)
+                .toList();
+    }
+
+    private static Map<Long, LineDetailDto> details(NetworkSnapshot s) {
+        Map<Long, LineDetailDto> byId = new TreeMap<>();
+        s.lineDetails().forEach(d -> byId.put(d.id(), d));
+        return byId;
+    }
+
+    // Station id -> "target id:minutes" of its footpaths (edge order within a station is not significant)
+    private static Map<Long, Set<String>> footpaths(NetworkSnapshot s) {
+        Map<Long, Set<String>> result = new TreeMap<>();
+        var f = s.footpaths();
+        for (int i = 0; i < s.stations().size(); i++) {
+            Set<String> edges = new TreeSet<>();
+            for (int e = f.start(i); e < f.end(i); e++) {
+                edges.add(s.stations().get(f.target(e)).id() + ":" + f.minutes(e));
+            }
+            result.put(s.stations().get(i).id(), edges);
+        }
+        return result;
+    }
+
+    private void putLine(long id, String code, List<Long> stopIds) {
+        lines.put(id, new LineDto(id, code, "Line " + code, "#000000", "OK"));
+        stops.put(id, stopIds);
+    }
+
+    /** One transaction's writes: applied to the rows, and remembered as the change log would. */
+    private final class Edit {
+        final Set<Long> lineIds = new HashSet<>();
+        final Set<Long> stationIds = new HashSet<>();
+        final Set<Long> orderedLineIds = new HashSet<>();
+
+        void station(StationDto s) {
+            stations.put(s.id(), s);
+            stationIds.add(s.id());
+        }
+
+        void deleteStation(long id) {
+            stations.remove(id);
+            stationIds.add(id);
+            // Its links go with it
+            for (var e : stops.entrySet()) {
+                if (!e.getValue().contains(id)) continue;
+                e.setValue(e.getValue().stream().filter(s -> s != id).toList());
+                orderedLineIds.add(e.getKey());
+            }
+        }
+
+        void line(LineDto l, List<Long> stopIds) {
+            lines.put(l.id(), l);
+            lineIds.add(l.id());
+            if (stopIds != null) stops(l.id(), stopIds);
+        }
+
+        void deleteLine(long id) {
+            lines.remove(id);
+            lineIds.add(id);
+            if (stops.remove(id) != null) orderedLineIds.add(id);
+        }
+
+        void stops(long lineId, List<Long> stopIds) {
+            stops.put(lineId, stopIds);
+            orderedLineIds.add(lineId);
+        }
+    }
+
+    private static StationDto station(long id, String name, double lat, double lon) {
+        return new StationDto(id, name, lat, lon, true, false, false, false, false, false, null);
+    }
+
+    private static StationDto rename(StationDto s, String name) {
+        return new StationDto(s.id(), name, s.lat(), s.lon(), s.accessible(), s.hasElevator(), s.hasToilets(),
+                s.hasInfoPoint(), s.hasEBikes(), s.hasBikeParking(), s.accessibilityNote());
+    }
+
+    private static StationDto move(StationDto s, double lat, double lon) {
+        return new StationDto(s.id(), s.name(), lat, lon, s.accessible(), s.hasElevator(), s.hasToilets(),
+                s.hasInfoPoint(), s.hasEBikes(), s.hasBikeParking(), s.accessibilityNote());
+    }
+}
@@ -0,0 +1,179 @@
+package com.metro.vigo.backend.network;
+
+import com.metro.vigo.backend.api.dto.LineDetailDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/** Header layout: int magic, short format, int payload length, long CRC32, then the payload. */
+class SnapshotFileStoreTests {
+
+    private static final Footpaths.Settings SETTINGS = Footpaths.Settings.DEFAULT;
+    private static final int PAYLOAD_OFFSET = 4 + 2 + 4 + 8;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readReturnsTheSnapshotWritten() throws Exception {
+        var file = dir.resolve("data/network.snapshot");
+        var snapshot = NetworkBundleCodecTests.sample();
+
+        write(file, snapshot);
+        var restored = new SnapshotFileStore(file, true).read(SETTINGS);
+
+        assertNotNull(restored);
+        assertEquals(snapshot.version(), restored.version());
+        assertEquals(snapshot.stations(), restored.stations());
+        assertEquals(snapshot.lines(), restored.lines());
+        assertEquals(List.copyOf(snapshot.lineDetails()), List.copyOf(restored.lineDetails()));
+        try (var files = Files.list(file.getParent())) {
+            assertEquals(List.of(file.getFileName()), files.map(Path::getFileName).toList(), "the temp file is renamed into place");
+        }
+    }
+
+    @Test
+    void missingFileIsIgnored() {
+        assertNull(new SnapshotFileStore(dir.resolve("none"), true).read(SETTINGS));
+    }
+
+    @Test
+    void disabledStoreNeitherReadsNorWrites() throws Exception {
+        var file = dir.resolve("network.snapshot");
+        write(file, NetworkBundleCodecTests.sample());
+
+        var disabled = new SnapshotFileStore(file, false);
+        assertNull(disabled.read(SETTINGS));
+
+        var other = dir.resolve("other.snapshot");
+        write(new SnapshotFileStore(other, false), NetworkBundleCodecTests.sample());
+        assertFalse(Files.exists(other));
+    }
+
+    @Test
+    void truncatedFileIsIgnored() throws Exception {
+        var file = written();
+        var bytes = Files.readAllBytes(file);
+
+        for (int length : new int[]{0, PAYLOAD_OFFSET - 1, PAYLOAD_OFFSET, bytes.length - 1}) {
+            Files.write(file, Arrays.copyOf(bytes, length));
+            assertNull(new SnapshotFileStore(file, true).read(SETTINGS), "length " + length);
+        }
+    }
+
+    @Test
+    void fileWithTrailingBytesIsIgnored() throws Exception {
+        var file = written();
+        var bytes = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length + 1));
+        assertNull(new SnapshotFileStore(file, true).read(SETTINGS));
+    }
+
+    @Test
+    void corruptPayloadIsIgnored() throws Exception {
+        var file = written();
+        var bytes = Files.readAllBytes(file);
+
+        bytes[PAYLOAD_OFFSET + bytes.length / 3] ^= 0x40;
+        Files.write(file, bytes);
+        assertNull(new SnapshotFileStore(file, true).read(SETTINGS));
+    }
+
+    @Test
+    void wrongChecksumIsIgnored() throws Exception {
+        var file = written();
+        var bytes = Files.readAllBytes(file);
+
+        var header = ByteBuffer.wrap(bytes);
+        header.putLong(10, header.getLong(10) + 1);
+        Files.write(file, bytes);
+        assertNull(new SnapshotFileStore(file, true).read(SETTINGS));
+    }
+
+    @Test
+    void wrongMagicIsIgnored() throws Exception {
+        var file = written();
+        var bytes = Files.readAllBytes(file);
+
+        ByteBuffer.wrap(bytes).putInt(0, NetworkBundleCodec.MAGIC); // a bare bundle is not a snapshot file
+        Files.write(file, bytes);
+        assertNull(new SnapshotFileStore(file, true).read(SETTINGS));
+    }
+
+    @Test
+    void otherFileFormatIsIgnored() throws Exception {
+        var file = written();
+        var bytes = Files.readAllBytes(file);
+
+        ByteBuffer.wrap(bytes).putShort(4, (short) (SnapshotFileStore.FORMAT + 1));
+        Files.write(file, bytes);
+        assertNull(new SnapshotFileStore(file, true).read(SETTINGS));
+    }
+
+    @Test
+    void validChecksumOverAnUndecodablePayloadIsIgnored() throws Exception {
+        var file = written();
+        var bytes = Files.readAllBytes(file);
+
+        // Well-formed header around a payload that is not a bundle
+        byte[] payload = Arrays.copyOfRange(bytes, PAYLOAD_OFFSET, bytes.length);
+        payload[0] ^= 0x01;
+        var crc = new CRC32();
+        crc.update(payload);
+        var rewritten = ByteBuffer.allocate(bytes.length)
+                .putInt(SnapshotFileStore.MAGIC)
+                .putShort(SnapshotFileStore.FORMAT)
+                .putInt(payload.length)
+                .putLong(crc.getValue())
+                .put(payload)
+                .array();
+        Files.write(file, rewritten);
+        assertNull(new SnapshotFileStore(file, true).read(SETTINGS));
+    }
+
+    @Test
+    void rewriteReplacesTheFile() throws Exception {
+        var file = written();
+        var first = Files.readAllBytes(file);
+
+        var sample = NetworkBundleCodecTests.sample();
+        var details = new LinkedHashMap<Long, LineDetailDto>();
+        sample.lineDetails().forEach(l -> details.put(l.id(), l));
+        var newer = NetworkSnapshot.of(sample.version() + 1, sample.lines(), details, sample.stations(), SETTINGS);
+        write(file, newer);
+
+        var restored = new SnapshotFileStore(file, true).read(SETTINGS);
+        assertNotNull(restored);
+        assertEquals(newer.version(), restored.version());
+        assertFalse(Arrays.equals(first, Files.readAllBytes(file)));
+    }
+
+    private Path written() throws Exception {
+        var file = dir.resolve("network.snapshot");
+        write(file, NetworkBundleCodecTests.sample());
+        return file;
+    }
+
+    private static void write(Path file, NetworkSnapshot snapshot) throws InterruptedException {
+        write(new SnapshotFileStore(file, true), snapshot);
+    }
+
+    // shutdown() waits for the background writer
+    private static void write(SnapshotFileStore store, NetworkSnapshot snapshot) throws InterruptedException {
+        store.writeAsync(snapshot);
+        store.shutdown();
+    }
+}
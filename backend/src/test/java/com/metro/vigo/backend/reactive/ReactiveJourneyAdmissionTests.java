@@ -0,0 +1,38 @@
+package com.metro.vigo.backend.reactive;
+
+import com.metro.vigo.backend.admission.JourneyAdmission;
+import com.metro.vigo.backend.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/** The Netty journey route goes through the same admission as the servlet one. */
+class ReactiveJourneyAdmissionTests {
+
+    @Test
+    void journeyBeyondTheClientsBurstIsRejectedWithRetryAfter() {
+        // One token per client, refilled at one per second
+        var admission = new JourneyAdmission(new MetricsRegistry(), 1, 1, 1, 16, 32, 4, 256, Duration.ofMillis(200));
+        var handlers = mock(ReactiveReadHandlers.class);
+        when(handlers.journey(any())).thenAnswer(i -> ServerResponse.ok().bodyValue("plan"));
+        when(handlers.lines(any())).thenAnswer(i -> ServerResponse.ok().bodyValue("lines"));
+        var client = WebTestClient.bindToRouterFunction(
+                ReactiveReadRoutes.routes(handlers, ReactiveReadRoutes.admit(admission))).build();
+
+        client.get().uri("/api/journey?from=1&to=2").exchange().expectStatus().isOk();
+        client.get().uri("/api/journey?from=1&to=2").exchange()
+                .expectStatus().isEqualTo(429)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+                .expectBody().jsonPath("$.error").isEqualTo("TOO_MANY_REQUESTS");
+
+        // Other routes are not admission controlled
+        client.get().uri("/api/lines").exchange().expectStatus().isOk();
+    }
+}
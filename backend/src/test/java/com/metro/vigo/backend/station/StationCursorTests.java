@@ -0,0 +1,26 @@
+package com.metro.vigo.backend.station;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StationCursorTests {
+
+    @Test
+    void roundTripsNamesThatAreUnsafeInHeaders() {
+        var cursor = new StationCursor("Praza de España, Vigo\r\nX-Injected: 1", 42);
+
+        var token = cursor.encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+        assertEquals(cursor, StationCursor.decode(token));
+    }
+
+    @Test
+    void rejectsTokensThatAreNotCursors() {
+        assertThrows(IllegalArgumentException.class, () -> StationCursor.decode("Coia,12"));
+        assertThrows(IllegalArgumentException.class, () -> StationCursor.decode(new StationCursor("Coia", 1).encode() + "!"));
+    }
+}
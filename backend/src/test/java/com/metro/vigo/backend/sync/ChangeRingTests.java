@@ -0,0 +1,98 @@
+package com.metro.vigo.backend.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeRingTests {
+
+    @Test
+    void outOfOrderCommitIsHeldBackUntilTheGapCloses() {
+        var ring = new ChangeRing(16, 4);
+
+        // Version 6 completes first; 5 committed before it but has not been appended yet
+        assertTrue(ring.append(change(6)));
+        ring.committed(5, 6);
+        assertEquals(4, ring.stable());
+        assertEquals(List.of(), versions(ring.since(4)));
+
+        assertTrue(ring.append(change(5)));
+        ring.committed(4, 5);
+        assertEquals(6, ring.stable());
+        assertEquals(List.of(5L, 6L), versions(ring.since(4)));
+    }
+
+    @Test
+    void rolledBackVersionsDoNotBlockTheStableVersion() {
+        var ring = new ChangeRing(16, 4);
+
+        // Versions 5 and 6 were rolled back: the writer of 7 read head 4 under the write lock
+        ring.append(change(7));
+        ring.committed(4, 7);
+
+        assertEquals(7, ring.stable());
+        assertEquals(List.of(7L), versions(ring.since(4)));
+    }
+
+    @Test
+    void knownChangesAreNotAppendedTwice() {
+        var ring = new ChangeRing(16, 4);
+
+        assertFalse(ring.append(change(3)), "at or below the head the ring was loaded at");
+        assertTrue(ring.append(change(5)));
+        assertFalse(ring.append(change(5)));
+        ring.committed(4, 5);
+        assertFalse(ring.append(change(5)));
+        assertEquals(List.of(5L), versions(ring.since(4)));
+    }
+
+    @Test
+    void versionsBelowTheFloorAreServedFromTheDatabase() {
+        var ring = new ChangeRing(16, 10);
+
+        assertNull(ring.since(9));
+        assertEquals(List.of(), versions(ring.since(10)));
+    }
+
+    @Test
+    void overflowEvictsTheOldestAndRaisesTheFloor() {
+        var ring = new ChangeRing(3, 0);
+        for (long v = 1; v <= 5; v++) {
+            ring.append(change(v));
+            ring.committed(v - 1, v);
+        }
+
+        assertEquals(5, ring.stable());
+        assertNull(ring.since(1));
+        assertEquals(List.of(3L, 4L, 5L), versions(ring.since(2)));
+        assertEquals(List.of(5L), versions(ring.since(4)));
+    }
+
+    @Test
+    void changeOlderThanAFullRingIsNewButNotKept() {
+        var ring = new ChangeRing(2, 0);
+        ring.append(change(3));
+        ring.append(change(4));
+
+        // 2 committed before 3 and 4 but is only seen now
+        assertTrue(ring.append(change(2)));
+        ring.committed(0, 4);
+
+        assertNull(ring.since(1));
+        assertEquals(List.of(3L, 4L), versions(ring.since(2)));
+    }
+
+    static Change change(long version) {
+        return new Change(version, ChangeType.INCIDENT, version, ChangeOperation.DELETE, Instant.EPOCH);
+    }
+
+    private static List<Long> versions(List<Change> changes) {
+        return changes.stream().map(Change::version).toList();
+    }
+}
@@ -0,0 +1,108 @@
+package com.metro.vigo.backend.sync;
+
+import com.metro.vigo.backend.metrics.MetricsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two nodes sharing one database: a write recorded on node A must reach node B's listeners.
+ * Runs against a real Postgres (e.g. docker compose up db) when DB_URL, DB_USER and DB_PASS are set.
+ */
+@EnabledIfEnvironmentVariable(named = "DB_URL", matches = ".+")
+class ClusterChangeListenerTests {
+
+    private static final String CHANNEL = "metro_changes_test";
+    // Entity ids no real row has, so a dev database is not affected
+    private static final long ENTITY_ID = -4242;
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate tx;
+    private ClusterChangeListener listener;
+    private final List<Object> receivedByB = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        var dataSource = new DriverManagerDataSource(System.getenv("DB_URL"), System.getenv("DB_USER"), System.getenv("DB_PASS"));
+        jdbc = new JdbcTemplate(dataSource);
+        tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbc.execute("""
+                create table if not exists change_log (
+                    id          bigint generated by default as identity primary key,
+                    entity_type varchar(32) not null,
+                    entity_id   bigint not null,
+                    operation   varchar(16) not null,
+                    created_at  timestamp(6) with time zone not null
+                )
+                """);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (listener != null) listener.stop();
+        jdbc.update("delete from change_log where entity_id = ?", ENTITY_ID);
+    }
+
+    @Test
+    void notificationFromAnotherNodeIsPublishedLocally() throws InterruptedException {
+        var nodeA = node(new CopyOnWriteArrayList<>());
+        var nodeB = startNodeB(Duration.ofMinutes(1)); // long poll: only NOTIFY can be fast enough
+
+        nodeA.record(ChangeType.LINE, ENTITY_ID, ChangeOperation.UPSERT);
+
+        assertTrue(awaitEvent(Duration.ofSeconds(2)), "node B did not see node A's change");
+        assertTrue(nodeB.head() >= nodeA.head());
+    }
+
+    @Test
+    void missedNotificationIsCaughtByThePoll() throws InterruptedException {
+        startNodeB(Duration.ofMillis(200));
+
+        // A writer that never notifies (or a notification lost while B was reconnecting)
+        jdbc.update("insert into change_log (entity_type, entity_id, operation, created_at) values (?, ?, ?, ?)",
+                ChangeType.STATION.name(), ENTITY_ID, ChangeOperation.UPSERT.name(), Timestamp.from(Instant.now()));
+
+        assertTrue(awaitEvent(Duration.ofSeconds(3)), "poll fallback did not pick up the change");
+    }
+
+    private ChangeLogService startNodeB(Duration pollInterval) throws InterruptedException {
+        var nodeB = node(receivedByB);
+        nodeB.head(); // ring loaded before the test's writes
+        listener = new ClusterChangeListener(nodeB, new MetricsRegistry(),
+                System.getenv("DB_URL"), System.getenv("DB_USER"), System.getenv("DB_PASS"), CHANNEL, pollInterval);
+        listener.start();
+        Thread.sleep(300); // LISTEN registered
+        return nodeB;
+    }
+
+    private ChangeLogService node(List<Object> events) {
+        return new ChangeLogService(jdbc, tx, events::add, 64, true, CHANNEL);
+    }
+
+    private boolean awaitEvent(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            for (var e : receivedByB) {
+                if (e instanceof ChangeLogEvent event
+                        && event.changes().stream().anyMatch(c -> c.entityId() == ENTITY_ID)) {
+                    return true;
+                }
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,75 @@
+package com.metro.vigo.backend.sync;
+
+import com.metro.vigo.backend.api.dto.TombstoneDto;
+import com.metro.vigo.backend.incident.IncidentRepository;
+import com.metro.vigo.backend.line.LineRepository;
+import com.metro.vigo.backend.network.LineStationRepository;
+import com.metro.vigo.backend.station.StationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.metro.vigo.backend.sync.ChangeRingTests.change;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/** Sync responses backed by a real {@link ChangeRing}; the changes are deletes so no entity is loaded. */
+class SyncServiceTests {
+
+    private final ChangeRing ring = new ChangeRing(16, 4);
+    private final ChangeLogService changeLog = mock(ChangeLogService.class);
+    private SyncService sync;
+
+    @BeforeEach
+    void setUp() {
+        when(changeLog.head()).thenAnswer(i -> ring.stable());
+        when(changeLog.since(anyLong())).thenAnswer(i -> ring.since(i.getArgument(0)));
+        sync = new SyncService(changeLog, mock(LineRepository.class), mock(StationRepository.class),
+                mock(LineStationRepository.class), mock(IncidentRepository.class));
+    }
+
+    @Test
+    void clientSyncedBetweenOutOfOrderCommitsStillGetsTheEarlierChange() {
+        // Version 6 is published before version 5, which committed first
+        ring.append(change(6));
+        ring.committed(5, 6);
+
+        var first = sync.since(4);
+        assertEquals(4, first.version(), "must not skip past the missing version 5");
+        assertTrue(first.tombstones().isEmpty());
+
+        ring.append(change(5));
+        ring.committed(4, 5);
+
+        var second = sync.since(first.version());
+        assertEquals(6, second.version());
+        assertEquals(List.of(new TombstoneDto("INCIDENT", 5L), new TombstoneDto("INCIDENT", 6L)), second.tombstones());
+    }
+
+    @Test
+    void clientTooFarBehindGetsAFullSync() {
+        ring.append(change(5));
+        ring.committed(4, 5);
+        when(changeLog.since(2)).thenReturn(null);
+
+        var result = sync.since(2);
+        assertTrue(result.full());
+        assertEquals(5, result.version());
+    }
+
+    @Test
+    void nothingNewReturnsTheHead() {
+        ring.append(change(5));
+        ring.committed(4, 5);
+
+        var result = sync.since(5);
+        assertEquals(5, result.version());
+        assertFalse(result.full());
+        assertTrue(result.tombstones().isEmpty());
+    }
+}
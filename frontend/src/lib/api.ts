@@ -99,6 +99,7 @@ export type JourneyLeg = {
   toName: string;
   durationMin: number;
   direction?: string;
+  crowding?: "LOW" | "MEDIUM" | "HIGH" | null;
 };
 
 export type JourneyPlan = {